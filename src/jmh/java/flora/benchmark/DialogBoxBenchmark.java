@@ -0,0 +1,118 @@
+package flora.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import flora.ui.ChatMessage;
+import flora.ui.DialogBox;
+import javafx.application.Platform;
+import javafx.scene.image.Image;
+
+/**
+ * Measures the cost of rendering a 10,000-message chat session into dialog boxes: parsing the FXML layout
+ * for every message as the GUI used to, building every box in code, and reusing one box the way a
+ * transcript cell does. Each operation renders the whole session, so divide by 10,000 for the cost per
+ * message.
+ *
+ * <p>The JavaFX toolkit is started in setup, so this needs a display (or a headless Glass platform).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DialogBoxBenchmark {
+    private static final int SESSION_LENGTH = 10_000;
+
+    private List<ChatMessage> session;
+    private Image userImage;
+    private Image floraImage;
+
+    /**
+     * Starts the JavaFX toolkit and builds a session of alternating user input and replies.
+     */
+    @Setup
+    public void setUp() {
+        try {
+            Platform.startup(() -> { });
+        } catch (IllegalStateException e) {
+            // the toolkit is already running
+        }
+        userImage = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/User.png"));
+        floraImage = new Image(DialogBoxBenchmark.class.getResourceAsStream("/images/Flora.png"));
+
+        session = new ArrayList<>(SESSION_LENGTH);
+        for (int i = 0; i < SESSION_LENGTH / 2; i++) {
+            session.add(ChatMessage.ofUser("todo read chapter " + i));
+            session.add(i % 10 == 0
+                    ? ChatMessage.ofResponse("Error: Bro's out of bounds")
+                    : ChatMessage.ofResponse("Got it. I've added this task:\n  [T][ ] read chapter " + i));
+        }
+    }
+
+    /**
+     * Builds a new dialog box for every message by parsing the FXML layout, as the GUI used to.
+     *
+     * @param blackhole Consumes the boxes so they are not optimized away.
+     * @throws IOException If the FXML layout cannot be loaded.
+     */
+    @Benchmark
+    public void fxmlPerMessage(Blackhole blackhole) throws IOException {
+        for (ChatMessage message : session) {
+            blackhole.consume(new LegacyDialogBox(message.text(), imageFor(message)));
+        }
+    }
+
+    /**
+     * Builds a new dialog box for every message in code.
+     *
+     * @param blackhole Consumes the boxes so they are not optimized away.
+     */
+    @Benchmark
+    public void codePerMessage(Blackhole blackhole) {
+        for (ChatMessage message : session) {
+            DialogBox box = new DialogBox();
+            box.show(message, imageFor(message));
+            blackhole.consume(box);
+        }
+    }
+
+    /**
+     * Shows every message in the same dialog box, the way a transcript cell reuses its box.
+     *
+     * @return The box, so the updates are not optimized away.
+     */
+    @Benchmark
+    public DialogBox reusedBox() {
+        DialogBox box = new DialogBox();
+        for (ChatMessage message : session) {
+            box.show(message, imageFor(message));
+        }
+        return box;
+    }
+
+    /**
+     * Returns the profile image of the message's speaker.
+     *
+     * @param message The message.
+     * @return The speaker's image.
+     */
+    private Image imageFor(ChatMessage message) {
+        return message.isFromFlora() ? floraImage : userImage;
+    }
+}
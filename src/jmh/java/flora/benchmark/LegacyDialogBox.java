@@ -0,0 +1,38 @@
+package flora.benchmark;
+
+import java.io.IOException;
+
+import javafx.fxml.FXML;
+import javafx.fxml.FXMLLoader;
+import javafx.scene.control.Label;
+import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
+import javafx.scene.layout.HBox;
+
+/**
+ * The dialog box the way {@code DialogBox} built it before its layout moved into code, parsing the FXML
+ * layout for every box. Kept only as a baseline for {@link DialogBoxBenchmark}.
+ */
+final class LegacyDialogBox extends HBox {
+    @FXML
+    private Label dialog;
+    @FXML
+    private ImageView displayPicture;
+
+    /**
+     * Constructs a dialog box by loading the FXML layout and setting the display text and image.
+     *
+     * @param text The text to display in the dialog label.
+     * @param img  The image to display as the speaker's profile picture.
+     * @throws IOException If the FXML layout cannot be loaded.
+     */
+    LegacyDialogBox(String text, Image img) throws IOException {
+        FXMLLoader fxmlLoader = new FXMLLoader(LegacyDialogBox.class.getResource("LegacyDialogBox.fxml"));
+        fxmlLoader.setController(this);
+        fxmlLoader.setRoot(this);
+        fxmlLoader.load();
+
+        dialog.setText(text);
+        displayPicture.setImage(img);
+    }
+}
@@ -0,0 +1,645 @@
+package flora.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import flora.command.AddDeadlineCommand;
+import flora.command.AddEventCommand;
+import flora.command.AddTodoCommand;
+import flora.command.BulkDeleteCommand;
+import flora.command.BulkMarkCommand;
+import flora.command.BulkUnmarkCommand;
+import flora.command.Command;
+import flora.command.ConflictsCommand;
+import flora.command.DeleteCommand;
+import flora.command.DueCommand;
+import flora.command.EditCommand;
+import flora.command.ExitCommand;
+import flora.command.FindCommand;
+import flora.command.FreeSlotCommand;
+import flora.command.IndexRange;
+import flora.command.ListCommand;
+import flora.command.MarkCommand;
+import flora.command.OverdueCommand;
+import flora.command.ScheduleCommand;
+import flora.command.StatsCommand;
+import flora.command.UnmarkCommand;
+import flora.exception.FloraException;
+
+/**
+ * The parser that {@code Parser} replaced with a single-pass tokenizer and a dispatch table: it switches on
+ * the lowercased command word and re-scans the input with {@code indexOf} for every field. Kept only as a
+ * baseline for {@link ParserBenchmark}.
+ */
+final class LegacyParser {
+    private static final DateTimeFormatter DATE_TIME_FMT =
+            DateTimeFormatter.ofPattern("d/M/uuuu H:mm").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_ONLY_FMT =
+            DateTimeFormatter.ofPattern("d/M/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private LegacyParser() {
+    }
+
+    /**
+     * Parses the given user input string and returns the corresponding command.
+     *
+     * @param input The raw user input string.
+     * @return The command corresponding to the user input.
+     * @throws FloraException If the input is invalid or cannot be parsed.
+     */
+    static Command parse(String input) throws FloraException {
+        String command = input;
+        int firstSpaceIndex = input.indexOf(" ");
+
+        if (firstSpaceIndex != -1) {
+            command = input.substring(0, firstSpaceIndex);
+        }
+
+        return switch (command.toLowerCase()) {
+        case "todo" -> parseTodo(input, firstSpaceIndex);
+        case "deadline" -> parseDeadline(input, firstSpaceIndex);
+        case "event" -> parseEvent(input, firstSpaceIndex);
+        case "find" -> parseFind(input, firstSpaceIndex);
+        case "edit" -> parseEdit(input, firstSpaceIndex);
+        case "schedule" -> parseSchedule(input);
+        case "due" -> parseDue(input);
+        case "overdue" -> new OverdueCommand();
+        case "conflicts" -> new ConflictsCommand();
+        case "freeslot" -> parseFreeSlot(input);
+        case "delete" -> parseDelete(input, firstSpaceIndex);
+        case "mark" -> isIndexList(input, firstSpaceIndex)
+                ? new BulkMarkCommand(parseIndexRanges(input, firstSpaceIndex))
+                : new MarkCommand(getTaskIndex(input, firstSpaceIndex));
+        case "unmark" -> isIndexList(input, firstSpaceIndex)
+                ? new BulkUnmarkCommand(parseIndexRanges(input, firstSpaceIndex))
+                : new UnmarkCommand(getTaskIndex(input, firstSpaceIndex));
+        case "list" -> parseList(input);
+        case "stats" -> new StatsCommand();
+        case "bye" -> new ExitCommand();
+        default -> throw new FloraException(getInvalidCommandMessage());
+        };
+    }
+
+    /**
+     * Parses a todo command from the user input.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code AddTodoCommand}.
+     * @throws FloraException If the task description is missing.
+     */
+    private static Command parseTodo(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("At least put something bro");
+        }
+
+        String taskDesc = input.substring(firstSpaceIndex + 1);
+        assert !taskDesc.isBlank() : "Todo description must not be blank after parsing";
+        return new AddTodoCommand(taskDesc);
+    }
+
+    /**
+     * Parses a deadline command from the user input.
+     * Extracts the task description and due date/time, supporting
+     * natural language shortcuts (e.g., "today", "tomorrow", "next week")
+     * as well as explicit date/time strings.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code AddDeadlineCommand}.
+     * @throws FloraException If the description or due date is missing or invalid.
+     */
+    private static Command parseDeadline(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("At least put something bro");
+        }
+
+        int byIndex = input.indexOf("/by");
+        if (byIndex == -1 || byIndex + 4 >= input.length()) {
+            throw new FloraException("At least set a due date bro");
+        }
+
+        String taskDesc = input.substring(firstSpaceIndex + 1, byIndex - 1);
+        String taskDueStr = input.substring(byIndex + 4);
+        assert !taskDesc.isBlank() : "Deadline description must not be blank";
+        assert !taskDueStr.isBlank() : "Deadline due date string must not be blank";
+
+        LocalDateTime taskDue = parseDueDateTime(taskDueStr);
+
+        return new AddDeadlineCommand(taskDesc, taskDue);
+    }
+
+    /**
+     * Parses an event command from the user input.
+     * Extracts the task description, start date/time, and end date/time
+     * by locating the {@code /from} and {@code /to} delimiters.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code AddEventCommand}.
+     * @throws FloraException If the description, start time, or end time is missing or invalid.
+     */
+    private static Command parseEvent(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("At least put something bro");
+        }
+
+        int fromIndex = input.indexOf("/from");
+        if (fromIndex == -1 || fromIndex + 6 >= input.length()) {
+            throw new FloraException("At least set a start time bro");
+        }
+
+        int toIndex = input.indexOf("/to");
+        if (toIndex == -1 || toIndex + 4 >= input.length()) {
+            throw new FloraException("At least set an end time bro");
+        }
+
+        String taskDesc = input.substring(firstSpaceIndex + 1, fromIndex - 1);
+        String taskStartStr = input.substring(fromIndex + 6, toIndex - 1);
+        String taskEndStr = input.substring(toIndex + 4);
+        assert !taskDesc.isBlank() : "Event description must not be blank";
+        assert !taskStartStr.isBlank() : "Event start date string must not be blank";
+        assert !taskEndStr.isBlank() : "Event end date string must not be blank";
+
+        LocalDateTime taskStart = parseDateTime(taskStartStr, "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime taskEnd = parseDateTime(taskEndStr, "end date/time", LocalTime.MAX);
+
+        if (!taskStart.isBefore(taskEnd)) {
+            throw new FloraException("Start time must be before end time.");
+        }
+
+        return new AddEventCommand(taskDesc, taskStart, taskEnd);
+    }
+
+    /**
+     * Parses a schedule command from the user input.
+     * Syntax: {@code schedule /from <start> /to <end>}. A date without a time covers the whole day,
+     * so {@code schedule /from 1/1/2025 /to 1/1/2025} shows everything on that day.
+     *
+     * @param input The raw user input string.
+     * @return The parsed {@code ScheduleCommand}.
+     * @throws FloraException If the start or end is missing or invalid.
+     */
+    private static Command parseSchedule(String input) throws FloraException {
+        int fromIndex = input.indexOf("/from");
+        if (fromIndex == -1 || fromIndex + 6 >= input.length()) {
+            throw new FloraException("At least set a start time bro");
+        }
+
+        int toIndex = input.indexOf("/to", fromIndex);
+        if (toIndex == -1 || toIndex + 4 >= input.length()) {
+            throw new FloraException("At least set an end time bro");
+        }
+
+        String fromStr = input.substring(fromIndex + 5, toIndex).trim();
+        String toStr = input.substring(toIndex + 3).trim();
+        if (fromStr.isEmpty()) {
+            throw new FloraException("At least set a start time bro");
+        }
+
+        LocalDateTime from = parseDateTime(fromStr, "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime to = parseDateTime(toStr, "end date/time", LocalTime.MAX);
+
+        if (!from.isBefore(to)) {
+            throw new FloraException("Start time must be before end time.");
+        }
+
+        return new ScheduleCommand(from, to);
+    }
+
+    /**
+     * Parses a due command from the user input.
+     * Syntax: {@code due /before <date>}, where the date also accepts the deadline shortcuts
+     * such as "tomorrow". A date without a time includes the whole day.
+     *
+     * @param input The raw user input string.
+     * @return The parsed {@code DueCommand}.
+     * @throws FloraException If the date is missing or invalid.
+     */
+    private static Command parseDue(String input) throws FloraException {
+        int beforeIndex = input.indexOf("/before");
+        if (beforeIndex == -1 || beforeIndex + 8 >= input.length()) {
+            throw new FloraException("At least set a date bro");
+        }
+
+        String beforeStr = input.substring(beforeIndex + 8).trim();
+        if (beforeStr.isEmpty()) {
+            throw new FloraException("At least set a date bro");
+        }
+        return new DueCommand(parseDueDateTime(beforeStr));
+    }
+
+    /**
+     * Parses a freeslot command from the user input.
+     * Syntax: {@code freeslot /duration <length> /within <start> <end>}, where the length is written
+     * like {@code 2h}, {@code 45m} or {@code 1h30m}. The window may also be written as
+     * {@code <start> /to <end>}. A date without a time covers the whole day.
+     *
+     * @param input The raw user input string.
+     * @return The parsed {@code FreeSlotCommand}.
+     * @throws FloraException If the duration or window is missing or invalid.
+     */
+    private static Command parseFreeSlot(String input) throws FloraException {
+        int durationIndex = input.indexOf("/duration");
+        int withinIndex = input.indexOf("/within");
+        if (durationIndex == -1 || (withinIndex != -1 && withinIndex < durationIndex)) {
+            throw new FloraException("At least set a duration bro");
+        }
+        if (withinIndex == -1 || withinIndex + 8 >= input.length()) {
+            throw new FloraException("At least set a time window bro");
+        }
+
+        Duration duration = parseDuration(input.substring(durationIndex + 9, withinIndex).trim());
+        String[] window = splitWindow(input.substring(withinIndex + 7).trim());
+        LocalDateTime from = parseDateTime(window[0], "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime to = parseDateTime(window[1], "end date/time", LocalTime.MAX);
+
+        if (!from.isBefore(to)) {
+            throw new FloraException("Start time must be before end time.");
+        }
+
+        return new FreeSlotCommand(duration, from, to);
+    }
+
+    /**
+     * Parses a list command from the user input.
+     * Syntax: {@code list [/page <number>] [/size <number>]}, where the page defaults to the first and the
+     * size to {@value ListCommand#DEFAULT_PAGE_SIZE} tasks.
+     *
+     * @param input The raw user input string.
+     * @return The parsed {@code ListCommand}.
+     * @throws FloraException If an option is unknown or its value is not a positive number.
+     */
+    private static Command parseList(String input) throws FloraException {
+        String[] tokens = input.strip().split("\\s+");
+        int page = 1;
+        int pageSize = ListCommand.DEFAULT_PAGE_SIZE;
+        for (int i = 1; i < tokens.length; i += 2) {
+            String option = tokens[i].toLowerCase();
+            if (!option.equals("/page") && !option.equals("/size")) {
+                throw new FloraException("Unknown list option: " + tokens[i]);
+            }
+            if (i + 1 >= tokens.length) {
+                throw new FloraException("At least give " + option + " a number bro");
+            }
+            int value;
+            try {
+                value = Integer.parseInt(tokens[i + 1]);
+            } catch (NumberFormatException e) {
+                throw new FloraException("Invalid " + option.substring(1) + ": " + tokens[i + 1]);
+            }
+            if (value <= 0) {
+                throw new FloraException("Invalid " + option.substring(1) + ": " + value);
+            }
+            if (option.equals("/page")) {
+                page = value;
+            } else {
+                pageSize = value;
+            }
+        }
+        return new ListCommand(page, pageSize);
+    }
+
+    /**
+     * Parses a length of time made of whole days, hours and minutes, such as {@code 2h}, {@code 90m}
+     * or {@code 1d2h30m}.
+     *
+     * @param durationStr The duration string.
+     * @return The parsed duration.
+     * @throws FloraException If the string is not a positive duration in that form.
+     */
+    private static Duration parseDuration(String durationStr) throws FloraException {
+        Duration duration = Duration.ZERO;
+        long amount = -1;
+        for (char c : durationStr.toLowerCase().toCharArray()) {
+            if (c >= '0' && c <= '9') {
+                amount = (amount == -1 ? 0 : amount * 10) + (c - '0');
+                if (amount > 1_000_000) {
+                    throw new FloraException("Invalid duration: " + durationStr);
+                }
+                continue;
+            }
+            if (amount == -1) {
+                throw new FloraException("Invalid duration: " + durationStr);
+            }
+            duration = switch (c) {
+            case 'd' -> duration.plusDays(amount);
+            case 'h' -> duration.plusHours(amount);
+            case 'm' -> duration.plusMinutes(amount);
+            default -> throw new FloraException("Invalid duration: " + durationStr);
+            };
+            amount = -1;
+        }
+        if (amount != -1 || duration.isZero()) {
+            throw new FloraException("Invalid duration: " + durationStr);
+        }
+        return duration;
+    }
+
+    /**
+     * Splits a time window into its start and end date/time strings.
+     * The two may be separated by {@code /to}; otherwise a time such as {@code 9:00} is taken to
+     * belong to the date just before it.
+     *
+     * @param windowStr The window string.
+     * @return The start and end strings.
+     * @throws FloraException If the window does not have exactly a start and an end.
+     */
+    private static String[] splitWindow(String windowStr) throws FloraException {
+        int toIndex = windowStr.indexOf("/to");
+        if (toIndex != -1) {
+            String start = windowStr.substring(0, toIndex).trim();
+            String end = windowStr.substring(toIndex + 3).trim();
+            if (start.isEmpty() || end.isEmpty()) {
+                throw new FloraException("At least set a time window bro");
+            }
+            return new String[] {start, end};
+        }
+
+        List<String> parts = new ArrayList<>();
+        for (String token : windowStr.split("\\s+")) {
+            if (token.contains(":") && !parts.isEmpty()) {
+                parts.set(parts.size() - 1, parts.get(parts.size() - 1) + " " + token);
+            } else {
+                parts.add(token);
+            }
+        }
+        if (parts.size() != 2) {
+            throw new FloraException("Invalid time window: " + windowStr);
+        }
+        return parts.toArray(new String[0]);
+    }
+
+    /**
+     * Parses a find command from the user input.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code FindCommand}.
+     * @throws FloraException If the keyword is missing.
+     */
+    private static Command parseFind(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("Put a keyword.");
+        }
+
+        String keyword = input.substring(firstSpaceIndex + 1);
+        assert !keyword.isBlank() : "Find keyword must not be blank after parsing";
+        return new FindCommand(keyword);
+    }
+
+    /**
+     * Parses an edit command from the user input.
+     * Syntax: {@code edit <index> [/desc <newDesc>] [/by <newDue>] [/from <newStart>] [/to <newEnd>]}
+     * At least one field must be provided. Fields irrelevant to the task type are rejected at execution.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code EditCommand}.
+     * @throws FloraException If the index is missing/invalid or no fields are provided.
+     */
+    private static Command parseEdit(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("At least put an index bro");
+        }
+
+        String afterCommand = input.substring(firstSpaceIndex + 1);
+        int nextSpaceIndex = afterCommand.indexOf(" ");
+
+        String indexStr = nextSpaceIndex == -1 ? afterCommand : afterCommand.substring(0, nextSpaceIndex);
+        String fields = nextSpaceIndex == -1 ? "" : afterCommand.substring(nextSpaceIndex + 1);
+
+        int taskIndex;
+        try {
+            taskIndex = Integer.parseInt(indexStr);
+        } catch (NumberFormatException e) {
+            throw new FloraException("Invalid task index: " + indexStr);
+        }
+
+        if (taskIndex <= 0) {
+            throw new FloraException("Invalid task index: " + taskIndex);
+        }
+
+        String newDesc = extractField(fields, "/desc");
+        String byStr = extractField(fields, "/by");
+        String fromStr = extractField(fields, "/from");
+        String toStr = extractField(fields, "/to");
+
+        if (newDesc == null && byStr == null && fromStr == null && toStr == null) {
+            throw new FloraException("At least change something bro. "
+                    + "Use /desc, /by, /from, or /to.");
+        }
+
+        LocalDateTime newDue = byStr != null ? parseDueDateTime(byStr) : null;
+        LocalDateTime newStart = fromStr != null ? parseDateTime(fromStr, "start date/time", LocalTime.MIDNIGHT) : null;
+        LocalDateTime newEnd = toStr != null ? parseDateTime(toStr, "end date/time", LocalTime.MAX) : null;
+
+        if (newStart != null && newEnd != null && !newStart.isBefore(newEnd)) {
+            throw new FloraException("Start time must be before end time.");
+        }
+
+        return new EditCommand(taskIndex, newDesc, newDue, newStart, newEnd);
+    }
+
+    /**
+     * Extracts the value following a field marker (e.g., "/desc") within a string.
+     * The value spans from after the marker to the start of the next marker or end of string.
+     *
+     * @param input  The string to search within (the portion after the task index).
+     * @param marker The field marker to locate (e.g., "/desc", "/by").
+     * @return The trimmed value after the marker, or {@code null} if the marker is absent
+     *         or its value is blank.
+     */
+    private static String extractField(String input, String marker) {
+        int markerIndex = input.indexOf(marker);
+        if (markerIndex == -1) {
+            return null;
+        }
+
+        int valueStart = markerIndex + marker.length();
+        if (valueStart >= input.length()) {
+            return null;
+        }
+
+        String[] allMarkers = {"/desc", "/by", "/from", "/to"};
+        int valueEnd = input.length();
+        for (String m : allMarkers) {
+            if (m.equals(marker)) {
+                continue;
+            }
+            int mIndex = input.indexOf(m, valueStart);
+            if (mIndex != -1 && mIndex < valueEnd) {
+                valueEnd = mIndex;
+            }
+        }
+
+        String value = input.substring(valueStart, valueEnd).trim();
+        return value.isBlank() ? null : value;
+    }
+
+    /**
+     * Returns a randomly selected error message for invalid commands.
+     *
+     * @return A random error message string.
+     */
+    private static String getInvalidCommandMessage() {
+        String[] errorMessages = {"I guess bro", "Whatever that means"};
+        Random random = new Random(System.currentTimeMillis());
+        int randomIndex = random.nextInt(errorMessages.length);
+        return errorMessages[randomIndex];
+    }
+
+    /**
+     * Parses a due date string, supporting natural language shortcuts
+     * ("today", "tonight", "tomorrow", "next week", "next month") as well as
+     * explicit date/time strings.
+     *
+     * @param dateStr The due date string to parse.
+     * @return The parsed LocalDateTime.
+     * @throws FloraException If the string is not a recognised shortcut and cannot be parsed.
+     */
+    private static LocalDateTime parseDueDateTime(String dateStr) throws FloraException {
+        return switch (dateStr.toLowerCase()) {
+        case "today", "tonight" -> LocalDate.now().atTime(LocalTime.MAX);
+        case "tomorrow" -> LocalDate.now().plusDays(1).atTime(LocalTime.MAX);
+        case "next week" -> LocalDate.now().plusWeeks(1).atTime(LocalTime.MAX);
+        case "next month" -> LocalDate.now().plusMonths(1).atTime(LocalTime.MAX);
+        default -> parseDateTime(dateStr, "due date/time", LocalTime.MAX);
+        };
+    }
+
+    /**
+     * Parses a date/time string into a LocalDateTime.
+     * If no time component is provided, {@code defaultTime} is used.
+     *
+     * @param dateStr     The date/time string to parse.
+     * @param fieldName   The name of the field, used in error messages.
+     * @param defaultTime The time to use when only a date is given.
+     * @return The parsed LocalDateTime.
+     * @throws FloraException If the string cannot be parsed.
+     */
+    private static LocalDateTime parseDateTime(String dateStr, String fieldName,
+            LocalTime defaultTime) throws FloraException {
+        try {
+            return LocalDateTime.parse(dateStr, DATE_TIME_FMT);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(dateStr, DATE_ONLY_FMT).atTime(defaultTime);
+            } catch (DateTimeParseException e2) {
+                throw new FloraException("Invalid " + fieldName + ": " + dateStr);
+            }
+        }
+    }
+
+    /**
+     * Parses a delete command from the user input.
+     * Accepts a single index, a list of indexes and ranges such as {@code 1-500,800}, or {@code done}
+     * to delete every task that is done.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed {@code DeleteCommand} or {@code BulkDeleteCommand}.
+     * @throws FloraException If the indexes are missing or invalid.
+     */
+    private static Command parseDelete(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex != -1 && input.substring(firstSpaceIndex + 1).strip().equalsIgnoreCase("done")) {
+            return new BulkDeleteCommand();
+        }
+        if (isIndexList(input, firstSpaceIndex)) {
+            return new BulkDeleteCommand(parseIndexRanges(input, firstSpaceIndex));
+        }
+        return new DeleteCommand(getTaskIndex(input, firstSpaceIndex));
+    }
+
+    /**
+     * Returns whether the argument of a command is a list of indexes or ranges rather than a single index.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return {@code true} if the argument contains a comma or a range dash.
+     */
+    private static boolean isIndexList(String input, int firstSpaceIndex) {
+        if (firstSpaceIndex == -1) {
+            return false;
+        }
+        String argument = input.substring(firstSpaceIndex + 1).strip();
+        return argument.indexOf(',') != -1 || argument.indexOf('-', 1) != -1;
+    }
+
+    /**
+     * Parses a comma-separated list of 1-based indexes and inclusive ranges, such as {@code 1-500,800,900-950}.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed ranges, in the order given.
+     * @throws FloraException If any index or range is invalid.
+     */
+    private static List<IndexRange> parseIndexRanges(String input, int firstSpaceIndex) throws FloraException {
+        List<IndexRange> ranges = new ArrayList<>();
+        for (String part : input.substring(firstSpaceIndex + 1).split(",")) {
+            String range = part.strip();
+            int dashIndex = range.indexOf('-', 1);
+            int first = parsePositiveIndex(dashIndex == -1 ? range : range.substring(0, dashIndex).strip());
+            int last = dashIndex == -1 ? first : parsePositiveIndex(range.substring(dashIndex + 1).strip());
+            if (last < first) {
+                throw new FloraException("Invalid range: " + range);
+            }
+            ranges.add(new IndexRange(first, last));
+        }
+        return ranges;
+    }
+
+    /**
+     * Parses a single 1-based task index within a list of indexes.
+     *
+     * @param indexStr The index string.
+     * @return The parsed index.
+     * @throws FloraException If the string is not a positive integer.
+     */
+    private static int parsePositiveIndex(String indexStr) throws FloraException {
+        int index;
+        try {
+            index = Integer.parseInt(indexStr);
+        } catch (NumberFormatException e) {
+            throw new FloraException("Invalid task index: " + indexStr);
+        }
+        if (index <= 0) {
+            throw new FloraException("Invalid task index: " + index);
+        }
+        return index;
+    }
+
+    /**
+     * Extracts and validates the task index from the user input.
+     *
+     * @param input           The raw user input string.
+     * @param firstSpaceIndex The index of the first space in the input.
+     * @return The parsed task index.
+     * @throws FloraException If the index is missing or not a valid integer.
+     */
+    private static int getTaskIndex(String input, int firstSpaceIndex) throws FloraException {
+        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+            throw new FloraException("At least put an index bro");
+        }
+
+        String taskIndexStr = input.substring(firstSpaceIndex + 1);
+        int taskIndex;
+
+        try {
+            taskIndex = Integer.parseInt(taskIndexStr);
+        } catch (NumberFormatException e) {
+            throw new FloraException("Invalid task index: " + e.getMessage());
+        }
+
+        assert taskIndex > 0 : "Task index must be positive, got: " + taskIndex;
+        return taskIndex;
+    }
+}
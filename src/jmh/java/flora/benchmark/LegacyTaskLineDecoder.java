@@ -0,0 +1,80 @@
+package flora.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+import flora.exception.FloraException;
+import flora.task.Deadline;
+import flora.task.Event;
+import flora.task.Task;
+import flora.task.Todo;
+
+/**
+ * The regex-splitting, exception-fallback line parser that {@code Storage.parseTask} used before
+ * the hand-rolled decoder. Kept only as a baseline for {@link StorageBenchmark}.
+ */
+final class LegacyTaskLineDecoder {
+    private static final DateTimeFormatter DATE_TIME_FILE_FMT =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu HH:mm").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_ONLY_FILE_FMT =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private LegacyTaskLineDecoder() {
+    }
+
+    /**
+     * Parses a single storage line the way the original implementation did.
+     *
+     * @param line A pipe-delimited line from the storage file.
+     * @return The parsed Task.
+     * @throws FloraException If the line contains an invalid task type or date.
+     */
+    static Task decode(String line) throws FloraException {
+        String[] parts = line.split(" \\| ");
+        boolean isDone = parts[1].equals("1");
+        String description = parts[2];
+
+        Task task;
+        switch (parts[0]) {
+        case "T":
+            task = new Todo(description);
+            break;
+        case "D":
+            task = new Deadline(description, parseFileDateTime(parts[3]));
+            break;
+        case "E":
+            task = new Event(description, parseFileDateTime(parts[3]), parseFileDateTime(parts[4]));
+            break;
+        default:
+            throw new FloraException("Invalid task type: " + parts[0]);
+        }
+
+        if (isDone) {
+            task.mark();
+        }
+        return task;
+    }
+
+    /**
+     * Parses a date/time by trying the date-time format first and falling back to date-only.
+     *
+     * @param dateStr The date/time string from the file.
+     * @return The parsed LocalDateTime.
+     * @throws FloraException If the string cannot be parsed.
+     */
+    private static LocalDateTime parseFileDateTime(String dateStr) throws FloraException {
+        try {
+            return LocalDateTime.parse(dateStr, DATE_TIME_FILE_FMT);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(dateStr, DATE_ONLY_FILE_FMT).atTime(LocalTime.MIDNIGHT);
+            } catch (DateTimeParseException e2) {
+                throw new FloraException("Invalid date/time in storage: " + dateStr);
+            }
+        }
+    }
+}
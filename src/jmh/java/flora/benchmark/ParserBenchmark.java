@@ -0,0 +1,69 @@
+package flora.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import flora.command.Command;
+import flora.exception.FloraException;
+import flora.parser.Parser;
+
+/**
+ * Measures {@link Parser#parse(String)} for every command type, against the {@link LegacyParser} it replaced.
+ * Run with {@code -prof gc} to also compare the bytes allocated per parse.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+    @Param({
+        "todo read book",
+        "deadline submit report /by 1/12/2024 18:00",
+        "deadline submit report /by tomorrow",
+        "event project meeting /from 6/8/2024 14:00 /to 6/8/2024 16:00",
+        "find book",
+        "edit 3 /desc submit final report /from 6/8/2024 14:00 /to 6/8/2024 16:00",
+        "edit 3 /by tomorrow",
+        "event project meeting with the whole team /from 6/8/2024 /to 7/8/2024",
+        "mark 42",
+        "unmark 42",
+        "delete 42",
+        "list",
+        "bye",
+    })
+    public String input;
+
+    /**
+     * Parses the input into a command.
+     *
+     * @return The parsed command.
+     * @throws FloraException If the input is invalid.
+     */
+    @Benchmark
+    public Command parse() throws FloraException {
+        return Parser.parse(input);
+    }
+
+    /**
+     * Parses the input into a command with the legacy parser.
+     *
+     * @return The parsed command.
+     * @throws FloraException If the input is invalid.
+     */
+    @Benchmark
+    public Command parseLegacy() throws FloraException {
+        return LegacyParser.parse(input);
+    }
+}
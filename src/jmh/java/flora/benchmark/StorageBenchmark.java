@@ -0,0 +1,186 @@
+package flora.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import flora.exception.FloraException;
+import flora.storage.Storage;
+import flora.task.Task;
+import flora.task.TaskList;
+
+/**
+ * Measures parsing, loading and saving of task files at several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class StorageBenchmark {
+    private static final long SEED = 42;
+    private static final int PARALLEL_CHUNK_SIZE = 1024 * 1024;
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    private Path tempDir;
+    private Path loadPath;
+    private Storage loadStorage;
+    private Storage saveStorage;
+    private Storage binaryLoadStorage;
+    private Storage binarySaveStorage;
+    private List<String> lines;
+    private TaskList tasks;
+
+    /**
+     * Generates the task file to load and the task list to save.
+     *
+     * @throws IOException    If the task file cannot be written.
+     * @throws FloraException If the generated tasks cannot be loaded.
+     */
+    @Setup
+    public void setUp() throws IOException, FloraException {
+        tempDir = Files.createTempDirectory("flora-bench");
+        loadPath = tempDir.resolve("load.txt");
+        TaskFileGenerator.writeTaskFile(loadPath, taskCount, SEED);
+        loadStorage = new Storage(loadPath.toString());
+        saveStorage = new Storage(tempDir.resolve("save.txt").toString());
+        binaryLoadStorage = new Storage(tempDir.resolve("load.bin").toString());
+        binarySaveStorage = new Storage(tempDir.resolve("save.bin").toString());
+        lines = Files.readAllLines(loadPath);
+        tasks = new TaskList(loadStorage.load());
+        binaryLoadStorage.save(tasks);
+    }
+
+    /**
+     * Deletes the generated files.
+     *
+     * @throws IOException If the files cannot be deleted.
+     */
+    @TearDown
+    public void tearDown() throws IOException {
+        try (Stream<Path> paths = Files.walk(tempDir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    /**
+     * Parses every line of the task file without touching the disk.
+     *
+     * @param blackhole Sink for the parsed tasks.
+     * @throws FloraException If a line cannot be parsed.
+     */
+    @Benchmark
+    public void parseTask(Blackhole blackhole) throws FloraException {
+        for (String line : lines) {
+            blackhole.consume(Storage.parseTask(line));
+        }
+    }
+
+    /**
+     * Parses every line with the original split-based parser, as a baseline for {@link #parseTask}.
+     *
+     * @param blackhole Sink for the parsed tasks.
+     * @throws FloraException If a line cannot be parsed.
+     */
+    @Benchmark
+    public void parseTaskLegacy(Blackhole blackhole) throws FloraException {
+        for (String line : lines) {
+            blackhole.consume(LegacyTaskLineDecoder.decode(line));
+        }
+    }
+
+    /**
+     * Loads the whole task file line by line with the original parser, as a baseline for {@link #load}.
+     *
+     * @return The loaded tasks.
+     * @throws IOException    If the file cannot be read.
+     * @throws FloraException If a line cannot be parsed.
+     */
+    @Benchmark
+    public List<Task> loadLegacy() throws IOException, FloraException {
+        List<Task> loaded = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(loadPath)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                loaded.add(LegacyTaskLineDecoder.decode(line));
+            }
+        }
+        return loaded;
+    }
+
+    /**
+     * Loads the whole task file.
+     *
+     * @return The loaded tasks.
+     * @throws FloraException If the file cannot be loaded.
+     */
+    @Benchmark
+    public List<Task> load() throws FloraException {
+        return loadStorage.load();
+    }
+
+    /**
+     * Loads the whole task file in parallel chunks, regardless of its size.
+     *
+     * @return The loaded tasks.
+     * @throws FloraException If the file cannot be loaded.
+     */
+    @Benchmark
+    public List<Task> loadParallel() throws FloraException {
+        return loadStorage.loadParallel(PARALLEL_CHUNK_SIZE);
+    }
+
+    /**
+     * Writes the whole task list as a snapshot.
+     *
+     * @throws FloraException If the file cannot be written.
+     */
+    @Benchmark
+    public void save() throws FloraException {
+        saveStorage.save(tasks);
+    }
+
+    /**
+     * Loads the same tasks from a binary snapshot.
+     *
+     * @return The loaded tasks.
+     * @throws FloraException If the file cannot be loaded.
+     */
+    @Benchmark
+    public List<Task> loadBinary() throws FloraException {
+        return binaryLoadStorage.load();
+    }
+
+    /**
+     * Writes the whole task list as a binary snapshot.
+     *
+     * @throws FloraException If the file cannot be written.
+     */
+    @Benchmark
+    public void saveBinary() throws FloraException {
+        binarySaveStorage.save(tasks);
+    }
+}
@@ -0,0 +1,124 @@
+package flora.benchmark;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import flora.exception.FloraException;
+import flora.storage.Storage;
+import flora.task.Task;
+
+/**
+ * Generates synthetic task files in the storage format for benchmarks.
+ * Output is deterministic for a given count and seed, so runs are comparable.
+ */
+public class TaskFileGenerator {
+    private static final String[] WORDS = {
+        "read", "book", "submit", "report", "buy", "milk", "team", "meeting", "review", "code",
+        "call", "mum", "project", "demo", "gym", "lecture", "tutorial", "assignment", "exam", "lunch",
+    };
+    private static final DateTimeFormatter DATE_TIME_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+    private static final DateTimeFormatter DATE_ONLY_FMT = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final LocalDateTime BASE_DATE = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * Returns {@code count} storage lines with a mix of todos, deadlines and events.
+     * Every line has a distinct description, so the lines contain no duplicate tasks.
+     *
+     * @param count The number of lines to generate.
+     * @param seed  The random seed.
+     * @return The generated lines.
+     */
+    public static List<String> generateLines(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(generateLine(random, i));
+        }
+        return lines;
+    }
+
+    /**
+     * Returns {@code count} tasks parsed from generated storage lines.
+     *
+     * @param count The number of tasks to generate.
+     * @param seed  The random seed.
+     * @return The generated tasks.
+     * @throws FloraException If a generated line cannot be parsed.
+     */
+    public static List<Task> generateTasks(int count, long seed) throws FloraException {
+        List<Task> tasks = new ArrayList<>(count);
+        for (String line : generateLines(count, seed)) {
+            tasks.add(Storage.parseTask(line));
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes {@code count} generated lines to the given file, replacing it if it exists.
+     *
+     * @param path  The file to write.
+     * @param count The number of lines to generate.
+     * @param seed  The random seed.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void writeTaskFile(Path path, int count, long seed) throws IOException {
+        Random random = new Random(seed);
+        try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(generateLine(random, i));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Generates a single storage line.
+     *
+     * @param random The random source.
+     * @param i      The line number, used to keep descriptions distinct.
+     * @return The generated line.
+     */
+    private static String generateLine(Random random, int i) {
+        String description = WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " " + i;
+        String done = random.nextInt(4) == 0 ? "1" : "0";
+        LocalDateTime start = BASE_DATE.plusMinutes(30L * random.nextInt(500_000));
+        boolean hasTime = random.nextBoolean();
+        DateTimeFormatter fmt = hasTime ? DATE_TIME_FMT : DATE_ONLY_FMT;
+
+        switch (random.nextInt(3)) {
+        case 0:
+            return "T | " + done + " | " + description;
+        case 1:
+            return "D | " + done + " | " + description + " | " + start.format(fmt);
+        default:
+            LocalDateTime end = hasTime ? start.plusHours(1 + random.nextInt(5)) : start.plusDays(1);
+            return "E | " + done + " | " + description + " | " + start.format(fmt) + " | " + end.format(fmt);
+        }
+    }
+
+    /**
+     * Writes a synthetic task file.
+     * Usage: {@code TaskFileGenerator <output path> <task count> [seed]}
+     *
+     * @param args The output path, task count and optional seed.
+     * @throws IOException If the file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: TaskFileGenerator <output path> <task count> [seed]");
+            return;
+        }
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 42;
+        writeTaskFile(Paths.get(args[0]), Integer.parseInt(args[1]), seed);
+    }
+}
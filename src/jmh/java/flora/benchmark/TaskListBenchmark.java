@@ -0,0 +1,124 @@
+package flora.benchmark;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import flora.exception.FloraException;
+import flora.task.Task;
+import flora.task.TaskList;
+import flora.task.Todo;
+
+/**
+ * Measures searching, time-range queries, duplicate detection and positional removal on task lists
+ * of several sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class TaskListBenchmark {
+    private static final long SEED = 42;
+    private static final LocalDateTime SCHEDULE_FROM = LocalDateTime.of(2025, 6, 1, 0, 0);
+    private static final LocalDateTime SCHEDULE_TO = SCHEDULE_FROM.plusDays(1);
+
+    @Param({"1000", "100000", "1000000"})
+    public int taskCount;
+
+    @Param({"meeting", "lecture 99"})
+    public String keyword;
+
+    private TaskList tasks;
+    private Task existing;
+    private Task missing;
+
+    /**
+     * Builds the task list and warms its lazily built indexes.
+     *
+     * @throws FloraException If the generated tasks cannot be parsed.
+     */
+    @Setup
+    public void setUp() throws FloraException {
+        tasks = new TaskList(TaskFileGenerator.generateTasks(taskCount, SEED));
+        existing = tasks.get(taskCount / 2);
+        missing = new Todo("not in the list");
+        tasks.find(keyword);
+        tasks.findEventsBetween(SCHEDULE_FROM, SCHEDULE_TO);
+    }
+
+    /**
+     * Finds tasks whose description contains the keyword.
+     *
+     * @return The matching tasks.
+     */
+    @Benchmark
+    public TaskList find() {
+        return tasks.find(keyword);
+    }
+
+    /**
+     * Finds the events overlapping a one-day window, as the schedule command does.
+     *
+     * @return The overlapping events.
+     */
+    @Benchmark
+    public TaskList findEventsBetween() {
+        return tasks.findEventsBetween(SCHEDULE_FROM, SCHEDULE_TO);
+    }
+
+    /**
+     * Checks for a duplicate of a task that is in the list.
+     *
+     * @return Whether a duplicate was found.
+     */
+    @Benchmark
+    public boolean containsTaskWithDetailsHit() {
+        return tasks.containsTaskWithDetails(existing);
+    }
+
+    /**
+     * Checks for a duplicate of a task that is not in the list.
+     *
+     * @return Whether a duplicate was found.
+     */
+    @Benchmark
+    public boolean containsTaskWithDetailsMiss() {
+        return tasks.containsTaskWithDetails(missing);
+    }
+
+    /**
+     * Checks for a duplicate while excluding the task's own index, as an edit does.
+     *
+     * @return Whether a duplicate was found.
+     */
+    @Benchmark
+    public boolean containsTaskWithDetailsExcluding() {
+        return tasks.containsTaskWithDetailsExcluding(existing, taskCount / 2);
+    }
+
+    /**
+     * Removes the first task and appends it again, keeping the list size steady.
+     * With an array-backed list this shifts every task; with positional slots it is O(log n).
+     *
+     * @return The moved task.
+     */
+    @Benchmark
+    public Task removeFirstAndAppend() {
+        Task removed = tasks.remove(1);
+        tasks.add(removed);
+        return removed;
+    }
+}
@@ -1,26 +1,83 @@
 package flora;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
 import flora.command.Command;
+import flora.command.StatsCommand;
 import flora.exception.FloraException;
+import flora.metrics.CommandExecuteEvent;
+import flora.metrics.CommandMetrics;
+import flora.metrics.CommandParseEvent;
 import flora.parser.Parser;
+import flora.server.FloraServer;
+import flora.storage.Durability;
 import flora.storage.Storage;
 import flora.task.TaskList;
 
 /**
  * The main class for the Flora chatbot application.
+ * Besides backing the GUI, it can run headless as a REPL over standard input and output,
+ * run a script of commands in batch mode, or serve commands to local clients over HTTP.
+ *
+ * <p>Commands may be executed from several threads, but only one command that changes the task list runs
+ * at a time. Once {@link #prepareForConcurrentReads()} has been called, read-only commands run without any
+ * lock on the latest published snapshot of the list, so they never wait for, or hold up, a change.
+ *
+ * <p>Every command is timed as it runs, and the {@code stats} command reports the counts and latencies.
+ * Parsing and executing also emit Flight Recorder events, which cost next to nothing unless enabled.
  */
 public class Flora {
+    /** System property that overrides the task file path. A {@code .bin} path selects the binary format. */
+    public static final String DATA_FILE_PROPERTY = "flora.dataFile";
+    /** System property that sets the storage durability level, e.g. {@code fsync-on-save}. */
+    public static final String DURABILITY_PROPERTY = "flora.durability";
+    /** System property naming a file that command metrics are written to, as JSON, by {@code stats} and on exit. */
+    public static final String METRICS_FILE_PROPERTY = "flora.metricsFile";
+    private static final String DEFAULT_DATA_FILE = "data/tasks.txt";
+    private static final String BATCH_OPTION = "--batch";
+    private static final String SERVER_OPTION = "--server";
+    private static final String USAGE = "Usage: java flora.Flora [--batch <script file> | --server <port>]";
+
     private final Storage storage;
     private TaskList tasks;
     private String loadError = null;
-    private boolean shouldExit = false;
+    private volatile boolean shouldExit = false;
+    private final Lock writeLock = new ReentrantLock();
+    /** The list as of the last completed change, published for lock-free reads, or null until prepared. */
+    private volatile TaskList readSnapshot = null;
+    private final CommandMetrics metrics = new CommandMetrics();
+    private final Path metricsFile;
 
     /**
-     * Constructs a Flora instance, loading tasks from the default storage file.
+     * Constructs a Flora instance, loading tasks from the default storage file,
+     * or from the file named by the {@value #DATA_FILE_PROPERTY} system property if it is set.
      */
     public Flora() {
-        String filePath = "data/tasks.txt";
+        this(System.getProperty(DATA_FILE_PROPERTY, DEFAULT_DATA_FILE));
+    }
+
+    /**
+     * Constructs a Flora instance, loading tasks from the given storage file.
+     *
+     * @param filePath The path of the task file. A {@code .bin} path selects the binary format.
+     */
+    public Flora(String filePath) {
         storage = new Storage(filePath);
+        String durability = System.getProperty(DURABILITY_PROPERTY);
+        if (durability != null) {
+            storage.setDurability(Durability.fromName(durability));
+        }
+        storage.enableBackgroundWrites();
+        String metricsPath = System.getProperty(METRICS_FILE_PROPERTY);
+        metricsFile = metricsPath == null ? null : Path.of(metricsPath);
 
         try {
             tasks = new TaskList(storage.load());
@@ -39,16 +96,229 @@ public class Flora {
     public String getResponse(String input) {
         assert input != null : "User input must not be null";
         try {
-            Command command = Parser.parse(input);
-            assert command != null : "Parser must return a non-null command";
-            command.execute(tasks, storage);
-            shouldExit = command.isExit();
-            return command.getMessage();
+            return execute(parse(input));
         } catch (FloraException e) {
             return "Error: " + e.getMessage();
         }
     }
 
+    /**
+     * Executes an already parsed command, returning Flora's response message.
+     * Safe to call from several threads.
+     *
+     * @param command The command to execute.
+     * @return The response message to display.
+     */
+    public String getResponse(Command command) {
+        try {
+            return execute(command);
+        } catch (FloraException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Parses the given user input into a command, recording how long it took.
+     *
+     * @param input The raw user input string.
+     * @return The parsed command.
+     * @throws FloraException If the input is invalid.
+     */
+    public Command parse(String input) throws FloraException {
+        CommandParseEvent event = new CommandParseEvent();
+        event.begin();
+        long start = System.nanoTime();
+        Command command;
+        try {
+            command = Parser.parse(input);
+        } catch (FloraException e) {
+            metrics.recordParseFailure(System.nanoTime() - start);
+            event.commit(CommandMetrics.INVALID_TYPE, input.length());
+            throw e;
+        }
+        metrics.recordParse(command, System.nanoTime() - start);
+        event.commit(CommandMetrics.typeOf(command), input.length());
+        return command;
+    }
+
+    /**
+     * Returns the metrics recorded for the commands run so far.
+     *
+     * @return The metrics.
+     */
+    public CommandMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Lets read-only commands run on several threads at once, alongside changes.
+     * From now on a snapshot of the task list is published after every change, which costs
+     * O(n / 256) per change, and read-only commands read the latest snapshot without locking.
+     * Every index is built now and kept up to date by each change, so the snapshots carry them and
+     * no read has to build one.
+     */
+    public void prepareForConcurrentReads() {
+        writeLock.lock();
+        try {
+            tasks.buildIndexes();
+            readSnapshot = tasks.snapshot();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Parses and executes the given user input.
+     *
+     * @param input The raw user input string.
+     * @return The executed command.
+     * @throws FloraException If the input is invalid or the command fails.
+     */
+    private Command execute(String input) throws FloraException {
+        Command command = parse(input);
+        assert command != null : "Parser must return a non-null command";
+        execute(command);
+        return command;
+    }
+
+    /**
+     * Executes the given command. A read-only command runs on the published snapshot if there is one;
+     * otherwise the command runs on the task list while holding the write lock, and a change publishes
+     * a new snapshot before the lock is released.
+     *
+     * @param command The command to execute.
+     * @return The command's message.
+     * @throws FloraException If the command fails.
+     */
+    private String execute(Command command) throws FloraException {
+        if (command instanceof StatsCommand statsCommand) {
+            statsCommand.setMetrics(metrics, metricsFile);
+        }
+        TaskList snapshot = readSnapshot;
+        if (snapshot != null && command.isReadOnly()) {
+            return executeTimed(command, snapshot);
+        }
+        writeLock.lock();
+        try {
+            String message = executeTimed(command, tasks);
+            shouldExit = command.isExit();
+            return message;
+        } finally {
+            if (readSnapshot != null && !command.isReadOnly()) {
+                // published even if the command failed, since it may have changed some tasks first
+                readSnapshot = tasks.snapshot();
+            }
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Executes the given command on the given list and renders its message, recording how long that took
+     * and, for a command that may change the list, how much of it was spent persisting the change.
+     *
+     * @param command The command to execute.
+     * @param target  The task list, or a snapshot of it for a read-only command.
+     * @return The command's message.
+     * @throws FloraException If the command fails.
+     */
+    private String executeTimed(Command command, TaskList target) throws FloraException {
+        // only the thread holding the write lock may read the storage's persist time
+        long persistedBefore = command.isReadOnly() ? 0 : storage.getPersistNanos();
+        CommandExecuteEvent event = new CommandExecuteEvent();
+        int taskCount = target.size();
+        event.begin();
+        long start = System.nanoTime();
+        boolean isError = true;
+        try {
+            command.execute(target, storage);
+            String message = command.getMessage();
+            isError = false;
+            return message;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            long persisted = command.isReadOnly() ? 0 : storage.getPersistNanos() - persistedBefore;
+            metrics.recordExecution(command, elapsed - persisted, persisted, isError);
+            event.commit(CommandMetrics.typeOf(command), taskCount, command.isReadOnly(), isError);
+        }
+    }
+
+    /**
+     * Runs an interactive session: reads one command per line and writes each response,
+     * until an exit command or the end of the input. Everything saved is flushed to disk before returning.
+     *
+     * @param in  The command input.
+     * @param out The response output.
+     * @throws IOException If the input cannot be read.
+     */
+    public void runRepl(BufferedReader in, PrintStream out) throws IOException {
+        out.println(getWelcomeMessage());
+        String line;
+        while (!shouldExit && (line = in.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            out.println(getResponse(line.strip()));
+        }
+        String flushError = flushStorage();
+        if (flushError != null) {
+            out.println(flushError);
+        }
+    }
+
+    /**
+     * Runs a script of commands, one per line, streaming it rather than reading it all first.
+     * Blank lines and lines starting with {@code #} are skipped, and an exit command ends the script.
+     * Individual changes are not saved as they happen; the task list is saved once at the end,
+     * so if the process is killed partway through, the task file is left as it was before the script.
+     * Only failed commands are reported, followed by a summary.
+     *
+     * @param script The script to run.
+     * @param out    Where failures and the summary are written.
+     * @return The number of commands that failed.
+     * @throws IOException If the script cannot be read.
+     */
+    public int runBatch(BufferedReader script, PrintStream out) throws IOException {
+        if (loadError != null) {
+            out.println(loadError);
+        }
+        int commandCount = 0;
+        int failureCount = 0;
+        int lineNumber = 0;
+        storage.beginBatch();
+        try {
+            String line;
+            while (!shouldExit && (line = script.readLine()) != null) {
+                lineNumber++;
+                String input = line.strip();
+                if (input.isEmpty() || input.startsWith("#")) {
+                    continue;
+                }
+                commandCount++;
+                try {
+                    execute(input);
+                } catch (FloraException e) {
+                    failureCount++;
+                    out.println("Line " + lineNumber + ": Error: " + e.getMessage());
+                }
+            }
+        } finally {
+            try {
+                storage.endBatch(tasks);
+                storage.flush();
+            } catch (FloraException e) {
+                failureCount++;
+                out.println("Error: " + e.getMessage());
+            }
+            String metricsError = dumpMetrics();
+            if (metricsError != null) {
+                out.println(metricsError);
+            }
+        }
+        out.println("Ran " + commandCount + " command" + (commandCount == 1 ? "" : "s")
+                + ", " + failureCount + " failed.");
+        return failureCount;
+    }
+
     /**
      * Returns the welcome message shown when the application starts.
      * If there was an error loading tasks from storage, the error message is prepended.
@@ -72,7 +342,90 @@ public class Flora {
         return shouldExit;
     }
 
+    /**
+     * Waits for every queued save to reach the disk, and writes the command metrics to the file named by
+     * {@value #METRICS_FILE_PROPERTY} if it is set. Called when the application is closing.
+     *
+     * @return An error message if a queued save or the metrics failed, or {@code null} if everything was saved.
+     */
+    public String flushStorage() {
+        String metricsError = dumpMetrics();
+        try {
+            storage.flush();
+            return metricsError;
+        } catch (FloraException e) {
+            return "Error: " + e.getMessage();
+        }
+    }
+
+    /**
+     * Writes the command metrics to the file named by {@value #METRICS_FILE_PROPERTY}, if it is set.
+     *
+     * @return An error message if the file cannot be written, or {@code null} otherwise.
+     */
+    private String dumpMetrics() {
+        if (metricsFile == null) {
+            return null;
+        }
+        try {
+            metrics.dump(metricsFile);
+            return null;
+        } catch (IOException e) {
+            return "Error: Failed writing stats to " + metricsFile + ": " + e.getMessage();
+        }
+    }
+
+    /**
+     * Starts a server on the given port and stops it, saving everything, when the process is shut down.
+     *
+     * @param portStr The port to listen on.
+     * @throws IOException If the server cannot be started.
+     */
+    private static void runServer(String portStr) throws IOException {
+        int port;
+        try {
+            port = Integer.parseInt(portStr);
+        } catch (NumberFormatException e) {
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        Flora flora = new Flora();
+        if (flora.loadError != null) {
+            System.err.println(flora.loadError);
+        }
+        FloraServer server = FloraServer.start(flora, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(server::stop));
+        System.out.println("Flora is serving on http://localhost:" + server.getPort() + FloraServer.COMMAND_PATH);
+    }
+
+    /**
+     * Runs Flora without the GUI. With no arguments, starts a REPL over standard input and output.
+     * With {@code --batch <script file>}, runs the script and exits with status 1 if any command failed.
+     * With {@code --server <port>}, serves commands over HTTP on the loopback address until killed.
+     *
+     * @param args The command-line arguments.
+     */
     public static void main(String[] args) {
-        System.out.println("Hi!");
+        try {
+            if (args.length == 0) {
+                BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+                new Flora().runRepl(in, System.out);
+            } else if (args.length == 2 && args[0].equals(BATCH_OPTION)) {
+                int failureCount;
+                try (BufferedReader script = Files.newBufferedReader(Path.of(args[1]), StandardCharsets.UTF_8)) {
+                    failureCount = new Flora().runBatch(script, System.out);
+                }
+                System.exit(failureCount == 0 ? 0 : 1);
+            } else if (args.length == 2 && args[0].equals(SERVER_OPTION)) {
+                runServer(args[1]);
+            } else {
+                System.err.println(USAGE);
+                System.exit(2);
+            }
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
     }
 }
@@ -39,7 +39,7 @@ public class AddDeadlineCommand extends Command {
             throw new FloraException("This task already exists: " + deadline);
         }
         tasks.add(deadline);
-        storage.save(tasks);
+        storage.saveAdded(tasks, deadline);
         size = tasks.size();
         assert size > 0 : "Task list must be non-empty after adding a task";
     }
@@ -1,6 +1,7 @@
 package flora.command;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import flora.exception.FloraException;
 import flora.storage.Storage;
@@ -9,12 +10,14 @@ import flora.task.TaskList;
 
 /**
  * Command to add a new event task to the task list.
+ * The event is added even if it overlaps other events that are not done, but the clashes are reported.
  */
 public class AddEventCommand extends Command {
     private final String taskDesc;
     private final LocalDateTime taskStart;
     private final LocalDateTime taskEnd;
     private Event event;
+    private List<Event> conflicts;
     private int size;
 
     /**
@@ -46,7 +49,8 @@ public class AddEventCommand extends Command {
             throw new FloraException("This task already exists: " + event);
         }
         tasks.add(event);
-        storage.save(tasks);
+        storage.saveAdded(tasks, event);
+        conflicts = tasks.findConflicts(event);
         size = tasks.size();
         assert size > 0 : "Task list must be non-empty after adding a task";
     }
@@ -57,6 +61,7 @@ public class AddEventCommand extends Command {
     @Override
     public String getMessage() {
         return "Got it. I've added this task:\n  " + event
-                + "\nNow you have " + size + " task" + (size > 1 ? "s" : "") + " in the list.";
+                + "\nNow you have " + size + " task" + (size > 1 ? "s" : "") + " in the list."
+                + formatConflictWarning(conflicts);
     }
 }
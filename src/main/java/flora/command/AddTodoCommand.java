@@ -33,7 +33,7 @@ public class AddTodoCommand extends Command {
             throw new FloraException("This task already exists: " + todo);
         }
         tasks.add(todo);
-        storage.save(tasks);
+        storage.saveAdded(tasks, todo);
         size = tasks.size();
         assert size > 0 : "Task list must be non-empty after adding a task";
     }
@@ -0,0 +1,78 @@
+package flora.command;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import flora.exception.FloraException;
+import flora.storage.Storage;
+import flora.task.Task;
+import flora.task.TaskList;
+
+/**
+ * Command to delete several tasks at once, either by index ranges, e.g. {@code delete 1-500,800},
+ * or every task that is done, with {@code delete done}.
+ * The tasks are removed in a single pass over the list and the change is saved in one write.
+ */
+public class BulkDeleteCommand extends Command {
+    private final List<IndexRange> ranges;
+    private int deletedCount;
+    private int size;
+
+    /**
+     * Constructs a BulkDeleteCommand for the given index ranges.
+     *
+     * @param ranges The ranges of 1-based indexes of the tasks to delete.
+     */
+    public BulkDeleteCommand(List<IndexRange> ranges) {
+        assert ranges != null && !ranges.isEmpty() : "Index ranges must not be null or empty";
+        this.ranges = ranges;
+    }
+
+    /**
+     * Constructs a BulkDeleteCommand that deletes every task that is done.
+     */
+    public BulkDeleteCommand() {
+        this.ranges = null;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        int[] indexes = ranges != null ? IndexRange.resolve(ranges, tasks.size()) : findDoneIndexes(tasks);
+        deletedCount = tasks.removeAll(indexes).size();
+        storage.saveDeletedAll(tasks, indexes);
+        size = tasks.size();
+    }
+
+    /**
+     * Returns the 1-based indexes of every task that is done, in ascending order.
+     *
+     * @param tasks The task list.
+     * @return The indexes of the done tasks.
+     */
+    private static int[] findDoneIndexes(TaskList tasks) {
+        IntStream.Builder indexes = IntStream.builder();
+        int index = 0;
+        for (Task task : tasks) {
+            index++;
+            if (task.isDone()) {
+                indexes.add(index);
+            }
+        }
+        return indexes.build().toArray();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (deletedCount == 0) {
+            return "Nothing to remove bro.";
+        }
+        return "Noted. I've removed " + deletedCount + " task" + (deletedCount == 1 ? "" : "s") + "."
+                + "\nNow you have " + size + " task" + (size == 1 ? "" : "s") + " in the list.";
+    }
+}
@@ -0,0 +1,55 @@
+package flora.command;
+
+import java.util.Arrays;
+import java.util.List;
+
+import flora.exception.FloraException;
+import flora.storage.Storage;
+import flora.task.TaskList;
+
+/**
+ * Command to mark several tasks as done at once, e.g. {@code mark 1-500,800}.
+ * All the changes are saved in one write.
+ */
+public class BulkMarkCommand extends Command {
+    private final List<IndexRange> ranges;
+    private int markedCount;
+    private int alreadyDoneCount;
+
+    /**
+     * Constructs a BulkMarkCommand for the given index ranges.
+     *
+     * @param ranges The ranges of 1-based indexes of the tasks to mark as done.
+     */
+    public BulkMarkCommand(List<IndexRange> ranges) {
+        assert ranges != null && !ranges.isEmpty() : "Index ranges must not be null or empty";
+        this.ranges = ranges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        int[] indexes = IndexRange.resolve(ranges, tasks.size());
+        int[] marked = Arrays.stream(indexes).filter(i -> !tasks.get(i).isDone()).toArray();
+        for (int index : marked) {
+            tasks.mark(index);
+        }
+        markedCount = marked.length;
+        alreadyDoneCount = indexes.length - marked.length;
+        storage.saveMarkedAll(tasks, marked);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        String msg = "Nice! I've marked " + markedCount + " task" + (markedCount == 1 ? "" : "s") + " as done.";
+        if (alreadyDoneCount > 0) {
+            msg += "\n" + alreadyDoneCount + " of them were already done bro.";
+        }
+        return msg;
+    }
+}
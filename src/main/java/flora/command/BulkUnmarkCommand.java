@@ -0,0 +1,56 @@
+package flora.command;
+
+import java.util.Arrays;
+import java.util.List;
+
+import flora.exception.FloraException;
+import flora.storage.Storage;
+import flora.task.TaskList;
+
+/**
+ * Command to mark several tasks as not done at once, e.g. {@code unmark 1-500,800}.
+ * All the changes are saved in one write.
+ */
+public class BulkUnmarkCommand extends Command {
+    private final List<IndexRange> ranges;
+    private int unmarkedCount;
+    private int alreadyNotDoneCount;
+
+    /**
+     * Constructs a BulkUnmarkCommand for the given index ranges.
+     *
+     * @param ranges The ranges of 1-based indexes of the tasks to mark as not done.
+     */
+    public BulkUnmarkCommand(List<IndexRange> ranges) {
+        assert ranges != null && !ranges.isEmpty() : "Index ranges must not be null or empty";
+        this.ranges = ranges;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        int[] indexes = IndexRange.resolve(ranges, tasks.size());
+        int[] unmarked = Arrays.stream(indexes).filter(i -> tasks.get(i).isDone()).toArray();
+        for (int index : unmarked) {
+            tasks.unmark(index);
+        }
+        unmarkedCount = unmarked.length;
+        alreadyNotDoneCount = indexes.length - unmarked.length;
+        storage.saveUnmarkedAll(tasks, unmarked);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        String msg = "Ok, I've marked " + unmarkedCount + " task" + (unmarkedCount == 1 ? "" : "s")
+                + " as not done yet.";
+        if (alreadyNotDoneCount > 0) {
+            msg += "\n" + alreadyNotDoneCount + " of them were already not done bro.";
+        }
+        return msg;
+    }
+}
@@ -1,13 +1,25 @@
 package flora.command;
 
+import java.util.List;
+
 import flora.exception.FloraException;
 import flora.storage.Storage;
+import flora.task.Event;
 import flora.task.TaskList;
 
 /**
  * Represents an abstract command that can be executed by the chatbot.
  */
 public abstract class Command {
+    /** Maximum number of conflicting events listed in a conflict warning. */
+    private static final int MAX_CONFLICTS_SHOWN = 5;
+    /** The error a cancelled command fails with. */
+    protected static final String CANCELLED_MESSAGE = "Stopped that one for you bro";
+    /** How many items a long-running read-only command works through between checks for cancellation. */
+    protected static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private volatile boolean isCancelled = false;
+
     public abstract void execute(TaskList tasks, Storage storage) throws FloraException;
 
     /**
@@ -25,4 +37,64 @@ public abstract class Command {
     public boolean isExit() {
         return false;
     }
+
+    /**
+     * Returns whether this command only reads the task list and storage, so that it may run
+     * on a snapshot of the list at the same time as other commands.
+     *
+     * @return {@code true} if executing this command changes nothing.
+     */
+    public boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Asks this command to stop as soon as it can. Only read-only commands that may run for a long time check
+     * for this, since a command that changes the task list must not stop partway through a change.
+     * Safe to call from any thread.
+     */
+    public void cancel() {
+        isCancelled = true;
+    }
+
+    /**
+     * Returns whether {@link #cancel()} has been called.
+     *
+     * @return {@code true} if this command has been cancelled.
+     */
+    public boolean isCancelled() {
+        return isCancelled;
+    }
+
+    /**
+     * Fails if this command has been cancelled. Long-running read-only commands call this as they work.
+     *
+     * @throws FloraException If the command has been cancelled.
+     */
+    protected void checkCancelled() throws FloraException {
+        if (isCancelled) {
+            throw new FloraException(CANCELLED_MESSAGE);
+        }
+    }
+
+    /**
+     * Returns a warning listing the events that clash with an added or edited event,
+     * or an empty string if there are none.
+     *
+     * @param conflicts The conflicting events.
+     * @return The warning, starting with a newline, or an empty string.
+     */
+    protected static String formatConflictWarning(List<Event> conflicts) {
+        if (conflicts.isEmpty()) {
+            return "";
+        }
+        StringBuilder warning = new StringBuilder("\nHeads up bro, this clashes with:");
+        for (Event conflict : conflicts.subList(0, Math.min(conflicts.size(), MAX_CONFLICTS_SHOWN))) {
+            warning.append("\n  ").append(conflict);
+        }
+        if (conflicts.size() > MAX_CONFLICTS_SHOWN) {
+            warning.append("\n  ...and ").append(conflicts.size() - MAX_CONFLICTS_SHOWN).append(" more");
+        }
+        return warning.toString();
+    }
 }
@@ -0,0 +1,48 @@
+package flora.command;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import flora.storage.Storage;
+import flora.task.EventConflict;
+import flora.task.TaskList;
+
+/**
+ * Command to list every pair of events that are not done and overlap each other.
+ */
+public class ConflictsCommand extends Command {
+    private List<EventConflict> conflicts;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) {
+        conflicts = tasks.findAllConflicts();
+        assert conflicts != null : "Conflicts result must not be null";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (conflicts.isEmpty()) {
+            return "No clashes, you're all good bro.";
+        }
+        String items = IntStream.rangeClosed(1, conflicts.size())
+                .mapToObj(i -> "\n" + i + "." + conflicts.get(i - 1).first()
+                        + "\n   clashes with " + conflicts.get(i - 1).second())
+                .collect(Collectors.joining());
+        return "Here are the events that clash: " + items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
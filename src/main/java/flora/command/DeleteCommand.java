@@ -34,7 +34,7 @@ public class DeleteCommand extends Command {
 
         task = tasks.remove(taskIndex);
         assert task != null : "Removed task must not be null";
-        storage.save(tasks);
+        storage.saveDeleted(tasks, taskIndex);
         size = tasks.size();
         assert size >= 0 : "Task list size must not be negative after deletion";
     }
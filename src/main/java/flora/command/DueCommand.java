@@ -0,0 +1,58 @@
+package flora.command;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import flora.storage.Storage;
+import flora.task.Deadline;
+import flora.task.TaskList;
+
+/**
+ * Command to list the deadlines that are not done and are due by a given time, soonest first.
+ */
+public class DueCommand extends Command {
+    private final LocalDateTime before;
+    private List<Deadline> deadlines;
+
+    /**
+     * Constructs a DueCommand for the given time.
+     *
+     * @param before The latest due time to include.
+     */
+    public DueCommand(LocalDateTime before) {
+        assert before != null : "Due time must not be null";
+        this.before = before;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) {
+        deadlines = tasks.streamPendingDeadlinesDueBy(before).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (deadlines.isEmpty()) {
+            return "Nothing due by then.";
+        }
+        String items = IntStream.rangeClosed(1, deadlines.size())
+                .mapToObj(i -> "\n" + i + "." + deadlines.get(i - 1))
+                .collect(Collectors.joining());
+        return "Here are the deadlines due by then: " + items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -1,17 +1,20 @@
 package flora.command;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import flora.exception.FloraException;
 import flora.storage.Storage;
 import flora.task.EditResult;
+import flora.task.Event;
 import flora.task.Task;
 import flora.task.TaskList;
 
 /**
  * Edits an existing task in the task list without deleting and re-adding it.
  * The specific fields that can be updated depend on the task type, determined
- * at runtime via polymorphism.
+ * at runtime via polymorphism. Moving an event onto other events that are not done
+ * is allowed, but the clashes are reported.
  */
 public class EditCommand extends Command {
     private final int taskIndex;
@@ -21,6 +24,7 @@ public class EditCommand extends Command {
     private final LocalDateTime newEnd;
     private Task updatedTask;
     private EditResult editResult;
+    private List<Event> conflicts = List.of();
 
     /**
      * Constructs an EditCommand. Pass {@code null} for any field to leave it unchanged.
@@ -56,7 +60,10 @@ public class EditCommand extends Command {
             throw new FloraException("The updated task would be a duplicate of an existing task.");
         }
         tasks.set(taskIndex, updatedTask);
-        storage.save(tasks);
+        storage.saveEdited(tasks, taskIndex, updatedTask);
+        if (updatedTask instanceof Event event && (newStart != null || newEnd != null)) {
+            conflicts = tasks.findConflicts(event);
+        }
     }
 
     /**
@@ -69,6 +76,7 @@ public class EditCommand extends Command {
             msg.append("\nIgnored (not applicable to this task type): ")
                 .append(String.join(", ", editResult.invalidFields()));
         }
+        msg.append(formatConflictWarning(conflicts));
         return msg.toString();
     }
 }
@@ -1,5 +1,6 @@
 package flora.command;
 
+import flora.exception.FloraException;
 import flora.storage.Storage;
 import flora.task.TaskList;
 
@@ -9,9 +10,11 @@ import flora.task.TaskList;
 public class ExitCommand extends Command {
     /**
      * {@inheritDoc}
+     * Waits for any queued saves to reach the disk so that nothing is lost on exit.
      */
     @Override
-    public void execute(TaskList tasks, Storage storage) {
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        storage.flush();
     }
 
     /**
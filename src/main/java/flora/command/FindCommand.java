@@ -1,13 +1,16 @@
 package flora.command;
 
+import java.util.concurrent.CancellationException;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
+import flora.exception.FloraException;
 import flora.storage.Storage;
 import flora.task.TaskList;
 
 /**
  * Command to find tasks whose descriptions contain a given keyword.
+ * The search, including building the search index on first use, stops early if the command is cancelled.
  */
 public class FindCommand extends Command {
     private final String keyword;
@@ -25,10 +28,16 @@ public class FindCommand extends Command {
 
     /**
      * {@inheritDoc}
+     *
+     * @throws FloraException If the command is cancelled.
      */
     @Override
-    public void execute(TaskList tasks, Storage storage) {
-        matchingTasks = tasks.find(keyword);
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        try {
+            matchingTasks = tasks.find(keyword, this::isCancelled);
+        } catch (CancellationException e) {
+            throw new FloraException(CANCELLED_MESSAGE);
+        }
         assert matchingTasks != null : "Find result must not be null";
     }
 
@@ -45,4 +54,12 @@ public class FindCommand extends Command {
                 .collect(Collectors.joining());
         return "Here are the matching tasks in your list: " + items;
     }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
 }
@@ -0,0 +1,74 @@
+package flora.command;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import flora.storage.Storage;
+import flora.task.TaskList;
+import flora.task.TimeSlot;
+
+/**
+ * Command to find the earliest free periods of a given length within a time window,
+ * working around the events that are not done.
+ */
+public class FreeSlotCommand extends Command {
+    /** Maximum number of free slots listed. */
+    public static final int MAX_SLOTS = 5;
+    private static final DateTimeFormatter SLOT_FMT = DateTimeFormatter.ofPattern("d MMM yyyy HH:mm");
+
+    private final Duration duration;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private List<TimeSlot> slots;
+
+    /**
+     * Constructs a FreeSlotCommand for the given length and window.
+     *
+     * @param duration The minimum length of a free slot.
+     * @param from     The start of the window.
+     * @param to       The end of the window.
+     */
+    public FreeSlotCommand(Duration duration, LocalDateTime from, LocalDateTime to) {
+        assert duration != null && !duration.isNegative() && !duration.isZero() : "Duration must be positive";
+        assert from != null && to != null && from.isBefore(to) : "Window start must be before end";
+        this.duration = duration;
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) {
+        slots = tasks.findFreeSlots(from, to, duration, MAX_SLOTS);
+        assert slots != null : "Free slot result must not be null";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (slots.isEmpty()) {
+            return "No free slot that long in there bro.";
+        }
+        String items = IntStream.rangeClosed(1, slots.size())
+                .mapToObj(i -> "\n" + i + "." + slots.get(i - 1).start().format(SLOT_FMT)
+                        + " to " + slots.get(i - 1).end().format(SLOT_FMT))
+                .collect(Collectors.joining());
+        return "Here are the earliest free slots: " + items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
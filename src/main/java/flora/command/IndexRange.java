@@ -0,0 +1,41 @@
+package flora.command;
+
+import java.util.BitSet;
+import java.util.List;
+
+import flora.exception.FloraException;
+
+/**
+ * Holds an inclusive range of 1-based task indexes, such as {@code 1-500}. A single index is a range
+ * whose first and last index are the same.
+ */
+public record IndexRange(int first, int last) {
+    /**
+     * Constructs a range, checking that it is not empty or out of order.
+     *
+     * @param first The first index in the range.
+     * @param last  The last index in the range.
+     */
+    public IndexRange {
+        assert first >= 1 && first <= last : "Invalid index range: " + first + "-" + last;
+    }
+
+    /**
+     * Returns every index covered by the given ranges, once each and in ascending order.
+     *
+     * @param ranges The ranges to resolve.
+     * @param size   The number of tasks in the list.
+     * @return The sorted, distinct indexes.
+     * @throws FloraException If any range goes past the end of the list.
+     */
+    public static int[] resolve(List<IndexRange> ranges, int size) throws FloraException {
+        BitSet selected = new BitSet(size + 1);
+        for (IndexRange range : ranges) {
+            if (range.last() > size) {
+                throw new FloraException("Bro's out of bounds");
+            }
+            selected.set(range.first(), range.last() + 1);
+        }
+        return selected.stream().toArray();
+    }
+}
@@ -1,23 +1,81 @@
 package flora.command;
 
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
+import java.util.Iterator;
 
+import flora.exception.FloraException;
 import flora.storage.Storage;
+import flora.task.Task;
 import flora.task.TaskList;
 
 /**
- * Command to display all tasks in the task list.
+ * Command to display the tasks in the task list, one page at a time.
+ * Only the tasks on the requested page are rendered, and the page is read starting from its first task,
+ * so showing any page of a large list costs about the same as showing the first. A very large page can be
+ * cancelled while it is being rendered.
  */
 public class ListCommand extends Command {
-    private TaskList taskList;
+    /** The number of tasks shown per page when no size is given. */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    private final int page;
+    private final int pageSize;
+    private String message;
+
+    /**
+     * Constructs a command that shows the first page of tasks.
+     */
+    public ListCommand() {
+        this(1, DEFAULT_PAGE_SIZE);
+    }
+
+    /**
+     * Constructs a command that shows the given page of tasks.
+     *
+     * @param page     The 1-based page number.
+     * @param pageSize The number of tasks per page.
+     */
+    public ListCommand(int page, int pageSize) {
+        assert page > 0 && pageSize > 0 : "Page number and size must be positive";
+        this.page = page;
+        this.pageSize = pageSize;
+    }
 
     /**
      * {@inheritDoc}
+     *
+     * @throws FloraException If the page is past the end of the list, or the command is cancelled.
      */
     @Override
-    public void execute(TaskList tasks, Storage storage) {
-        taskList = tasks;
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        if (tasks.size() == 0) {
+            message = "Your list is empty.";
+            return;
+        }
+        int pageCount = (tasks.size() - 1) / pageSize + 1;
+        if (page > pageCount) {
+            throw new FloraException("Bro, your list only has " + pageCount + (pageCount == 1 ? " page" : " pages"));
+        }
+
+        int first = (page - 1) * pageSize + 1;
+        int last = Math.min(first + pageSize - 1, tasks.size());
+        StringBuilder items = new StringBuilder("Here are the tasks in your list: ");
+        Iterator<Task> pageTasks = tasks.streamFrom(first).limit(last - first + 1).iterator();
+        for (int i = first; i <= last; i++) {
+            if ((i - first) % CANCEL_CHECK_INTERVAL == CANCEL_CHECK_INTERVAL - 1) {
+                checkCancelled();
+            }
+            items.append('\n').append(i).append('.').append(pageTasks.next());
+        }
+        if (pageCount > 1) {
+            items.append("\nShowing tasks ").append(first).append('-').append(last)
+                    .append(" of ").append(tasks.size()).append('.');
+            if (page < pageCount) {
+                items.append(" Type \"list /page ").append(page + 1)
+                        .append(pageSize == DEFAULT_PAGE_SIZE ? "" : " /size " + pageSize)
+                        .append("\" for more.");
+            }
+        }
+        message = items.toString();
     }
 
     /**
@@ -25,12 +83,14 @@ public class ListCommand extends Command {
      */
     @Override
     public String getMessage() {
-        if (taskList.size() == 0) {
-            return "Your list is empty.";
-        }
-        String items = IntStream.rangeClosed(1, taskList.size())
-                .mapToObj(i -> "\n" + i + "." + taskList.get(i))
-                .collect(Collectors.joining());
-        return "Here are the tasks in your list: " + items;
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
     }
 }
@@ -38,9 +38,9 @@ public class MarkCommand extends Command {
             return;
         }
 
-        task.mark();
+        task = tasks.mark(taskIndex);
         assert task.isDone() : "Task must be marked as done after mark()";
-        storage.save(tasks);
+        storage.saveMarked(tasks, taskIndex);
     }
 
     /**
@@ -0,0 +1,47 @@
+package flora.command;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import flora.storage.Storage;
+import flora.task.Deadline;
+import flora.task.TaskList;
+
+/**
+ * Command to list the deadlines that are not done and are already past due, most overdue first.
+ */
+public class OverdueCommand extends Command {
+    private List<Deadline> deadlines;
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) {
+        deadlines = tasks.streamPendingDeadlinesDueBy(LocalDateTime.now()).collect(Collectors.toList());
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (deadlines.isEmpty()) {
+            return "Nothing overdue, nice one bro.";
+        }
+        String items = IntStream.rangeClosed(1, deadlines.size())
+                .mapToObj(i -> "\n" + i + "." + deadlines.get(i - 1))
+                .collect(Collectors.joining());
+        return "These are overdue bro: " + items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -0,0 +1,62 @@
+package flora.command;
+
+import java.time.LocalDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import flora.storage.Storage;
+import flora.task.TaskList;
+
+/**
+ * Command to list the events happening during a given time range.
+ */
+public class ScheduleCommand extends Command {
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+    private TaskList events;
+
+    /**
+     * Constructs a ScheduleCommand for the given time range.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     */
+    public ScheduleCommand(LocalDateTime from, LocalDateTime to) {
+        assert from != null : "Schedule start must not be null";
+        assert to != null : "Schedule end must not be null";
+        assert from.isBefore(to) : "Schedule start must be before end";
+        this.from = from;
+        this.to = to;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) {
+        events = tasks.findEventsBetween(from, to);
+        assert events != null : "Schedule result must not be null";
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        if (events.size() == 0) {
+            return "Nothing on during that time.";
+        }
+        String items = IntStream.rangeClosed(1, events.size())
+                .mapToObj(i -> "\n" + i + "." + events.get(i))
+                .collect(Collectors.joining());
+        return "Here are the events during that time: " + items;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
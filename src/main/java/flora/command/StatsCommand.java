@@ -0,0 +1,68 @@
+package flora.command;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import flora.exception.FloraException;
+import flora.metrics.CommandMetrics;
+import flora.storage.Storage;
+import flora.task.TaskList;
+
+/**
+ * Command to show how many commands of each type have run, how many failed, and how long their parse,
+ * execute and persist phases took. If a stats file is set, the full histograms are also written to it.
+ */
+public class StatsCommand extends Command {
+    private CommandMetrics metrics = null;
+    private Path dumpFile = null;
+    private String message;
+
+    /**
+     * Sets the metrics to report. Called by whatever runs the command, since they belong to it.
+     *
+     * @param metrics  The metrics to report.
+     * @param dumpFile The file to write the metrics to, or {@code null} to only show them.
+     */
+    public void setMetrics(CommandMetrics metrics, Path dumpFile) {
+        this.metrics = metrics;
+        this.dumpFile = dumpFile;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws FloraException If no metrics were set or the stats file cannot be written.
+     */
+    @Override
+    public void execute(TaskList tasks, Storage storage) throws FloraException {
+        if (metrics == null) {
+            throw new FloraException("No stats here bro");
+        }
+        message = metrics.formatSummary();
+        if (dumpFile == null) {
+            return;
+        }
+        try {
+            metrics.dump(dumpFile);
+        } catch (IOException e) {
+            throw new FloraException("Failed writing stats to " + dumpFile + ": " + e.getMessage());
+        }
+        message += "\nFull stats written to " + dumpFile;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+}
@@ -38,9 +38,9 @@ public class UnmarkCommand extends Command {
             return;
         }
 
-        task.unmark();
+        task = tasks.unmark(taskIndex);
         assert !task.isDone() : "Task must be unmarked after unmark()";
-        storage.save(tasks);
+        storage.saveUnmarked(tasks, taskIndex);
     }
 
     /**
@@ -0,0 +1,55 @@
+package flora.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for executing one command, including rendering its reply and
+ * persisting its changes. Disabled by default; see {@code config/jfr/flora.jfc}.
+ */
+@Name("flora.CommandExecute")
+@Label("Command Execute")
+@Category({"Flora", "Commands"})
+@Description("Executing one command, including rendering its reply and persisting its changes")
+@Enabled(false)
+@StackTrace(false)
+public class CommandExecuteEvent extends Event {
+    @Label("Command Type")
+    private String commandType;
+
+    @Label("Task Count")
+    @Description("The number of tasks in the list when the command started")
+    private int taskCount;
+
+    @Label("Read Only")
+    @Description("Whether the command ran on a snapshot without changing anything")
+    private boolean isReadOnly;
+
+    @Label("Error")
+    @Description("Whether the command failed")
+    private boolean isError;
+
+    /**
+     * Ends the event and commits it with the given details, if it is enabled and over its threshold.
+     *
+     * @param commandType The type of the command.
+     * @param taskCount   The number of tasks in the list when the command started.
+     * @param isReadOnly  Whether the command only read the list.
+     * @param isError     Whether the command failed.
+     */
+    public void commit(String commandType, int taskCount, boolean isReadOnly, boolean isError) {
+        end();
+        if (shouldCommit()) {
+            this.commandType = commandType;
+            this.taskCount = taskCount;
+            this.isReadOnly = isReadOnly;
+            this.isError = isError;
+            commit();
+        }
+    }
+}
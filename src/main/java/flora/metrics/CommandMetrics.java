@@ -0,0 +1,319 @@
+package flora.metrics;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import flora.command.Command;
+
+/**
+ * Counts the commands run of each type and how many failed, and keeps a {@link LatencyHistogram} for
+ * each phase of running them: parsing the input, executing the command, and persisting its changes.
+ * Input that cannot be parsed is counted as a failed command of type {@value #INVALID_TYPE}.
+ *
+ * <p>A command's type is its class name without the {@code Command} suffix, such as {@code List} or
+ * {@code BulkMark}. Recording only looks up the type's counters and increments them, so it is safe from
+ * any number of threads and allocates nothing once a type has been seen.
+ */
+public class CommandMetrics {
+    /** The type recorded for input that could not be parsed into a command. */
+    public static final String INVALID_TYPE = "Invalid";
+    private static final String COMMAND_SUFFIX = "Command";
+    private static final double[] PERCENTILES = {50, 90, 99};
+    /** The type name of each command class, worked out once per class. */
+    private static final ClassValue<String> TYPE_NAMES = new ClassValue<>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            String name = type.getSimpleName();
+            return name.endsWith(COMMAND_SUFFIX)
+                    ? name.substring(0, name.length() - COMMAND_SUFFIX.length())
+                    : name;
+        }
+    };
+
+    /**
+     * A phase of running a command.
+     */
+    public enum Phase {
+        PARSE, EXECUTE, PERSIST;
+
+        /**
+         * Returns the lowercase name of this phase.
+         *
+         * @return The name.
+         */
+        String getName() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /**
+     * The counters for one type of command.
+     */
+    private static class TypeStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder errorCount = new LongAdder();
+        private final LatencyHistogram[] histograms = new LatencyHistogram[Phase.values().length];
+
+        /**
+         * Constructs empty counters.
+         */
+        TypeStats() {
+            for (int i = 0; i < histograms.length; i++) {
+                histograms[i] = new LatencyHistogram();
+            }
+        }
+
+        /**
+         * Returns the histogram for the given phase.
+         *
+         * @param phase The phase.
+         * @return The histogram.
+         */
+        LatencyHistogram get(Phase phase) {
+            return histograms[phase.ordinal()];
+        }
+    }
+
+    private final Map<Class<?>, TypeStats> statsByClass = new ConcurrentHashMap<>();
+    private final TypeStats invalidStats = new TypeStats();
+
+    /**
+     * Returns the type name that the given command is recorded under.
+     *
+     * @param command The command.
+     * @return The command's type.
+     */
+    public static String typeOf(Command command) {
+        return TYPE_NAMES.get(command.getClass());
+    }
+
+    /**
+     * Records how long it took to parse input into the given command.
+     *
+     * @param command The parsed command.
+     * @param nanos   The time taken, in nanoseconds.
+     */
+    public void recordParse(Command command, long nanos) {
+        statsFor(command).get(Phase.PARSE).record(nanos);
+    }
+
+    /**
+     * Records input that could not be parsed, as a failed command of type {@value #INVALID_TYPE}.
+     *
+     * @param nanos The time taken to reject the input, in nanoseconds.
+     */
+    public void recordParseFailure(long nanos) {
+        invalidStats.get(Phase.PARSE).record(nanos);
+        invalidStats.count.increment();
+        invalidStats.errorCount.increment();
+    }
+
+    /**
+     * Records one run of the given command. The persist phase is only recorded for commands that may
+     * change the task list, so read-only commands do not dilute it with zeros.
+     *
+     * @param command      The command that ran.
+     * @param executeNanos The time spent executing it, excluding persisting, in nanoseconds.
+     * @param persistNanos The time spent persisting its changes, in nanoseconds.
+     * @param isError      Whether it failed.
+     */
+    public void recordExecution(Command command, long executeNanos, long persistNanos, boolean isError) {
+        TypeStats stats = statsFor(command);
+        stats.count.increment();
+        if (isError) {
+            stats.errorCount.increment();
+        }
+        stats.get(Phase.EXECUTE).record(executeNanos);
+        if (!command.isReadOnly()) {
+            stats.get(Phase.PERSIST).record(persistNanos);
+        }
+    }
+
+    /**
+     * Returns the number of commands of the given type that have run.
+     *
+     * @param type The command type.
+     * @return The count, or 0 if none have run.
+     */
+    public long getCount(String type) {
+        TypeStats stats = snapshot().get(type);
+        return stats == null ? 0 : stats.count.sum();
+    }
+
+    /**
+     * Returns the number of commands of the given type that failed.
+     *
+     * @param type The command type.
+     * @return The count, or 0 if none have failed.
+     */
+    public long getErrorCount(String type) {
+        TypeStats stats = snapshot().get(type);
+        return stats == null ? 0 : stats.errorCount.sum();
+    }
+
+    /**
+     * Returns the latency histogram of the given type and phase.
+     *
+     * @param type  The command type.
+     * @param phase The phase.
+     * @return The histogram, or {@code null} if no command of the type has been seen.
+     */
+    public LatencyHistogram getHistogram(String type, Phase phase) {
+        TypeStats stats = snapshot().get(type);
+        return stats == null ? null : stats.get(phase);
+    }
+
+    /**
+     * Returns a readable summary of every command type seen, in alphabetical order.
+     *
+     * @return The summary, or a message saying that nothing has run yet.
+     */
+    public String formatSummary() {
+        Map<String, TypeStats> types = snapshot();
+        if (types.isEmpty()) {
+            return "No commands have run yet bro.";
+        }
+        StringBuilder summary = new StringBuilder("Here's how your commands have been doing:");
+        types.forEach((type, stats) -> {
+            long count = stats.count.sum();
+            summary.append('\n').append(type).append(": ").append(count).append(count == 1 ? " run" : " runs")
+                    .append(", ").append(stats.errorCount.sum()).append(" failed");
+            for (Phase phase : Phase.values()) {
+                LatencyHistogram histogram = stats.get(phase);
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                summary.append("\n  ").append(phase.getName());
+                for (double percentile : PERCENTILES) {
+                    summary.append(" p").append((int) percentile).append(' ')
+                            .append(formatNanos(histogram.getPercentileNanos(percentile)));
+                }
+                summary.append(" max ").append(formatNanos(histogram.getMaxNanos()));
+            }
+        });
+        return summary.toString();
+    }
+
+    /**
+     * Writes every counter and histogram to the given file as JSON, replacing the file in one step so that
+     * readers never see a partial dump. For each type and phase, the dump holds the count, mean, percentiles
+     * and maximum in nanoseconds, plus the non-empty buckets as {@code [lowerBoundNanos, count]} pairs so
+     * that dumps can be merged or compared later.
+     *
+     * @param file The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void dump(Path file) throws IOException {
+        Path directory = file.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempFile = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            Files.writeString(tempFile, toJson(), StandardCharsets.UTF_8);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Returns every counter and histogram as a JSON document. See {@link #dump(Path)}.
+     *
+     * @return The JSON text.
+     */
+    public String toJson() {
+        StringBuilder json = new StringBuilder("{\"commands\":{");
+        String typeSeparator = "";
+        for (Map.Entry<String, TypeStats> entry : snapshot().entrySet()) {
+            TypeStats stats = entry.getValue();
+            json.append(typeSeparator).append('"').append(entry.getKey()).append("\":{\"count\":")
+                    .append(stats.count.sum()).append(",\"errors\":").append(stats.errorCount.sum());
+            for (Phase phase : Phase.values()) {
+                json.append(",\"").append(phase.getName()).append("\":");
+                appendJson(json, stats.get(phase));
+            }
+            json.append('}');
+            typeSeparator = ",";
+        }
+        return json.append("}}\n").toString();
+    }
+
+    /**
+     * Appends one histogram as a JSON object.
+     *
+     * @param json      The JSON being built.
+     * @param histogram The histogram.
+     */
+    private static void appendJson(StringBuilder json, LatencyHistogram histogram) {
+        json.append("{\"count\":").append(histogram.getCount())
+                .append(",\"meanNanos\":").append(histogram.getMeanNanos());
+        for (double percentile : PERCENTILES) {
+            json.append(",\"p").append((int) percentile).append("Nanos\":")
+                    .append(histogram.getPercentileNanos(percentile));
+        }
+        json.append(",\"maxNanos\":").append(histogram.getMaxNanos()).append(",\"buckets\":[");
+        int start = json.length();
+        histogram.forEachBucket((lowerBound, count) -> json.append(json.length() == start ? "" : ",")
+                .append('[').append(lowerBound).append(',').append(count).append(']'));
+        json.append("]}");
+    }
+
+    /**
+     * Returns the counters of every type seen so far, keyed and sorted by type name.
+     *
+     * @return The counters.
+     */
+    private Map<String, TypeStats> snapshot() {
+        Map<String, TypeStats> types = new TreeMap<>();
+        statsByClass.forEach((type, stats) -> types.put(TYPE_NAMES.get(type), stats));
+        if (invalidStats.count.sum() > 0) {
+            types.put(INVALID_TYPE, invalidStats);
+        }
+        return types;
+    }
+
+    /**
+     * Returns the counters for the given command's type, creating them the first time the type is seen.
+     *
+     * @param command The command.
+     * @return The counters.
+     */
+    private TypeStats statsFor(Command command) {
+        TypeStats stats = statsByClass.get(command.getClass());
+        return stats != null ? stats : statsByClass.computeIfAbsent(command.getClass(), type -> new TypeStats());
+    }
+
+    /**
+     * Formats a latency with a unit that keeps it short, such as {@code 850ns}, {@code 12us} or {@code 1.5ms}.
+     *
+     * @param nanos The latency in nanoseconds.
+     * @return The formatted latency.
+     */
+    private static String formatNanos(long nanos) {
+        if (nanos < 1_000) {
+            return nanos + "ns";
+        } else if (nanos < 100_000) {
+            return formatScaled(nanos / 1e3) + "us";
+        } else if (nanos < 100_000_000) {
+            return formatScaled(nanos / 1e6) + "ms";
+        }
+        return formatScaled(nanos / 1e9) + "s";
+    }
+
+    /**
+     * Formats a number with one decimal place below 10 and none above.
+     *
+     * @param value The number.
+     * @return The formatted number.
+     */
+    private static String formatScaled(double value) {
+        return value < 10 ? String.format(Locale.ROOT, "%.1f", value) : String.valueOf(Math.round(value));
+    }
+}
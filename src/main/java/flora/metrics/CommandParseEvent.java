@@ -0,0 +1,43 @@
+package flora.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for parsing one line of input into a command.
+ * Disabled by default; see {@code config/jfr/flora.jfc}.
+ */
+@Name("flora.CommandParse")
+@Label("Command Parse")
+@Category({"Flora", "Commands"})
+@Description("Parsing one line of input into a command")
+@Enabled(false)
+@StackTrace(false)
+public class CommandParseEvent extends Event {
+    @Label("Command Type")
+    @Description("The type of the parsed command, or Invalid if the input could not be parsed")
+    private String commandType;
+
+    @Label("Input Length")
+    private int inputLength;
+
+    /**
+     * Ends the event and commits it with the given details, if it is enabled and over its threshold.
+     *
+     * @param commandType The type of the parsed command.
+     * @param inputLength The length of the input in characters.
+     */
+    public void commit(String commandType, int inputLength) {
+        end();
+        if (shouldCommit()) {
+            this.commandType = commandType;
+            this.inputLength = inputLength;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package flora.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for building a task list index on first use, or keeping the built
+ * indexes up to date after a change. Disabled by default; see {@code config/jfr/flora.jfc}.
+ */
+@Name("flora.IndexMaintenance")
+@Label("Index Maintenance")
+@Category({"Flora", "Task List"})
+@Description("Building a task list index, or updating the built indexes after a change")
+@Enabled(false)
+@StackTrace(false)
+public class IndexEvent extends Event {
+    /** The index name for updates, which cover every index built so far. */
+    public static final String ALL = "all";
+
+    @Label("Index")
+    @Description("search, event, deadline, or all for updates")
+    private String index;
+
+    @Label("Operation")
+    @Description("build, add, remove or replace")
+    private String operation;
+
+    @Label("Changed Tasks")
+    @Description("The number of tasks indexed or unindexed")
+    private int changedCount;
+
+    @Label("Task Count")
+    @Description("The number of tasks in the list afterwards")
+    private int taskCount;
+
+    /**
+     * Ends the event and commits it with the given details, if it is enabled and over its threshold.
+     *
+     * @param index        The index built, or {@link #ALL} for an update.
+     * @param operation    The operation.
+     * @param changedCount The number of tasks indexed or unindexed.
+     * @param taskCount    The number of tasks in the list afterwards.
+     */
+    public void commit(String index, String operation, int changedCount, int taskCount) {
+        end();
+        if (shouldCommit()) {
+            this.index = index;
+            this.operation = operation;
+            this.changedCount = changedCount;
+            this.taskCount = taskCount;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package flora.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records latencies in nanoseconds into log-linear buckets, in the style of an HDR histogram.
+ * Each power of two is split into {@value #SUB_BUCKETS} equal buckets, so every recorded value is known
+ * to within about 3%, from single nanoseconds up to over an hour, in a fixed array of counters.
+ *
+ * <p>Recording only increments counters, so it never allocates or locks and is safe from any number of
+ * threads. Reads taken while values are being recorded may miss the latest few.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    /** The largest power of two tracked; longer latencies are counted as the largest value. */
+    private static final int MAX_EXPONENT = 41;
+    /** The largest value that can be recorded exactly; longer latencies are clamped to it. */
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    private static final int BUCKET_COUNT = bucketOf(MAX_VALUE) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final LongAdder totalCount = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records one latency.
+     *
+     * @param nanos The latency in nanoseconds. Negative values are recorded as 0.
+     */
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.incrementAndGet(bucketOf(value));
+        totalCount.increment();
+        totalNanos.add(value);
+        maxNanos.accumulateAndGet(value, Math::max);
+    }
+
+    /**
+     * Returns the number of latencies recorded.
+     *
+     * @return The count.
+     */
+    public long getCount() {
+        return totalCount.sum();
+    }
+
+    /**
+     * Returns the mean latency, or 0 if nothing has been recorded.
+     *
+     * @return The mean in nanoseconds.
+     */
+    public long getMeanNanos() {
+        long count = totalCount.sum();
+        return count == 0 ? 0 : totalNanos.sum() / count;
+    }
+
+    /**
+     * Returns the longest latency recorded, or 0 if nothing has been recorded.
+     *
+     * @return The maximum in nanoseconds.
+     */
+    public long getMaxNanos() {
+        return maxNanos.get();
+    }
+
+    /**
+     * Returns the latency that the given percentage of recorded latencies are at or below, as the upper
+     * bound of its bucket but never more than the maximum. Returns 0 if nothing has been recorded.
+     *
+     * @param percentile The percentile, between 0 and 100.
+     * @return The latency in nanoseconds.
+     */
+    public long getPercentileNanos(double percentile) {
+        assert percentile >= 0 && percentile <= 100 : "Percentile must be between 0 and 100";
+        long count = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            count += counts.get(i);
+        }
+        if (count == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(count * percentile / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(lowerBoundOf(i + 1) - 1, maxNanos.get());
+            }
+        }
+        return maxNanos.get();
+    }
+
+    /**
+     * Passes every non-empty bucket to the given consumer, in increasing order of latency.
+     *
+     * @param consumer Receives the smallest latency in each bucket and the bucket's count.
+     */
+    public void forEachBucket(BucketConsumer consumer) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                consumer.accept(lowerBoundOf(i), count);
+            }
+        }
+    }
+
+    /**
+     * Receives the buckets of a histogram.
+     */
+    @FunctionalInterface
+    public interface BucketConsumer {
+        /**
+         * Receives one bucket.
+         *
+         * @param lowerBoundNanos The smallest latency in the bucket.
+         * @param count           The number of latencies recorded in the bucket.
+         */
+        void accept(long lowerBoundNanos, long count);
+    }
+
+    /**
+     * Returns the bucket holding the given value. Values below {@value #SUB_BUCKETS} each get their own
+     * bucket; above that, each power of two is split into {@value #SUB_BUCKETS} buckets.
+     *
+     * @param value The value, between 0 and {@link #MAX_VALUE}.
+     * @return The bucket index.
+     */
+    private static int bucketOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) - SUB_BUCKETS);
+    }
+
+    /**
+     * Returns the smallest value held by the given bucket.
+     *
+     * @param bucket The bucket index.
+     * @return The bucket's lower bound.
+     */
+    private static long lowerBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = bucket / SUB_BUCKETS - 1;
+        return (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+    }
+}
@@ -0,0 +1,62 @@
+package flora.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for loading the task file and replaying its journal.
+ * Disabled by default; see {@code config/jfr/flora.jfc}.
+ */
+@Name("flora.StorageLoad")
+@Label("Storage Load")
+@Category({"Flora", "Storage"})
+@Description("Loading the task file and replaying its journal")
+@Enabled(false)
+@StackTrace(false)
+public class StorageLoadEvent extends Event {
+    @Label("Path")
+    private String path;
+
+    @Label("Format")
+    private String format;
+
+    @Label("Bytes")
+    @Description("The size of the snapshot file")
+    @DataAmount
+    private long bytes;
+
+    @Label("Line Count")
+    @Description("The number of tasks read from the snapshot file")
+    private int lineCount;
+
+    @Label("Journal Entries")
+    @Description("The number of journaled changes replayed on top of the snapshot")
+    private int journalEntryCount;
+
+    /**
+     * Ends the event and commits it with the given details, if it is enabled and over its threshold.
+     *
+     * @param path              The task file path.
+     * @param format            The task file format.
+     * @param bytes             The size of the snapshot file.
+     * @param lineCount         The number of tasks read from the snapshot file.
+     * @param journalEntryCount The number of journal entries replayed.
+     */
+    public void commit(String path, String format, long bytes, int lineCount, int journalEntryCount) {
+        end();
+        if (shouldCommit()) {
+            this.path = path;
+            this.format = format;
+            this.bytes = bytes;
+            this.lineCount = lineCount;
+            this.journalEntryCount = journalEntryCount;
+            commit();
+        }
+    }
+}
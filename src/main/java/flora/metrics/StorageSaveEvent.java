@@ -0,0 +1,64 @@
+package flora.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * A Java Flight Recorder event for one write to the task file or its journal, recorded on whichever
+ * thread does the I/O. Disabled by default; see {@code config/jfr/flora.jfc}.
+ */
+@Name("flora.StorageSave")
+@Label("Storage Save")
+@Category({"Flora", "Storage"})
+@Description("Writing a snapshot, appending to the journal, or forcing the journal to disk")
+@Enabled(false)
+@StackTrace(false)
+public class StorageSaveEvent extends Event {
+    /** The kind of a full snapshot write. */
+    public static final String SNAPSHOT = "snapshot";
+    /** The kind of a journal append. */
+    public static final String JOURNAL = "journal";
+    /** The kind of forcing earlier journal appends to disk. */
+    public static final String SYNC = "sync";
+
+    @Label("Kind")
+    @Description("snapshot, journal or sync")
+    private String kind;
+
+    @Label("Bytes")
+    @DataAmount
+    private long bytes;
+
+    @Label("Line Count")
+    @Description("The number of tasks or journal entries written or synced")
+    private int lineCount;
+
+    @Label("Forced")
+    @Description("Whether the write was forced to disk")
+    private boolean isForced;
+
+    /**
+     * Ends the event and commits it with the given details, if it is enabled and over its threshold.
+     *
+     * @param kind      The kind of write.
+     * @param bytes     The number of bytes written.
+     * @param lineCount The number of tasks or journal entries written or synced.
+     * @param isForced  Whether the write was forced to disk.
+     */
+    public void commit(String kind, long bytes, int lineCount, boolean isForced) {
+        end();
+        if (shouldCommit()) {
+            this.kind = kind;
+            this.bytes = bytes;
+            this.lineCount = lineCount;
+            this.isForced = isForced;
+            commit();
+        }
+    }
+}
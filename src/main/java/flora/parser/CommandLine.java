@@ -0,0 +1,182 @@
+package flora.parser;
+
+import java.util.Arrays;
+
+/**
+ * A command line split into its command word, the text after the word, and the values of its flags,
+ * found in a single pass over the input.
+ *
+ * <p>A flag is one of the names the command accepts, such as {@code /by}, written as a word of its own and
+ * matched ignoring case. Its value runs from the flag to the next accepted flag or the end of the input,
+ * so a value may contain slashes, as in {@code /by 1/12/2024}, or words such as {@code /usr} that are not
+ * flags of the command. Only positions are recorded while scanning; values are cut out when asked for.
+ */
+final class CommandLine {
+    /** Enough segments for every command's flags without growing. */
+    private static final int INITIAL_SEGMENTS = 4;
+    /** Each segment takes three ints: the flag's index in {@link #flags}, its start, and its value's start. */
+    private static final int SEGMENT_WIDTH = 3;
+
+    private final String input;
+    private final String[] flags;
+    private final int argumentStart;
+    /** The flags found, allocated when the first is found. */
+    private int[] segments = null;
+    private int segmentCount = 0;
+
+    /**
+     * Splits the given input, whose command word ends at the given index.
+     *
+     * @param input   The raw user input string.
+     * @param wordEnd The index of the space after the command word, or -1 if the input is only the word.
+     * @param flags   The flags the command accepts, in lowercase and each starting with {@code /}.
+     */
+    CommandLine(String input, int wordEnd, String[] flags) {
+        this.input = input;
+        this.flags = flags;
+        this.argumentStart = wordEnd == -1 ? input.length() : wordEnd + 1;
+        if (flags.length > 0) {
+            findFlags();
+        }
+    }
+
+    /**
+     * Returns the raw text after the command word and the space following it.
+     *
+     * @return The argument, or an empty string if there is none.
+     */
+    String getArgument() {
+        return input.substring(argumentStart);
+    }
+
+    /**
+     * Returns the text between the command word and the first flag, without surrounding whitespace.
+     *
+     * @return The text, which may be empty.
+     */
+    String getText() {
+        int end = segmentCount == 0 ? input.length() : segments[1];
+        return slice(argumentStart, end);
+    }
+
+    /**
+     * Returns the value of the first occurrence of the given flag, without surrounding whitespace.
+     *
+     * @param flag One of the flags the command accepts.
+     * @return The value, which may be empty, or {@code null} if the flag is absent.
+     */
+    String getValue(String flag) {
+        for (int i = 0; i < segmentCount; i++) {
+            if (getFlag(i).equals(flag)) {
+                return getValue(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Returns the number of flags given, counting repeats.
+     *
+     * @return The number of flags.
+     */
+    int getFlagCount() {
+        return segmentCount;
+    }
+
+    /**
+     * Returns the flag at the given position among the flags given.
+     *
+     * @param position The 0-based position.
+     * @return The flag, in lowercase.
+     */
+    String getFlag(int position) {
+        return flags[segments[position * SEGMENT_WIDTH]];
+    }
+
+    /**
+     * Returns the value of the flag at the given position among the flags given, without surrounding whitespace.
+     *
+     * @param position The 0-based position.
+     * @return The value, which may be empty.
+     */
+    String getValue(int position) {
+        int valueStart = segments[position * SEGMENT_WIDTH + 2];
+        int valueEnd = position + 1 < segmentCount ? segments[(position + 1) * SEGMENT_WIDTH + 1] : input.length();
+        return slice(valueStart, valueEnd);
+    }
+
+    /**
+     * Returns part of the input without surrounding whitespace, copying only the characters kept.
+     *
+     * @param start The index of the first character.
+     * @param end   The index after the last character.
+     * @return The part of the input.
+     */
+    private String slice(int start, int end) {
+        while (start < end && Character.isWhitespace(input.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(input.charAt(end - 1))) {
+            end--;
+        }
+        return input.substring(start, end);
+    }
+
+    /**
+     * Records every accepted flag in the argument, in order. A flag must start the argument or follow whitespace,
+     * and end the input or be followed by whitespace.
+     */
+    private void findFlags() {
+        int length = input.length();
+        for (int i = argumentStart; i < length; i++) {
+            if (input.charAt(i) != '/' || (i > argumentStart && !Character.isWhitespace(input.charAt(i - 1)))) {
+                continue;
+            }
+            int nameEnd = i + 1;
+            while (nameEnd < length && !Character.isWhitespace(input.charAt(nameEnd))) {
+                nameEnd++;
+            }
+            int flag = indexOfFlag(i, nameEnd - i);
+            if (flag != -1) {
+                addSegment(flag, i, nameEnd);
+            }
+            i = nameEnd;
+        }
+    }
+
+    /**
+     * Returns which accepted flag, if any, the input holds at the given position.
+     *
+     * @param start  The index of the word's {@code /}.
+     * @param length The length of the word.
+     * @return The index of the flag in {@link #flags}, or -1 if the word is not an accepted flag.
+     */
+    private int indexOfFlag(int start, int length) {
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i].length() == length && input.regionMatches(true, start, flags[i], 0, length)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Records one flag and where its value starts.
+     *
+     * @param flag       The index of the flag in {@link #flags}.
+     * @param start      The index of the flag's {@code /}.
+     * @param valueStart The index just after the flag.
+     */
+    private void addSegment(int flag, int start, int valueStart) {
+        int offset = segmentCount * SEGMENT_WIDTH;
+        if (segments == null) {
+            segments = new int[INITIAL_SEGMENTS * SEGMENT_WIDTH];
+        } else if (offset == segments.length) {
+            segments = Arrays.copyOf(segments, 2 * segments.length);
+        }
+        segments[offset] = flag;
+        segments[offset + 1] = start;
+        segments[offset + 2] = valueStart;
+        segmentCount++;
+    }
+}
@@ -1,80 +1,142 @@
 package flora.parser;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.time.format.ResolverStyle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Random;
 
 import flora.command.AddDeadlineCommand;
 import flora.command.AddEventCommand;
 import flora.command.AddTodoCommand;
+import flora.command.BulkDeleteCommand;
+import flora.command.BulkMarkCommand;
+import flora.command.BulkUnmarkCommand;
 import flora.command.Command;
+import flora.command.ConflictsCommand;
 import flora.command.DeleteCommand;
+import flora.command.DueCommand;
 import flora.command.EditCommand;
 import flora.command.ExitCommand;
 import flora.command.FindCommand;
+import flora.command.FreeSlotCommand;
+import flora.command.IndexRange;
 import flora.command.ListCommand;
 import flora.command.MarkCommand;
+import flora.command.OverdueCommand;
+import flora.command.ScheduleCommand;
+import flora.command.StatsCommand;
 import flora.command.UnmarkCommand;
 import flora.exception.FloraException;
 
 /**
  * Parses user input into executable commands.
+ *
+ * <p>Each command word is looked up in a dispatch table that holds the flags the command accepts and the
+ * method that parses its arguments. The input is split into its word, text and flag values in one pass by
+ * {@link CommandLine}, so the command parsers read their fields without searching the input again.
+ * Adding a command only takes a parse method and one entry in the table.
  */
 public class Parser {
     private static final DateTimeFormatter DATE_TIME_FMT =
             DateTimeFormatter.ofPattern("d/M/uuuu H:mm").withResolverStyle(ResolverStyle.STRICT);
     private static final DateTimeFormatter DATE_ONLY_FMT =
             DateTimeFormatter.ofPattern("d/M/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    /** Every command, keyed by its lowercase command word. */
+    private static final Map<String, CommandSpec> COMMANDS = Map.ofEntries(
+            command("todo", Parser::parseTodo),
+            command("deadline", Parser::parseDeadline, "/by"),
+            command("event", Parser::parseEvent, "/from", "/to"),
+            command("find", Parser::parseFind),
+            command("edit", Parser::parseEdit, "/desc", "/by", "/from", "/to"),
+            command("schedule", Parser::parseSchedule, "/from", "/to"),
+            command("due", Parser::parseDue, "/before"),
+            command("overdue", line -> new OverdueCommand()),
+            command("conflicts", line -> new ConflictsCommand()),
+            command("freeslot", Parser::parseFreeSlot, "/duration", "/within", "/to"),
+            command("delete", Parser::parseDelete),
+            command("mark", Parser::parseMark),
+            command("unmark", Parser::parseUnmark),
+            command("list", Parser::parseList, "/page", "/size"),
+            command("stats", line -> new StatsCommand()),
+            command("bye", line -> new ExitCommand()));
+
+    /**
+     * Parses the arguments of one kind of command.
+     */
+    @FunctionalInterface
+    private interface CommandParser {
+        /**
+         * Parses a command line whose command word is this parser's.
+         *
+         * @param line The split command line.
+         * @return The parsed command.
+         * @throws FloraException If the arguments are missing or invalid.
+         */
+        Command parse(CommandLine line) throws FloraException;
+    }
+
+    /**
+     * An entry in the dispatch table.
+     *
+     * @param flags  The flags the command accepts, in lowercase.
+     * @param parser The parser for the command's arguments.
+     */
+    private record CommandSpec(String[] flags, CommandParser parser) {
+    }
 
     /**
      * Parses the given user input string and returns the corresponding command.
+     * The command word is matched ignoring case, and is only lowercased if it is not already.
      *
      * @param input The raw user input string.
      * @return The command corresponding to the user input.
      * @throws FloraException If the input is invalid or cannot be parsed.
      */
     public static Command parse(String input) throws FloraException {
-        String command = input;
-        int firstSpaceIndex = input.indexOf(" ");
-
-        if (firstSpaceIndex != -1) {
-            command = input.substring(0, firstSpaceIndex);
+        int firstSpaceIndex = input.indexOf(' ');
+        String word = firstSpaceIndex == -1 ? input : input.substring(0, firstSpaceIndex);
+        CommandSpec spec = COMMANDS.get(word);
+        if (spec == null) {
+            spec = COMMANDS.get(word.toLowerCase(Locale.ROOT));
+        }
+        if (spec == null) {
+            throw new FloraException(getInvalidCommandMessage());
         }
+        return spec.parser().parse(new CommandLine(input, firstSpaceIndex, spec.flags()));
+    }
 
-        return switch (command.toLowerCase()) {
-        case "todo" -> parseTodo(input, firstSpaceIndex);
-        case "deadline" -> parseDeadline(input, firstSpaceIndex);
-        case "event" -> parseEvent(input, firstSpaceIndex);
-        case "find" -> parseFind(input, firstSpaceIndex);
-        case "edit" -> parseEdit(input, firstSpaceIndex);
-        case "delete" -> new DeleteCommand(getTaskIndex(input, firstSpaceIndex));
-        case "mark" -> new MarkCommand(getTaskIndex(input, firstSpaceIndex));
-        case "unmark" -> new UnmarkCommand(getTaskIndex(input, firstSpaceIndex));
-        case "list" -> new ListCommand();
-        case "bye" -> new ExitCommand();
-        default -> throw new FloraException(getInvalidCommandMessage());
-        };
+    /**
+     * Returns a dispatch table entry.
+     *
+     * @param word   The lowercase command word.
+     * @param parser The parser for the command's arguments.
+     * @param flags  The flags the command accepts, in lowercase.
+     * @return The entry.
+     */
+    private static Map.Entry<String, CommandSpec> command(String word, CommandParser parser, String... flags) {
+        return Map.entry(word, new CommandSpec(flags, parser));
     }
 
     /**
      * Parses a todo command from the user input.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param line The split command line.
      * @return The parsed {@code AddTodoCommand}.
      * @throws FloraException If the task description is missing.
      */
-    private static Command parseTodo(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+    private static Command parseTodo(CommandLine line) throws FloraException {
+        String taskDesc = line.getArgument();
+        if (taskDesc.isBlank()) {
             throw new FloraException("At least put something bro");
         }
-
-        String taskDesc = input.substring(firstSpaceIndex + 1);
-        assert !taskDesc.isBlank() : "Todo description must not be blank after parsing";
         return new AddTodoCommand(taskDesc);
     }
 
@@ -84,26 +146,13 @@ public class Parser {
      * natural language shortcuts (e.g., "today", "tomorrow", "next week")
      * as well as explicit date/time strings.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param line The split command line.
      * @return The parsed {@code AddDeadlineCommand}.
      * @throws FloraException If the description or due date is missing or invalid.
      */
-    private static Command parseDeadline(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
-            throw new FloraException("At least put something bro");
-        }
-
-        int byIndex = input.indexOf("/by");
-        if (byIndex == -1 || byIndex + 4 >= input.length()) {
-            throw new FloraException("At least set a due date bro");
-        }
-
-        String taskDesc = input.substring(firstSpaceIndex + 1, byIndex - 1);
-        String taskDueStr = input.substring(byIndex + 4);
-        assert !taskDesc.isBlank() : "Deadline description must not be blank";
-        assert !taskDueStr.isBlank() : "Deadline due date string must not be blank";
-
+    private static Command parseDeadline(CommandLine line) throws FloraException {
+        String taskDesc = requireText(line, "At least put something bro");
+        String taskDueStr = requireValue(line, "/by", "At least set a due date bro");
         LocalDateTime taskDue = parseDueDateTime(taskDueStr);
 
         return new AddDeadlineCommand(taskDesc, taskDue);
@@ -112,60 +161,205 @@ public class Parser {
     /**
      * Parses an event command from the user input.
      * Extracts the task description, start date/time, and end date/time
-     * by locating the {@code /from} and {@code /to} delimiters.
+     * from the {@code /from} and {@code /to} flags.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param line The split command line.
      * @return The parsed {@code AddEventCommand}.
      * @throws FloraException If the description, start time, or end time is missing or invalid.
      */
-    private static Command parseEvent(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
-            throw new FloraException("At least put something bro");
-        }
+    private static Command parseEvent(CommandLine line) throws FloraException {
+        String taskDesc = requireText(line, "At least put something bro");
+        String taskStartStr = requireValue(line, "/from", "At least set a start time bro");
+        String taskEndStr = requireValue(line, "/to", "At least set an end time bro");
 
-        int fromIndex = input.indexOf("/from");
-        if (fromIndex == -1 || fromIndex + 6 >= input.length()) {
-            throw new FloraException("At least set a start time bro");
+        LocalDateTime taskStart = parseDateTime(taskStartStr, "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime taskEnd = parseDateTime(taskEndStr, "end date/time", LocalTime.MAX);
+
+        if (!taskStart.isBefore(taskEnd)) {
+            throw new FloraException("Start time must be before end time.");
         }
 
-        int toIndex = input.indexOf("/to");
-        if (toIndex == -1 || toIndex + 4 >= input.length()) {
-            throw new FloraException("At least set an end time bro");
+        return new AddEventCommand(taskDesc, taskStart, taskEnd);
+    }
+
+    /**
+     * Parses a schedule command from the user input.
+     * Syntax: {@code schedule /from <start> /to <end>}. A date without a time covers the whole day,
+     * so {@code schedule /from 1/1/2025 /to 1/1/2025} shows everything on that day.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code ScheduleCommand}.
+     * @throws FloraException If the start or end is missing or invalid.
+     */
+    private static Command parseSchedule(CommandLine line) throws FloraException {
+        String fromStr = requireValue(line, "/from", "At least set a start time bro");
+        String toStr = requireValue(line, "/to", "At least set an end time bro");
+
+        LocalDateTime from = parseDateTime(fromStr, "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime to = parseDateTime(toStr, "end date/time", LocalTime.MAX);
+
+        if (!from.isBefore(to)) {
+            throw new FloraException("Start time must be before end time.");
         }
 
-        String taskDesc = input.substring(firstSpaceIndex + 1, fromIndex - 1);
-        String taskStartStr = input.substring(fromIndex + 6, toIndex - 1);
-        String taskEndStr = input.substring(toIndex + 4);
-        assert !taskDesc.isBlank() : "Event description must not be blank";
-        assert !taskStartStr.isBlank() : "Event start date string must not be blank";
-        assert !taskEndStr.isBlank() : "Event end date string must not be blank";
+        return new ScheduleCommand(from, to);
+    }
 
-        LocalDateTime taskStart = parseDateTime(taskStartStr, "start date/time", LocalTime.MIDNIGHT);
-        LocalDateTime taskEnd = parseDateTime(taskEndStr, "end date/time", LocalTime.MAX);
+    /**
+     * Parses a due command from the user input.
+     * Syntax: {@code due /before <date>}, where the date also accepts the deadline shortcuts
+     * such as "tomorrow". A date without a time includes the whole day.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code DueCommand}.
+     * @throws FloraException If the date is missing or invalid.
+     */
+    private static Command parseDue(CommandLine line) throws FloraException {
+        String beforeStr = requireValue(line, "/before", "At least set a date bro");
+        return new DueCommand(parseDueDateTime(beforeStr));
+    }
 
-        if (!taskStart.isBefore(taskEnd)) {
+    /**
+     * Parses a freeslot command from the user input.
+     * Syntax: {@code freeslot /duration <length> /within <start> <end>}, where the length is written
+     * like {@code 2h}, {@code 45m} or {@code 1h30m}. The window may also be written as
+     * {@code <start> /to <end>}. A date without a time covers the whole day.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code FreeSlotCommand}.
+     * @throws FloraException If the duration or window is missing or invalid.
+     */
+    private static Command parseFreeSlot(CommandLine line) throws FloraException {
+        String durationStr = requireValue(line, "/duration", "At least set a duration bro");
+        String withinStr = requireValue(line, "/within", "At least set a time window bro");
+        String toStr = line.getValue("/to");
+
+        Duration duration = parseDuration(durationStr);
+        String[] window = toStr == null ? splitWindow(withinStr) : new String[] {withinStr, toStr};
+        if (window[1].isEmpty()) {
+            throw new FloraException("At least set a time window bro");
+        }
+        LocalDateTime from = parseDateTime(window[0], "start date/time", LocalTime.MIDNIGHT);
+        LocalDateTime to = parseDateTime(window[1], "end date/time", LocalTime.MAX);
+
+        if (!from.isBefore(to)) {
             throw new FloraException("Start time must be before end time.");
         }
 
-        return new AddEventCommand(taskDesc, taskStart, taskEnd);
+        return new FreeSlotCommand(duration, from, to);
+    }
+
+    /**
+     * Parses a list command from the user input.
+     * Syntax: {@code list [/page <number>] [/size <number>]}, where the page defaults to the first and the
+     * size to {@value ListCommand#DEFAULT_PAGE_SIZE} tasks. If an option is repeated, the last one counts.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code ListCommand}.
+     * @throws FloraException If an option is unknown or its value is not a positive number.
+     */
+    private static Command parseList(CommandLine line) throws FloraException {
+        String text = line.getText();
+        if (!text.isEmpty()) {
+            throw new FloraException("Unknown list option: " + text.split("\\s+", 2)[0]);
+        }
+        int page = 1;
+        int pageSize = ListCommand.DEFAULT_PAGE_SIZE;
+        for (int i = 0; i < line.getFlagCount(); i++) {
+            String option = line.getFlag(i);
+            String valueStr = line.getValue(i);
+            if (valueStr.isEmpty()) {
+                throw new FloraException("At least give " + option + " a number bro");
+            }
+            int value;
+            try {
+                value = Integer.parseInt(valueStr);
+            } catch (NumberFormatException e) {
+                throw new FloraException("Invalid " + option.substring(1) + ": " + valueStr);
+            }
+            if (value <= 0) {
+                throw new FloraException("Invalid " + option.substring(1) + ": " + value);
+            }
+            if (option.equals("/page")) {
+                page = value;
+            } else {
+                pageSize = value;
+            }
+        }
+        return new ListCommand(page, pageSize);
+    }
+
+    /**
+     * Parses a length of time made of whole days, hours and minutes, such as {@code 2h}, {@code 90m}
+     * or {@code 1d2h30m}.
+     *
+     * @param durationStr The duration string.
+     * @return The parsed duration.
+     * @throws FloraException If the string is not a positive duration in that form.
+     */
+    private static Duration parseDuration(String durationStr) throws FloraException {
+        Duration duration = Duration.ZERO;
+        long amount = -1;
+        for (char c : durationStr.toLowerCase().toCharArray()) {
+            if (c >= '0' && c <= '9') {
+                amount = (amount == -1 ? 0 : amount * 10) + (c - '0');
+                if (amount > 1_000_000) {
+                    throw new FloraException("Invalid duration: " + durationStr);
+                }
+                continue;
+            }
+            if (amount == -1) {
+                throw new FloraException("Invalid duration: " + durationStr);
+            }
+            duration = switch (c) {
+            case 'd' -> duration.plusDays(amount);
+            case 'h' -> duration.plusHours(amount);
+            case 'm' -> duration.plusMinutes(amount);
+            default -> throw new FloraException("Invalid duration: " + durationStr);
+            };
+            amount = -1;
+        }
+        if (amount != -1 || duration.isZero()) {
+            throw new FloraException("Invalid duration: " + durationStr);
+        }
+        return duration;
+    }
+
+    /**
+     * Splits a time window written without {@code /to} into its start and end date/time strings.
+     * A time such as {@code 9:00} is taken to belong to the date just before it.
+     *
+     * @param windowStr The window string.
+     * @return The start and end strings.
+     * @throws FloraException If the window does not have exactly a start and an end.
+     */
+    private static String[] splitWindow(String windowStr) throws FloraException {
+        List<String> parts = new ArrayList<>();
+        for (String token : windowStr.split("\\s+")) {
+            if (token.contains(":") && !parts.isEmpty()) {
+                parts.set(parts.size() - 1, parts.get(parts.size() - 1) + " " + token);
+            } else {
+                parts.add(token);
+            }
+        }
+        if (parts.size() != 2) {
+            throw new FloraException("Invalid time window: " + windowStr);
+        }
+        return parts.toArray(new String[0]);
     }
 
     /**
      * Parses a find command from the user input.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param line The split command line.
      * @return The parsed {@code FindCommand}.
      * @throws FloraException If the keyword is missing.
      */
-    private static Command parseFind(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+    private static Command parseFind(CommandLine line) throws FloraException {
+        String keyword = line.getArgument();
+        if (keyword.isBlank()) {
             throw new FloraException("Put a keyword.");
         }
-
-        String keyword = input.substring(firstSpaceIndex + 1);
-        assert !keyword.isBlank() : "Find keyword must not be blank after parsing";
         return new FindCommand(keyword);
     }
 
@@ -173,22 +367,19 @@ public class Parser {
      * Parses an edit command from the user input.
      * Syntax: {@code edit <index> [/desc <newDesc>] [/by <newDue>] [/from <newStart>] [/to <newEnd>]}
      * At least one field must be provided. Fields irrelevant to the task type are rejected at execution.
+     * The index is the first word after {@code edit}; any other words before the first field are ignored.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param line The split command line.
      * @return The parsed {@code EditCommand}.
      * @throws FloraException If the index is missing/invalid or no fields are provided.
      */
-    private static Command parseEdit(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
-            throw new FloraException("At least put an index bro");
+    private static Command parseEdit(CommandLine line) throws FloraException {
+        String text = requireText(line, "At least put an index bro");
+        int indexEnd = 0;
+        while (indexEnd < text.length() && !Character.isWhitespace(text.charAt(indexEnd))) {
+            indexEnd++;
         }
-
-        String afterCommand = input.substring(firstSpaceIndex + 1);
-        int nextSpaceIndex = afterCommand.indexOf(" ");
-
-        String indexStr = nextSpaceIndex == -1 ? afterCommand : afterCommand.substring(0, nextSpaceIndex);
-        String fields = nextSpaceIndex == -1 ? "" : afterCommand.substring(nextSpaceIndex + 1);
+        String indexStr = text.substring(0, indexEnd);
 
         int taskIndex;
         try {
@@ -201,10 +392,10 @@ public class Parser {
             throw new FloraException("Invalid task index: " + taskIndex);
         }
 
-        String newDesc = extractField(fields, "/desc");
-        String byStr = extractField(fields, "/by");
-        String fromStr = extractField(fields, "/from");
-        String toStr = extractField(fields, "/to");
+        String newDesc = getField(line, "/desc");
+        String byStr = getField(line, "/by");
+        String fromStr = getField(line, "/from");
+        String toStr = getField(line, "/to");
 
         if (newDesc == null && byStr == null && fromStr == null && toStr == null) {
             throw new FloraException("At least change something bro. "
@@ -223,39 +414,48 @@ public class Parser {
     }
 
     /**
-     * Extracts the value following a field marker (e.g., "/desc") within a string.
-     * The value spans from after the marker to the start of the next marker or end of string.
+     * Returns the value of an optional field.
      *
-     * @param input  The string to search within (the portion after the task index).
-     * @param marker The field marker to locate (e.g., "/desc", "/by").
-     * @return The trimmed value after the marker, or {@code null} if the marker is absent
-     *         or its value is blank.
+     * @param line The split command line.
+     * @param flag The field's flag (e.g., "/desc", "/by").
+     * @return The value, or {@code null} if the flag is absent or its value is blank.
      */
-    private static String extractField(String input, String marker) {
-        int markerIndex = input.indexOf(marker);
-        if (markerIndex == -1) {
-            return null;
-        }
+    private static String getField(CommandLine line, String flag) {
+        String value = line.getValue(flag);
+        return value == null || value.isEmpty() ? null : value;
+    }
 
-        int valueStart = markerIndex + marker.length();
-        if (valueStart >= input.length()) {
-            return null;
+    /**
+     * Returns the value of a required flag.
+     *
+     * @param line    The split command line.
+     * @param flag    The flag.
+     * @param message The error message if the flag is absent or its value is blank.
+     * @return The value.
+     * @throws FloraException If the flag is absent or its value is blank.
+     */
+    private static String requireValue(CommandLine line, String flag, String message) throws FloraException {
+        String value = getField(line, flag);
+        if (value == null) {
+            throw new FloraException(message);
         }
+        return value;
+    }
 
-        String[] allMarkers = {"/desc", "/by", "/from", "/to"};
-        int valueEnd = input.length();
-        for (String m : allMarkers) {
-            if (m.equals(marker)) {
-                continue;
-            }
-            int mIndex = input.indexOf(m, valueStart);
-            if (mIndex != -1 && mIndex < valueEnd) {
-                valueEnd = mIndex;
-            }
+    /**
+     * Returns the text before the first flag, which must not be blank.
+     *
+     * @param line    The split command line.
+     * @param message The error message if the text is blank.
+     * @return The text.
+     * @throws FloraException If the text is blank.
+     */
+    private static String requireText(CommandLine line, String message) throws FloraException {
+        String text = line.getText();
+        if (text.isEmpty()) {
+            throw new FloraException(message);
         }
-
-        String value = input.substring(valueStart, valueEnd).trim();
-        return value.isBlank() ? null : value;
+        return text;
     }
 
     /**
@@ -291,7 +491,8 @@ public class Parser {
 
     /**
      * Parses a date/time string into a LocalDateTime.
-     * If no time component is provided, {@code defaultTime} is used.
+     * If no time component is provided, {@code defaultTime} is used. Since a time always has a colon,
+     * the format to use is picked up front rather than by catching the first format's failure.
      *
      * @param dateStr     The date/time string to parse.
      * @param fieldName   The name of the field, used in error messages.
@@ -302,34 +503,131 @@ public class Parser {
     private static LocalDateTime parseDateTime(String dateStr, String fieldName,
             LocalTime defaultTime) throws FloraException {
         try {
-            return LocalDateTime.parse(dateStr, DATE_TIME_FMT);
+            return dateStr.indexOf(':') != -1
+                    ? LocalDateTime.parse(dateStr, DATE_TIME_FMT)
+                    : LocalDate.parse(dateStr, DATE_ONLY_FMT).atTime(defaultTime);
         } catch (DateTimeParseException e) {
-            try {
-                return LocalDate.parse(dateStr, DATE_ONLY_FMT).atTime(defaultTime);
-            } catch (DateTimeParseException e2) {
-                throw new FloraException("Invalid " + fieldName + ": " + dateStr);
+            throw new FloraException("Invalid " + fieldName + ": " + dateStr);
+        }
+    }
+
+    /**
+     * Parses a delete command from the user input.
+     * Accepts a single index, a list of indexes and ranges such as {@code 1-500,800}, or {@code done}
+     * to delete every task that is done.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code DeleteCommand} or {@code BulkDeleteCommand}.
+     * @throws FloraException If the indexes are missing or invalid.
+     */
+    private static Command parseDelete(CommandLine line) throws FloraException {
+        String argument = line.getArgument();
+        if (argument.strip().equalsIgnoreCase("done")) {
+            return new BulkDeleteCommand();
+        }
+        if (isIndexList(argument)) {
+            return new BulkDeleteCommand(parseIndexRanges(argument));
+        }
+        return new DeleteCommand(getTaskIndex(argument));
+    }
+
+    /**
+     * Parses a mark command from the user input, which accepts a single index or a list of indexes and ranges.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code MarkCommand} or {@code BulkMarkCommand}.
+     * @throws FloraException If the indexes are missing or invalid.
+     */
+    private static Command parseMark(CommandLine line) throws FloraException {
+        String argument = line.getArgument();
+        return isIndexList(argument)
+                ? new BulkMarkCommand(parseIndexRanges(argument))
+                : new MarkCommand(getTaskIndex(argument));
+    }
+
+    /**
+     * Parses an unmark command from the user input, which accepts a single index or a list of indexes and ranges.
+     *
+     * @param line The split command line.
+     * @return The parsed {@code UnmarkCommand} or {@code BulkUnmarkCommand}.
+     * @throws FloraException If the indexes are missing or invalid.
+     */
+    private static Command parseUnmark(CommandLine line) throws FloraException {
+        String argument = line.getArgument();
+        return isIndexList(argument)
+                ? new BulkUnmarkCommand(parseIndexRanges(argument))
+                : new UnmarkCommand(getTaskIndex(argument));
+    }
+
+    /**
+     * Returns whether the argument of a command is a list of indexes or ranges rather than a single index.
+     *
+     * @param argument The text after the command word.
+     * @return {@code true} if the argument contains a comma or a range dash.
+     */
+    private static boolean isIndexList(String argument) {
+        String stripped = argument.strip();
+        return stripped.indexOf(',') != -1 || stripped.indexOf('-', 1) != -1;
+    }
+
+    /**
+     * Parses a comma-separated list of 1-based indexes and inclusive ranges, such as {@code 1-500,800,900-950}.
+     *
+     * @param argument The text after the command word.
+     * @return The parsed ranges, in the order given.
+     * @throws FloraException If any index or range is invalid.
+     */
+    private static List<IndexRange> parseIndexRanges(String argument) throws FloraException {
+        List<IndexRange> ranges = new ArrayList<>();
+        for (String part : argument.split(",")) {
+            String range = part.strip();
+            int dashIndex = range.indexOf('-', 1);
+            int first = parsePositiveIndex(dashIndex == -1 ? range : range.substring(0, dashIndex).strip());
+            int last = dashIndex == -1 ? first : parsePositiveIndex(range.substring(dashIndex + 1).strip());
+            if (last < first) {
+                throw new FloraException("Invalid range: " + range);
             }
+            ranges.add(new IndexRange(first, last));
+        }
+        return ranges;
+    }
+
+    /**
+     * Parses a single 1-based task index within a list of indexes.
+     *
+     * @param indexStr The index string.
+     * @return The parsed index.
+     * @throws FloraException If the string is not a positive integer.
+     */
+    private static int parsePositiveIndex(String indexStr) throws FloraException {
+        int index;
+        try {
+            index = Integer.parseInt(indexStr);
+        } catch (NumberFormatException e) {
+            throw new FloraException("Invalid task index: " + indexStr);
+        }
+        if (index <= 0) {
+            throw new FloraException("Invalid task index: " + index);
         }
+        return index;
     }
 
     /**
      * Extracts and validates the task index from the user input.
      *
-     * @param input           The raw user input string.
-     * @param firstSpaceIndex The index of the first space in the input.
+     * @param argument The text after the command word.
      * @return The parsed task index.
      * @throws FloraException If the index is missing or not a valid integer.
      */
-    private static int getTaskIndex(String input, int firstSpaceIndex) throws FloraException {
-        if (firstSpaceIndex == -1 || firstSpaceIndex + 1 >= input.length()) {
+    private static int getTaskIndex(String argument) throws FloraException {
+        if (argument.isEmpty()) {
             throw new FloraException("At least put an index bro");
         }
 
-        String taskIndexStr = input.substring(firstSpaceIndex + 1);
         int taskIndex;
 
         try {
-            taskIndex = Integer.parseInt(taskIndexStr);
+            taskIndex = Integer.parseInt(argument);
         } catch (NumberFormatException e) {
             throw new FloraException("Invalid task index: " + e.getMessage());
         }
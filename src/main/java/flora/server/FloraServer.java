@@ -0,0 +1,190 @@
+package flora.server;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import flora.Flora;
+import flora.command.Command;
+import flora.exception.FloraException;
+
+/**
+ * Serves Flora commands to local clients over HTTP, so that several tools can share one task store.
+ * A client POSTs one command line to {@value #COMMAND_PATH} and gets Flora's response back as plain text,
+ * with status 400 if the response is an error.
+ *
+ * <p>Connections are multiplexed by the server's selector thread, so idle connections hold no thread,
+ * and requests are handled by a small pool of worker threads. Read-only commands such as {@code list}
+ * and {@code find} run directly on the workers, on the latest snapshot of the task list, so they never
+ * wait for a change. Every other command is handed to a single writer thread, which runs them one at a
+ * time in the order they arrive.
+ */
+public class FloraServer {
+    /** The path that accepts commands. */
+    public static final String COMMAND_PATH = "/command";
+    private static final int WORKER_COUNT = Math.max(4, 2 * Runtime.getRuntime().availableProcessors());
+    /** The number of connections the operating system may queue before the server accepts them. */
+    private static final int BACKLOG = 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 10;
+    private static final String ERROR_PREFIX = "Error: ";
+
+    private final Flora flora;
+    private final HttpServer server;
+    private final ExecutorService workers;
+    private final ExecutorService writer;
+
+    /**
+     * Constructs a server for the given Flora instance on an already bound HTTP server.
+     *
+     * @param flora  The Flora instance that executes commands.
+     * @param server The bound, not yet started, HTTP server.
+     */
+    private FloraServer(Flora flora, HttpServer server) {
+        this.flora = flora;
+        this.server = server;
+        this.workers = Executors.newFixedThreadPool(WORKER_COUNT, namedDaemonThreads("flora-server-"));
+        this.writer = Executors.newSingleThreadExecutor(namedDaemonThreads("flora-writer-"));
+        server.createContext(COMMAND_PATH, this::handle);
+        server.setExecutor(workers);
+    }
+
+    /**
+     * Starts serving the given Flora instance on the loopback address.
+     *
+     * @param flora The Flora instance that executes commands. It must not be used elsewhere while serving.
+     * @param port  The port to listen on, or 0 for any free port.
+     * @return The running server.
+     * @throws IOException If the port cannot be bound.
+     */
+    public static FloraServer start(Flora flora, int port) throws IOException {
+        flora.prepareForConcurrentReads();
+        InetSocketAddress address = new InetSocketAddress(InetAddress.getLoopbackAddress(), port);
+        HttpServer httpServer = HttpServer.create(address, BACKLOG);
+        FloraServer floraServer = new FloraServer(flora, httpServer);
+        httpServer.start();
+        return floraServer;
+    }
+
+    /**
+     * Returns the port the server is listening on.
+     *
+     * @return The port.
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, lets the ones in progress finish, and waits for every save to reach the disk.
+     *
+     * @return An error message if a save failed, or {@code null} if everything was saved.
+     */
+    public String stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        workers.shutdown();
+        writer.shutdown();
+        try {
+            workers.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            writer.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return flora.flushStorage();
+    }
+
+    /**
+     * Parses and executes one command line, running it on the writer thread unless it is read-only.
+     *
+     * @param input The command line.
+     * @return Flora's response message.
+     */
+    String respond(String input) {
+        Command command;
+        try {
+            command = flora.parse(input);
+        } catch (FloraException e) {
+            return ERROR_PREFIX + e.getMessage();
+        }
+        if (command.isReadOnly()) {
+            return flora.getResponse(command);
+        }
+        try {
+            return writer.submit(() -> flora.getResponse(command)).get();
+        } catch (RejectedExecutionException e) {
+            return ERROR_PREFIX + "Flora is shutting down bro";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ERROR_PREFIX + "Flora is shutting down bro";
+        } catch (ExecutionException e) {
+            return ERROR_PREFIX + e.getCause().getMessage();
+        }
+    }
+
+    /**
+     * Handles one HTTP request.
+     *
+     * @param exchange The request and its response.
+     * @throws IOException If the request cannot be read or the response cannot be sent.
+     */
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestURI().getPath().equals(COMMAND_PATH)) {
+                send(exchange, 404, "Nothing here bro. Send commands to " + COMMAND_PATH);
+                return;
+            }
+            if (!exchange.getRequestMethod().equals("POST")) {
+                exchange.getResponseHeaders().set("Allow", "POST");
+                send(exchange, 405, "Send commands with POST bro");
+                return;
+            }
+            String input = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8).strip();
+            String response = respond(input);
+            send(exchange, response.startsWith(ERROR_PREFIX) ? 400 : 200, response);
+        }
+    }
+
+    /**
+     * Sends a plain-text response.
+     *
+     * @param exchange The exchange to respond to.
+     * @param status   The HTTP status code.
+     * @param body     The response text.
+     * @throws IOException If the response cannot be sent.
+     */
+    private static void send(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "text/plain; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Returns a thread factory for numbered daemon threads.
+     *
+     * @param prefix The thread name prefix.
+     * @return The thread factory.
+     */
+    private static ThreadFactory namedDaemonThreads(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,186 @@
+package flora.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import flora.exception.FloraException;
+import flora.task.Task;
+
+/**
+ * Performs a {@link Storage}'s disk writes on a dedicated thread so commands do not wait for I/O.
+ *
+ * <p>Writes are coalesced: every journal entry submitted while the previous write was in progress
+ * goes out in a single append, and a snapshot request makes any entries queued before it redundant,
+ * so they are dropped. Submissions are written in order, and {@link #flush()} waits until everything
+ * submitted so far is on disk. While idle, the writer also forces batched journal entries once their
+ * sync interval is up, see {@link Storage#getSyncDelayNanos()}.
+ *
+ * <p>A failed write is reported by the next call to {@link #submitEntries}, {@link #submitSnapshot}
+ * or {@link #flush()}.
+ */
+class BackgroundWriter {
+    private final Storage storage;
+    private final Object lock = new Object();
+    private final Thread thread;
+
+    private Iterable<Task> pendingSnapshot = null;
+    private List<String> pendingEntries = new ArrayList<>();
+    private long submittedCount = 0;
+    private long completedCount = 0;
+    private IOException failure = null;
+    private boolean isClosed = false;
+
+    /**
+     * Constructs and starts a writer for the given storage.
+     *
+     * @param storage The storage whose writes this writer performs.
+     */
+    BackgroundWriter(Storage storage) {
+        this.storage = storage;
+        thread = new Thread(this::run, "flora-storage-writer");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Queues journal entries to be appended after everything submitted before them.
+     *
+     * @param entries The encoded journal entries.
+     * @throws FloraException If an earlier write failed.
+     */
+    void submitEntries(List<String> entries) throws FloraException {
+        synchronized (lock) {
+            throwPendingFailure();
+            pendingEntries.addAll(entries);
+            submittedCount++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Queues a full snapshot. Entries still queued are dropped, since the snapshot already contains them.
+     *
+     * @param tasks The tasks to write, which must not change afterwards.
+     * @throws FloraException If an earlier write failed.
+     */
+    void submitSnapshot(Iterable<Task> tasks) throws FloraException {
+        synchronized (lock) {
+            throwPendingFailure();
+            pendingSnapshot = tasks;
+            pendingEntries = new ArrayList<>();
+            submittedCount++;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Blocks until everything submitted before this call has been written.
+     *
+     * @throws FloraException If a write failed or the wait was interrupted.
+     */
+    void flush() throws FloraException {
+        synchronized (lock) {
+            long target = submittedCount;
+            while (completedCount < target && failure == null) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new FloraException("Interrupted while saving to storage");
+                }
+            }
+            throwPendingFailure();
+        }
+    }
+
+    /**
+     * Writes everything still queued and stops the writer thread.
+     *
+     * @throws FloraException If a write failed or the wait was interrupted.
+     */
+    void close() throws FloraException {
+        try {
+            flush();
+        } finally {
+            synchronized (lock) {
+                isClosed = true;
+                lock.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * Throws and clears the failure of an earlier write, if any. Must be called holding {@link #lock}.
+     *
+     * @throws FloraException If an earlier write failed.
+     */
+    private void throwPendingFailure() throws FloraException {
+        if (failure != null) {
+            IOException e = failure;
+            failure = null;
+            throw new FloraException("Failed saving to storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Waits for submissions and writes each batch of them until the writer is closed. When there is nothing
+     * to write, waits no longer than the storage's next batched sync is due, then forces the journal.
+     */
+    private void run() {
+        while (true) {
+            Iterable<Task> snapshot;
+            List<String> entries;
+            long batchEnd;
+            synchronized (lock) {
+                while (pendingSnapshot == null && pendingEntries.isEmpty() && !isClosed) {
+                    // After a failure, wait for the next submission to report it rather than retrying the sync
+                    long syncDelayNanos = failure == null ? storage.getSyncDelayNanos() : Storage.NO_SYNC_DUE;
+                    if (syncDelayNanos == 0) {
+                        break;
+                    }
+                    try {
+                        if (syncDelayNanos == Storage.NO_SYNC_DUE) {
+                            lock.wait();
+                        } else {
+                            TimeUnit.NANOSECONDS.timedWait(lock, syncDelayNanos);
+                        }
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (pendingSnapshot == null && pendingEntries.isEmpty() && isClosed) {
+                    return;
+                }
+                snapshot = pendingSnapshot;
+                entries = pendingEntries;
+                pendingSnapshot = null;
+                pendingEntries = new ArrayList<>();
+                batchEnd = submittedCount;
+            }
+
+            IOException error = null;
+            try {
+                if (snapshot != null) {
+                    storage.writeSnapshotNow(snapshot);
+                }
+                if (!entries.isEmpty()) {
+                    storage.appendEntriesNow(entries);
+                } else if (snapshot == null) {
+                    storage.syncNow();
+                }
+            } catch (IOException e) {
+                error = e;
+            }
+
+            synchronized (lock) {
+                if (error != null) {
+                    failure = error;
+                }
+                completedCount = batchEnd;
+                lock.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package flora.storage;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import flora.exception.FloraException;
+import flora.task.Deadline;
+import flora.task.Event;
+import flora.task.Task;
+import flora.task.Todo;
+
+/**
+ * Reads and writes task snapshots in the compact binary format.
+ *
+ * <p>A file starts with the magic bytes {@code FLRB} and a version byte, followed by one record
+ * per task: a type byte ({@code T}, {@code D} or {@code E}), a done byte, the description as a
+ * varint length and UTF-8 bytes, then any dates as zigzag varints counting minutes since the
+ * epoch. Dates are stored to the minute, the same precision as the text format.
+ */
+final class BinaryTaskCodec {
+    static final byte[] MAGIC = {'F', 'L', 'R', 'B'};
+    static final int VERSION = 1;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /** The earliest and latest minutes since the epoch that a {@link LocalDateTime} can hold. */
+    private static final long MIN_EPOCH_MINUTE = Math.floorDiv(LocalDateTime.MIN.toEpochSecond(ZoneOffset.UTC), 60);
+    private static final long MAX_EPOCH_MINUTE = Math.floorDiv(LocalDateTime.MAX.toEpochSecond(ZoneOffset.UTC), 60);
+
+    private BinaryTaskCodec() {
+    }
+
+    /**
+     * Writes the header and every task to the given stream.
+     *
+     * @param out   The stream to write to. It is flushed but not closed.
+     * @param tasks The tasks to write, in list order.
+     * @return The number of tasks written.
+     * @throws IOException If the stream cannot be written.
+     */
+    static int write(OutputStream out, Iterable<Task> tasks) throws IOException {
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+        data.write(MAGIC);
+        data.writeByte(VERSION);
+        int count = 0;
+        for (Task task : tasks) {
+            writeTask(data, task);
+            count++;
+        }
+        data.flush();
+        return count;
+    }
+
+    /**
+     * Reads the header and every task from the given stream.
+     *
+     * @param in The stream to read from. It is not closed.
+     * @return The tasks, in file order.
+     * @throws FloraException If the stream cannot be read, has the wrong header or has a corrupted record.
+     */
+    static List<Task> read(InputStream in) throws FloraException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(in, BUFFER_SIZE));
+        List<Task> tasks = new ArrayList<>();
+        try {
+            byte[] magic = new byte[MAGIC.length];
+            data.readFully(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new FloraException("Not a binary task file");
+            }
+            int version = data.readUnsignedByte();
+            if (version != VERSION) {
+                throw new FloraException("Unsupported binary task file version: " + version);
+            }
+
+            int type;
+            while ((type = data.read()) != -1) {
+                try {
+                    tasks.add(readTask(data, type));
+                } catch (EOFException e) {
+                    throw new FloraException("Truncated record " + (tasks.size() + 1));
+                } catch (FloraException e) {
+                    throw new FloraException("Corrupted record " + (tasks.size() + 1) + ": " + e.getMessage());
+                }
+            }
+        } catch (EOFException e) {
+            throw new FloraException("Truncated binary task file header");
+        } catch (IOException e) {
+            throw new FloraException("Failed loading storage: " + e.getMessage());
+        }
+        return tasks;
+    }
+
+    /**
+     * Writes a single task record.
+     *
+     * @param data The stream to write to.
+     * @param task The task to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeTask(DataOutputStream data, Task task) throws IOException {
+        if (task instanceof Deadline deadline) {
+            data.writeByte('D');
+            writeCommon(data, task);
+            writeDateTime(data, deadline.getDue());
+        } else if (task instanceof Event event) {
+            data.writeByte('E');
+            writeCommon(data, task);
+            writeDateTime(data, event.getStart());
+            writeDateTime(data, event.getEnd());
+        } else {
+            assert task instanceof Todo : "Unknown task type: " + task.getClass();
+            data.writeByte('T');
+            writeCommon(data, task);
+        }
+    }
+
+    /**
+     * Writes the done flag and description shared by every task type.
+     *
+     * @param data The stream to write to.
+     * @param task The task to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeCommon(DataOutputStream data, Task task) throws IOException {
+        data.writeByte(task.isDone() ? 1 : 0);
+        byte[] description = task.getDescription().getBytes(StandardCharsets.UTF_8);
+        writeVarLong(data, description.length);
+        data.write(description);
+    }
+
+    /**
+     * Reads the rest of a task record after its type byte.
+     *
+     * @param data The stream to read from.
+     * @param type The record's type byte.
+     * @return The decoded task.
+     * @throws IOException    If the stream cannot be read.
+     * @throws FloraException If the record is invalid.
+     */
+    private static Task readTask(DataInputStream data, int type) throws IOException, FloraException {
+        boolean isDone = data.readUnsignedByte() == 1;
+        long length = readVarLong(data);
+        if (length <= 0 || length > Integer.MAX_VALUE) {
+            throw new FloraException("Invalid description length: " + length);
+        }
+        // readNBytes grows its buffer as bytes arrive, so a corrupted length cannot allocate more than the file holds
+        byte[] bytes = data.readNBytes((int) length);
+        if (bytes.length < length) {
+            throw new FloraException("Description length " + length + " runs past the end of the file");
+        }
+        String description = new String(bytes, StandardCharsets.UTF_8);
+
+        Task task;
+        switch (type) {
+        case 'T':
+            task = new Todo(description);
+            break;
+        case 'D':
+            task = new Deadline(description, readDateTime(data));
+            break;
+        case 'E':
+            LocalDateTime start = readDateTime(data);
+            LocalDateTime end = readDateTime(data);
+            if (!start.isBefore(end)) {
+                throw new FloraException("Event start must be before end");
+            }
+            task = new Event(description, start, end);
+            break;
+        default:
+            throw new FloraException("Invalid task type: " + type);
+        }
+
+        if (isDone) {
+            task.mark();
+        }
+        return task;
+    }
+
+    /**
+     * Writes a date-time as zigzag-encoded minutes since the epoch.
+     *
+     * @param data     The stream to write to.
+     * @param dateTime The date-time to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeDateTime(DataOutputStream data, LocalDateTime dateTime) throws IOException {
+        long minutes = Math.floorDiv(dateTime.toEpochSecond(ZoneOffset.UTC), 60);
+        writeVarLong(data, (minutes << 1) ^ (minutes >> 63));
+    }
+
+    /**
+     * Reads a date-time written by {@link #writeDateTime}.
+     *
+     * @param data The stream to read from.
+     * @return The decoded date-time.
+     * @throws IOException    If the stream cannot be read.
+     * @throws FloraException If the value is outside the range of a date-time.
+     */
+    private static LocalDateTime readDateTime(DataInputStream data) throws IOException, FloraException {
+        long zigzag = readVarLong(data);
+        long minutes = (zigzag >>> 1) ^ -(zigzag & 1);
+        if (minutes < MIN_EPOCH_MINUTE || minutes > MAX_EPOCH_MINUTE) {
+            throw new FloraException("Date-time out of range: " + minutes + " minutes since the epoch");
+        }
+        return LocalDateTime.ofEpochSecond(minutes * 60, 0, ZoneOffset.UTC);
+    }
+
+    /**
+     * Writes an unsigned value seven bits at a time, least significant group first.
+     *
+     * @param data  The stream to write to.
+     * @param value The value to write.
+     * @throws IOException If the stream cannot be written.
+     */
+    private static void writeVarLong(DataOutputStream data, long value) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            data.writeByte((int) ((remaining & 0x7F) | 0x80));
+            remaining >>>= 7;
+        }
+        data.writeByte((int) remaining);
+    }
+
+    /**
+     * Reads a value written by {@link #writeVarLong}.
+     *
+     * @param data The stream to read from.
+     * @return The decoded value.
+     * @throws IOException If the stream cannot be read or the value is longer than 64 bits.
+     */
+    private static long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Malformed varint");
+    }
+}
@@ -0,0 +1,32 @@
+package flora.storage;
+
+/**
+ * How hard {@link Storage} works to make saved changes survive a crash or power loss.
+ * Snapshots are always written to a temporary file and atomically renamed into place,
+ * so the task file is never left half-written whichever level is chosen.
+ */
+public enum Durability {
+    /** Never forces writes to disk. The operating system flushes them eventually. */
+    NONE,
+    /** Forces every snapshot and every journal append to disk before the save returns. */
+    FSYNC_ON_SAVE,
+    /**
+     * Forces every snapshot to disk, but forces journal appends only once {@link Storage#SYNC_BATCH_SIZE}
+     * entries have accumulated or {@link Storage#SYNC_BATCH_INTERVAL_MILLIS} have passed since the last sync,
+     * and on {@link Storage#flush()}. With background writes, the writer thread forces entries once the
+     * interval is up even if nothing else is saved; without them, the interval is only checked on the next save.
+     */
+    FSYNC_BATCHED;
+
+    /**
+     * Returns the durability level with the given name, e.g. {@code fsync-on-save}.
+     * Names are matched case-insensitively, with dashes standing for underscores.
+     *
+     * @param name The name of the level.
+     * @return The matching level.
+     * @throws IllegalArgumentException If no level has that name.
+     */
+    public static Durability fromName(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+}
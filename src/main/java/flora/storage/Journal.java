@@ -0,0 +1,352 @@
+package flora.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import flora.exception.FloraException;
+import flora.task.Task;
+
+/**
+ * An append-only log of task list changes made since the last snapshot was written.
+ * Each entry is a single pipe-delimited line describing one change, so persisting a
+ * command costs one small append instead of a rewrite of the whole snapshot.
+ *
+ * <p>The first line of the journal records the size and CRC32 checksum of the snapshot it was started against.
+ * If a crash happens after a new snapshot is written but before the journal is cleared, the checksum no longer
+ * matches and the stale journal is discarded instead of replayed twice. The size alone is not enough, since a
+ * compacted snapshot often has the same size as the one before it.
+ */
+class Journal {
+    private static final String HEADER_PREFIX = "#base ";
+    private static final String ADD = "A";
+    private static final String MARK = "M";
+    private static final String UNMARK = "U";
+    private static final String REPLACE = "R";
+    private static final String DELETE = "D";
+
+    private final Path journalPath;
+    private int entryCount = 0;
+    private int unsyncedCount = 0;
+
+    /**
+     * Constructs a Journal backed by the given file.
+     *
+     * @param journalPath Path to the journal file.
+     */
+    Journal(Path journalPath) {
+        this.journalPath = journalPath;
+    }
+
+    /**
+     * Encodes the addition of a task to the end of the list.
+     *
+     * @param task The added task.
+     * @return The journal entry.
+     */
+    static String addEntry(Task task) {
+        return ADD + " | " + task.toFileString();
+    }
+
+    /**
+     * Encodes marking the task at the given 1-based index as done.
+     *
+     * @param index The 1-based index of the marked task.
+     * @return The journal entry.
+     */
+    static String markEntry(int index) {
+        return MARK + " | " + index;
+    }
+
+    /**
+     * Encodes marking the task at the given 1-based index as not done.
+     *
+     * @param index The 1-based index of the unmarked task.
+     * @return The journal entry.
+     */
+    static String unmarkEntry(int index) {
+        return UNMARK + " | " + index;
+    }
+
+    /**
+     * Encodes replacing the task at the given 1-based index, as done by an edit.
+     *
+     * @param index The 1-based index of the replaced task.
+     * @param task  The new task.
+     * @return The journal entry.
+     */
+    static String replaceEntry(int index, Task task) {
+        return REPLACE + " | " + index + " | " + task.toFileString();
+    }
+
+    /**
+     * Encodes removing the task at the given 1-based index.
+     *
+     * @param index The 1-based index of the removed task.
+     * @return The journal entry.
+     */
+    static String deleteEntry(int index) {
+        return DELETE + " | " + index;
+    }
+
+    /**
+     * Returns the number of entries appended since the journal was last cleared.
+     *
+     * @return The number of journal entries.
+     */
+    int size() {
+        return entryCount;
+    }
+
+    /**
+     * Appends the given entries to the journal in a single write.
+     * A header is written first if the journal is missing or empty.
+     *
+     * @param entries          The encoded entries to append.
+     * @param snapshotSize     The current size of the snapshot file, recorded in the header.
+     * @param snapshotChecksum The CRC32 checksum of the snapshot file, recorded in the header.
+     * @param shouldForce      Whether to force the appended entries to disk before returning.
+     * @return The number of bytes appended.
+     * @throws IOException If the journal cannot be written.
+     */
+    long append(List<String> entries, long snapshotSize, long snapshotChecksum, boolean shouldForce)
+            throws IOException {
+        StringBuilder sb = new StringBuilder();
+        if (!Files.exists(journalPath) || Files.size(journalPath) == 0) {
+            sb.append(header(snapshotSize, snapshotChecksum)).append('\n');
+        }
+        for (String entry : entries) {
+            sb.append(entry).append('\n');
+        }
+        ByteBuffer bytes = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+        int byteCount = bytes.remaining();
+        try (FileChannel channel = FileChannel.open(journalPath,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (bytes.hasRemaining()) {
+                channel.write(bytes);
+            }
+            if (shouldForce) {
+                channel.force(false);
+            }
+        }
+        entryCount += entries.size();
+        unsyncedCount = shouldForce ? 0 : unsyncedCount + entries.size();
+        return byteCount;
+    }
+
+    /**
+     * Returns the number of entries appended since the journal was last forced to disk.
+     *
+     * @return The number of unsynced entries.
+     */
+    int getUnsyncedCount() {
+        return unsyncedCount;
+    }
+
+    /**
+     * Forces every appended entry to disk.
+     *
+     * @throws IOException If the journal cannot be forced.
+     */
+    void sync() throws IOException {
+        if (unsyncedCount == 0 || !exists()) {
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+            channel.force(false);
+        }
+        unsyncedCount = 0;
+    }
+
+    /**
+     * Deletes the journal. Called after its entries have been folded into a new snapshot.
+     *
+     * @throws IOException If the journal file cannot be deleted.
+     */
+    void clear() throws IOException {
+        Files.deleteIfExists(journalPath);
+        entryCount = 0;
+        unsyncedCount = 0;
+    }
+
+    /**
+     * Returns whether a journal file currently exists on disk.
+     *
+     * @return {@code true} if the journal file exists.
+     */
+    boolean exists() {
+        return Files.exists(journalPath);
+    }
+
+    /**
+     * Replays every entry in the journal onto the given tasks, in the order they were appended.
+     * A trailing entry without a newline was torn by a crash mid-append. It is ignored and cut off the file,
+     * so that the next append starts on a fresh line instead of running on from the fragment.
+     *
+     * A journal whose header names a different snapshot is deleted without being replayed.
+     *
+     * @param tasks            The tasks loaded from the snapshot, modified in place.
+     * @param snapshotSize     The size of the snapshot the tasks were loaded from.
+     * @param snapshotChecksum The CRC32 checksum of the snapshot the tasks were loaded from.
+     * @throws FloraException If the journal cannot be read or contains a corrupted entry.
+     */
+    void replay(List<Task> tasks, long snapshotSize, long snapshotChecksum) throws FloraException {
+        entryCount = 0;
+        if (!exists()) {
+            return;
+        }
+
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(journalPath);
+        } catch (IOException e) {
+            throw new FloraException("Failed loading journal: " + e.getMessage());
+        }
+        // A newline byte never occurs inside a multi-byte UTF-8 character, so this is where the last full line ends
+        int completeLength = bytes.length;
+        while (completeLength > 0 && bytes[completeLength - 1] != '\n') {
+            completeLength--;
+        }
+        if (completeLength < bytes.length) {
+            truncate(completeLength);
+        }
+        String content = new String(bytes, 0, completeLength, StandardCharsets.UTF_8);
+
+        int lineStart = 0;
+        int lineNumber = 0;
+        int newline;
+        while ((newline = content.indexOf('\n', lineStart)) != -1) {
+            String line = content.substring(lineStart, newline);
+            lineStart = newline + 1;
+            lineNumber++;
+            if (lineNumber == 1) {
+                if (!line.equals(header(snapshotSize, snapshotChecksum))) {
+                    // Journal belongs to an older snapshot whose changes are already folded in
+                    discardStale();
+                    return;
+                }
+                continue;
+            }
+            try {
+                apply(tasks, line);
+                entryCount++;
+            } catch (FloraException | RuntimeException e) {
+                throw new FloraException("Corrupted journal entry on line " + lineNumber + ": "
+                        + line + " | " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Returns the header line naming the snapshot a journal was started against.
+     *
+     * @param snapshotSize     The size of the snapshot file.
+     * @param snapshotChecksum The CRC32 checksum of the snapshot file.
+     * @return The header, without its newline.
+     */
+    private static String header(long snapshotSize, long snapshotChecksum) {
+        return HEADER_PREFIX + snapshotSize + " " + Long.toHexString(snapshotChecksum);
+    }
+
+    /**
+     * Cuts a torn entry off the end of the journal. If not even the header is complete, the journal is deleted
+     * so the next append writes a new one.
+     *
+     * @param length The length in bytes of the complete lines to keep.
+     * @throws FloraException If the journal cannot be truncated.
+     */
+    private void truncate(int length) throws FloraException {
+        try {
+            if (length == 0) {
+                Files.delete(journalPath);
+                return;
+            }
+            try (FileChannel channel = FileChannel.open(journalPath, StandardOpenOption.WRITE)) {
+                channel.truncate(length);
+                channel.force(false);
+            }
+        } catch (IOException e) {
+            throw new FloraException("Failed repairing journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Deletes a journal left behind by an interrupted compaction so new entries start a fresh one.
+     *
+     * @throws FloraException If the stale journal cannot be deleted.
+     */
+    private void discardStale() throws FloraException {
+        try {
+            clear();
+        } catch (IOException e) {
+            throw new FloraException("Failed discarding stale journal: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Applies a single journal entry to the given tasks.
+     *
+     * @param tasks The tasks to modify.
+     * @param entry The encoded journal entry.
+     * @throws FloraException If the entry is malformed or refers to a missing task.
+     */
+    private static void apply(List<Task> tasks, String entry) throws FloraException {
+        int separator = entry.indexOf(" | ");
+        if (separator == -1) {
+            throw new FloraException("Missing journal operation");
+        }
+        String op = entry.substring(0, separator);
+        String rest = entry.substring(separator + 3);
+
+        switch (op) {
+        case ADD:
+            tasks.add(Storage.parseTask(rest));
+            break;
+        case MARK:
+            tasks.get(parseIndex(tasks, rest)).mark();
+            break;
+        case UNMARK:
+            tasks.get(parseIndex(tasks, rest)).unmark();
+            break;
+        case REPLACE:
+            int taskSeparator = rest.indexOf(" | ");
+            if (taskSeparator == -1) {
+                throw new FloraException("Missing task for replace entry");
+            }
+            int index = parseIndex(tasks, rest.substring(0, taskSeparator));
+            tasks.set(index, Storage.parseTask(rest.substring(taskSeparator + 3)));
+            break;
+        case DELETE:
+            tasks.remove(parseIndex(tasks, rest));
+            break;
+        default:
+            throw new FloraException("Invalid journal operation: " + op);
+        }
+    }
+
+    /**
+     * Parses a 1-based task index from a journal entry and converts it to a 0-based list index.
+     *
+     * @param tasks    The tasks the index refers to.
+     * @param indexStr The 1-based index string.
+     * @return The 0-based list index.
+     * @throws FloraException If the index is not a number or is out of bounds.
+     */
+    private static int parseIndex(List<Task> tasks, String indexStr) throws FloraException {
+        int index;
+        try {
+            index = Integer.parseInt(indexStr);
+        } catch (NumberFormatException e) {
+            throw new FloraException("Invalid task index: " + indexStr);
+        }
+        if (index < 1 || index > tasks.size()) {
+            throw new FloraException("Task index out of bounds: " + index);
+        }
+        return index - 1;
+    }
+}
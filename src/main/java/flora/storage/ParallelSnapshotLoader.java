@@ -0,0 +1,203 @@
+package flora.storage;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+
+import flora.exception.FloraException;
+import flora.task.Task;
+
+/**
+ * Loads a large snapshot file by splitting it on line boundaries into chunks and decoding
+ * the chunks concurrently on a {@link ForkJoinPool}. Tasks are reassembled in file order,
+ * so task indexes are the same as with a sequential load.
+ *
+ * <p>Each worker reads its chunk with a positional {@link FileChannel} read rather than a memory
+ * map: a mapping cannot be released deterministically on JDK 17, and an open mapping stops the
+ * snapshot from being rewritten on Windows until it is garbage collected.
+ */
+class ParallelSnapshotLoader {
+    /** Target size of each chunk in bytes. */
+    static final int CHUNK_SIZE = 4 * 1024 * 1024;
+    private static final int BOUNDARY_SCAN_SIZE = 64 * 1024;
+
+    private final Path filePath;
+    private final int chunkSize;
+
+    /**
+     * Constructs a loader for the given file.
+     *
+     * @param filePath  The snapshot file to load.
+     * @param chunkSize The target size of each chunk in bytes.
+     */
+    ParallelSnapshotLoader(Path filePath, int chunkSize) {
+        assert chunkSize > 0 : "Chunk size must be positive";
+        this.filePath = filePath;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Holds the tasks decoded from one chunk, or the first corrupted line found in it.
+     */
+    private record ChunkResult(List<Task> tasks, int lineCount, int errorLine, String error) {
+    }
+
+    /**
+     * Loads every task in the file.
+     *
+     * @return The tasks, in file order.
+     * @throws FloraException If the file cannot be read or contains a corrupted line.
+     */
+    List<Task> load() throws FloraException {
+        try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+            long[] boundaries = findChunkBoundaries(channel);
+            List<ForkJoinTask<ChunkResult>> chunks = new ArrayList<>();
+            for (int i = 0; i + 1 < boundaries.length; i++) {
+                long start = boundaries[i];
+                long end = boundaries[i + 1];
+                chunks.add(ForkJoinPool.commonPool().submit(() -> decodeChunk(channel, start, end)));
+            }
+            return assemble(chunks);
+        } catch (IOException e) {
+            throw new FloraException("Failed loading storage: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits the file into chunks of about {@link #chunkSize} bytes, moving each split point
+     * forward to just after the next newline so that no line spans two chunks.
+     *
+     * @param channel The open file.
+     * @return The chunk start offsets, followed by the file size.
+     * @throws IOException If the file cannot be read.
+     */
+    private long[] findChunkBoundaries(FileChannel channel) throws IOException {
+        long size = channel.size();
+        List<Long> boundaries = new ArrayList<>();
+        boundaries.add(0L);
+        ByteBuffer buffer = ByteBuffer.allocate(BOUNDARY_SCAN_SIZE);
+        long position = chunkSize;
+        while (position < size) {
+            long lineEnd = findNextNewline(channel, buffer, position);
+            if (lineEnd == -1 || lineEnd + 1 >= size) {
+                break;
+            }
+            boundaries.add(lineEnd + 1);
+            position = lineEnd + 1 + chunkSize;
+        }
+        boundaries.add(size);
+        return boundaries.stream().mapToLong(Long::longValue).toArray();
+    }
+
+    /**
+     * Returns the offset of the first newline at or after the given position.
+     *
+     * @param channel  The open file.
+     * @param buffer   A scratch buffer for reading.
+     * @param position The offset to start scanning from.
+     * @return The offset of the newline, or -1 if there is none.
+     * @throws IOException If the file cannot be read.
+     */
+    private static long findNextNewline(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    /**
+     * Reads and decodes the lines in {@code [start, end)}. Decoding stops at the first corrupted line.
+     *
+     * @param channel The open file.
+     * @param start   The offset of the first byte of the chunk.
+     * @param end     The offset just past the last byte of the chunk.
+     * @return The decoded tasks and line count, or the first error.
+     * @throws IOException If the chunk cannot be read.
+     */
+    private static ChunkResult decodeChunk(FileChannel channel, long start, long end) throws IOException {
+        byte[] bytes = new byte[(int) (end - start)];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                throw new IOException("Unexpected end of file");
+            }
+        }
+
+        List<Task> tasks = new ArrayList<>();
+        int lineCount = 0;
+        int lineStart = 0;
+        while (lineStart < bytes.length) {
+            int lineEnd = lineStart;
+            while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                lineEnd++;
+            }
+            int contentEnd = lineEnd > lineStart && bytes[lineEnd - 1] == '\r' ? lineEnd - 1 : lineEnd;
+            String line = new String(bytes, lineStart, contentEnd - lineStart, StandardCharsets.UTF_8);
+            lineCount++;
+            try {
+                tasks.add(Storage.parseTask(line));
+            } catch (FloraException | RuntimeException e) {
+                return new ChunkResult(tasks, lineCount, lineCount, line + " | " + e.getMessage());
+            }
+            lineStart = lineEnd + 1;
+        }
+        return new ChunkResult(tasks, lineCount, -1, null);
+    }
+
+    /**
+     * Waits for every chunk and concatenates their tasks in order.
+     * If any chunk has a corrupted line, the earliest one is reported with its line number in the file.
+     *
+     * @param chunks The submitted chunk decodes, in file order.
+     * @return All decoded tasks, in file order.
+     * @throws FloraException If a chunk failed to decode.
+     */
+    private static List<Task> assemble(List<ForkJoinTask<ChunkResult>> chunks) throws FloraException {
+        List<ChunkResult> results = new ArrayList<>();
+        try {
+            for (ForkJoinTask<ChunkResult> chunk : chunks) {
+                results.add(chunk.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new FloraException("Interrupted while loading storage");
+        } catch (ExecutionException e) {
+            throw new FloraException("Failed loading storage: " + e.getCause().getMessage());
+        }
+
+        int totalTasks = 0;
+        int linesBefore = 0;
+        for (ChunkResult result : results) {
+            if (result.error() != null) {
+                throw new FloraException("Skipped corrupted line " + (linesBefore + result.errorLine())
+                        + ": " + result.error());
+            }
+            totalTasks += result.tasks().size();
+            linesBefore += result.lineCount();
+        }
+
+        List<Task> tasks = new ArrayList<>(totalTasks);
+        for (ChunkResult result : results) {
+            tasks.addAll(result.tasks());
+        }
+        return tasks;
+    }
+}
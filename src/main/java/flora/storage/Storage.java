@@ -1,46 +1,96 @@
 package flora.storage;
 
 import java.io.BufferedReader;
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
-import java.time.LocalDate;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.time.format.DateTimeParseException;
-import java.time.format.ResolverStyle;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
 
 import flora.exception.FloraException;
-import flora.task.Deadline;
-import flora.task.Event;
+import flora.metrics.StorageLoadEvent;
+import flora.metrics.StorageSaveEvent;
 import flora.task.Task;
 import flora.task.TaskList;
-import flora.task.Todo;
 
 /**
  * Handles loading and saving tasks to a file on disk.
+ * The snapshot is stored in the text or binary {@link StorageFormat}. Individual changes are appended
+ * to a journal next to the task file and folded back into a full snapshot once the journal grows past
+ * {@link #COMPACTION_THRESHOLD} entries.
  */
 public class Storage {
-    private static final DateTimeFormatter DATE_TIME_FILE_FMT =
-            DateTimeFormatter.ofPattern("dd/MM/uuuu HH:mm").withResolverStyle(ResolverStyle.STRICT);
-    private static final DateTimeFormatter DATE_ONLY_FILE_FMT =
-            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+    /** Number of journal entries after which the journal is compacted into a new snapshot. */
+    public static final int COMPACTION_THRESHOLD = 1000;
+    /** Snapshot size in bytes from which {@link #load()} decodes the file in parallel. */
+    public static final long PARALLEL_LOAD_THRESHOLD = 16L * 1024 * 1024;
+    /** With {@link Durability#FSYNC_BATCHED}, the journal is forced once this many entries are unsynced. */
+    public static final int SYNC_BATCH_SIZE = 100;
+    /** With {@link Durability#FSYNC_BATCHED}, the journal is forced once this long has passed since the last sync. */
+    public static final long SYNC_BATCH_INTERVAL_MILLIS = 1000;
+    /** Returned by {@link #getSyncDelayNanos()} when no journal entries are waiting to be forced. */
+    static final long NO_SYNC_DUE = Long.MAX_VALUE;
+
+    /** Marks {@link #snapshotChecksum} as not worked out yet; real checksums never exceed 32 bits. */
+    private static final long UNKNOWN_CHECKSUM = -1;
+    private static final int CHECKSUM_BUFFER_SIZE = 64 * 1024;
+
     private final Path filePath;
+    private final StorageFormat format;
+    private final Journal journal;
+    private BackgroundWriter backgroundWriter = null;
+    private volatile Durability durability = Durability.FSYNC_BATCHED;
+    private long lastSyncNanos = System.nanoTime();
+    /** Whether the journal file was created since the directory was last forced, so its entry may not be on disk. */
+    private boolean isJournalEntryUnsynced = false;
+    /** CRC32 of the snapshot file, which the journal header records. Kept from the last write or read lazily. */
+    private long snapshotChecksum = UNKNOWN_CHECKSUM;
+    /** Number of entries journaled since the last snapshot, counted when they are submitted. */
+    private int journalEntryCount = 0;
+    /** Whether a background write failed, so the next change must be saved as a full snapshot. */
+    private boolean isSnapshotStale = false;
+    /** Whether changes are being held back until {@link #endBatch(TaskList)}. */
+    private boolean isBatching = false;
+    private boolean hasBatchedChanges = false;
+    /** Total time spent saving and flushing, so callers can tell it apart from the rest of a command. */
+    private long persistNanos = 0;
 
     /**
      * Constructs a Storage instance with the specified file path.
+     * The snapshot format is chosen from the file extension, see {@link StorageFormat#fromPath(String)}.
      *
      * @param filePath Path to the file used for persisting tasks.
      */
     public Storage(String filePath) {
+        this(filePath, StorageFormat.fromPath(filePath));
+    }
+
+    /**
+     * Constructs a Storage instance with the specified file path and snapshot format.
+     *
+     * @param filePath Path to the file used for persisting tasks.
+     * @param format   The format of the snapshot file.
+     */
+    public Storage(String filePath, StorageFormat format) {
         assert filePath != null && !filePath.isBlank() : "Storage file path must not be null or blank";
+        assert format != null : "Storage format must not be null";
         this.filePath = Paths.get(filePath);
+        this.format = format;
+        this.journal = new Journal(Paths.get(filePath + ".journal"));
     }
 
     /**
@@ -48,90 +98,108 @@ public class Storage {
      *
      * @param line A pipe-delimited line from the storage file.
      * @return The parsed Task.
-     * @throws FloraException If the line contains an invalid task type.
+     * @throws FloraException If the line is malformed or contains an invalid task type or date.
      */
     public static Task parseTask(String line) throws FloraException {
         assert line != null : "Storage line must not be null";
-        String[] parts = line.split(" \\| ");
-        assert parts.length >= 3 : "Storage line must have at least 3 pipe-delimited fields";
-        String type = parts[0];
-        boolean isDone = parts[1].equals("1");
-        String description = parts[2];
-
-        Task task;
-
-        switch (type) {
-        case "T":
-            task = new Todo(description);
-            break;
-        case "D":
-            if (parts.length < 4) {
-                throw new FloraException("Missing due date for deadline task");
-            }
-            String dueStr = parts[3];
-            LocalDateTime due = parseFileDateTime(dueStr);
-            task = new Deadline(description, due);
-            break;
-        case "E":
-            if (parts.length < 5) {
-                throw new FloraException("Missing start or end date for event task");
-            }
-            String startStr = parts[3];
-            String endStr = parts[4];
-            LocalDateTime start = parseFileDateTime(startStr);
-            LocalDateTime end = parseFileDateTime(endStr);
-            task = new Event(description, start, end);
-            break;
-        default:
-            throw new FloraException("Invalid task type: " + type);
-        }
+        return TaskLineDecoder.decode(line);
+    }
 
-        if (isDone) {
-            task.mark();
+    /**
+     * Loads all tasks from the storage file, then replays any journaled changes on top of them.
+     *
+     * @return A list of tasks read from the file.
+     * @throws FloraException If the file cannot be read or contains corrupted data.
+     */
+    public List<Task> load() throws FloraException {
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        flush();
+        if (!Files.exists(filePath) && journal.exists()) {
+            List<Task> tasks = new ArrayList<>();
+            replayJournal(tasks, 0, event);
+            return tasks;
         }
 
-        return task;
+        long snapshotSize = getSnapshotSize();
+        List<Task> tasks = format == StorageFormat.TEXT && snapshotSize >= PARALLEL_LOAD_THRESHOLD
+                ? new ParallelSnapshotLoader(filePath, ParallelSnapshotLoader.CHUNK_SIZE).load()
+                : loadSnapshot();
+        replayJournal(tasks, snapshotSize, event);
+        return tasks;
+    }
+
+    /**
+     * Loads all tasks like {@link #load()}, but always decodes a text snapshot in parallel chunks
+     * of the given size regardless of the file size. Binary snapshots are loaded sequentially.
+     *
+     * @param chunkSize The target size of each chunk in bytes.
+     * @return A list of tasks read from the file.
+     * @throws FloraException If the file cannot be read or contains corrupted data.
+     */
+    public List<Task> loadParallel(int chunkSize) throws FloraException {
+        StorageLoadEvent event = new StorageLoadEvent();
+        event.begin();
+        flush();
+        List<Task> tasks = format == StorageFormat.TEXT
+                ? new ParallelSnapshotLoader(filePath, chunkSize).load()
+                : loadSnapshot();
+        replayJournal(tasks, getSnapshotSize(), event);
+        return tasks;
     }
 
     /**
-     * Parses a date/time string from the storage file into a LocalDateTime.
-     * Accepts both "dd/MM/uuuu HH:mm" (with time) and "dd/MM/uuuu" (date-only, defaults to midnight).
+     * Replays the journal on top of the tasks loaded from the snapshot, then commits the load event.
      *
-     * @param dateStr The date/time string from the file.
-     * @return The parsed LocalDateTime.
-     * @throws FloraException If the string cannot be parsed or represents a non-existent date.
+     * @param tasks        The tasks loaded from the snapshot.
+     * @param snapshotSize The size of the snapshot file in bytes.
+     * @param event        The load event, begun before the snapshot was read.
+     * @throws FloraException If the journal cannot be read or is corrupted.
      */
-    private static LocalDateTime parseFileDateTime(String dateStr) throws FloraException {
+    private void replayJournal(List<Task> tasks, long snapshotSize, StorageLoadEvent event) throws FloraException {
+        int snapshotTaskCount = tasks.size();
+        long checksum;
         try {
-            return LocalDateTime.parse(dateStr, DATE_TIME_FILE_FMT);
-        } catch (DateTimeParseException e) {
-            try {
-                return LocalDate.parse(dateStr, DATE_ONLY_FILE_FMT).atTime(LocalTime.MIDNIGHT);
-            } catch (DateTimeParseException e2) {
-                throw new FloraException("Invalid date/time in storage: " + dateStr);
-            }
+            // Only a journal needs the checksum, so a plain load never reads the snapshot twice
+            checksum = journal.exists() ? getSnapshotChecksum() : 0;
+        } catch (IOException e) {
+            throw new FloraException("Failed reading storage: " + e.getMessage());
         }
+        journal.replay(tasks, snapshotSize, checksum);
+        journalEntryCount = journal.size();
+        event.commit(filePath.toString(), format.name(), snapshotSize, snapshotTaskCount, journalEntryCount);
     }
 
     /**
-     * Loads all tasks from the storage file.
+     * Loads the tasks in the snapshot file, without applying the journal.
      *
      * @return A list of tasks read from the file.
      * @throws FloraException If the file cannot be read or contains corrupted data.
      */
-    public List<Task> load() throws FloraException {
+    private List<Task> loadSnapshot() throws FloraException {
+        if (format == StorageFormat.BINARY) {
+            try (InputStream in = Files.newInputStream(filePath)) {
+                return BinaryTaskCodec.read(in);
+            } catch (IOException e) {
+                throw new FloraException("Failed loading storage: " + e.getMessage());
+            }
+        }
+
         List<Task> tasks = new ArrayList<>();
 
         try (BufferedReader reader = Files.newBufferedReader(filePath)) {
             String line;
+            int lineNumber = 0;
             while ((line = reader.readLine()) != null) {
+                lineNumber++;
                 try {
                     Task task = parseTask(line);
                     if (task != null) {
                         tasks.add(task);
                     }
                 } catch (FloraException e) {
-                    throw new FloraException("Skipped corrupted line: " + line + " | " + e.getMessage());
+                    throw new FloraException("Skipped corrupted line " + lineNumber + ": " + line
+                            + " | " + e.getMessage());
                 }
             }
         } catch (IOException e) {
@@ -142,21 +210,487 @@ public class Storage {
     }
 
     /**
-     * Saves all tasks in the given task list to the storage file.
+     * Saves all tasks in the given task list to the storage file as a new snapshot
+     * and clears the journal, whose changes are now part of the snapshot.
+     * With background writes enabled, this only takes a snapshot of the list, which shares the list's
+     * storage rather than copying it, and returns.
      *
      * @param tasks The task list to save.
      * @throws FloraException If the file cannot be written to.
      */
     public void save(TaskList tasks) throws FloraException {
         assert tasks != null : "TaskList to save must not be null";
+        long start = System.nanoTime();
+        journalEntryCount = 0;
+        try {
+            if (backgroundWriter != null) {
+                TaskList snapshot = tasks.snapshot();
+                submit(() -> backgroundWriter.submitSnapshot(snapshot));
+                return;
+            }
+            writeSnapshotNow(tasks);
+        } catch (IOException e) {
+            throw new FloraException("Failed saving to storage: " + e.getMessage());
+        } finally {
+            persistNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the given tasks to disk and clears the journal.
+     *
+     * @param tasks The tasks to write.
+     * @throws IOException If the snapshot cannot be written.
+     */
+    synchronized void writeSnapshotNow(Iterable<Task> tasks) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        Path directory = filePath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path tempPath = Files.createTempFile(directory, filePath.getFileName().toString(), ".tmp");
+        CRC32 checksum = new CRC32();
+        long bytes;
+        int taskCount;
+        try {
+            try (FileChannel channel = FileChannel.open(tempPath, StandardOpenOption.WRITE)) {
+                taskCount = writeSnapshot(new CheckedOutputStream(Channels.newOutputStream(channel), checksum), tasks);
+                bytes = channel.size();
+                if (durability != Durability.NONE) {
+                    channel.force(true);
+                }
+            }
+            moveIntoPlace(tempPath);
+            snapshotChecksum = checksum.getValue();
+        } finally {
+            Files.deleteIfExists(tempPath);
+        }
+        if (durability != Durability.NONE) {
+            syncDirectory(directory);
+        }
+        journal.clear();
+        isJournalEntryUnsynced = false;
+        lastSyncNanos = System.nanoTime();
+        event.commit(StorageSaveEvent.SNAPSHOT, bytes, taskCount, durability != Durability.NONE);
+    }
+
+    /**
+     * Replaces the snapshot file with the fully written temporary file, atomically where the
+     * file system supports it, so a crash leaves either the old or the new snapshot in place.
+     *
+     * @param tempPath The temporary file holding the new snapshot.
+     * @throws IOException If the file cannot be moved.
+     */
+    private void moveIntoPlace(Path tempPath) throws IOException {
+        try {
+            Files.move(tempPath, filePath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(tempPath, filePath, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Forces a directory's entries to disk so a rename inside it survives a crash.
+     * Not every platform can open a directory for syncing, in which case this does nothing.
+     *
+     * @param directory The directory to sync.
+     */
+    private static void syncDirectory(Path directory) {
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Directories cannot be opened as channels on some platforms, e.g. Windows
+        }
+    }
+
+    /**
+     * Appends the given entries to the journal on disk. If this creates the journal file, the directory
+     * is forced along with the journal, so that the new file itself survives a crash.
+     *
+     * @param entries The encoded journal entries.
+     * @throws IOException If the journal cannot be written.
+     */
+    synchronized void appendEntriesNow(List<String> entries) throws IOException {
+        StorageSaveEvent event = new StorageSaveEvent();
+        event.begin();
+        Path directory = filePath.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        long snapshotSize = Files.exists(filePath) ? Files.size(filePath) : 0;
+        boolean shouldForce = switch (durability) {
+        case NONE -> false;
+        case FSYNC_ON_SAVE -> true;
+        case FSYNC_BATCHED -> journal.getUnsyncedCount() + entries.size() >= SYNC_BATCH_SIZE
+                || System.nanoTime() - lastSyncNanos >= SYNC_BATCH_INTERVAL_MILLIS * 1_000_000;
+        };
+        if (!journal.exists() && durability != Durability.NONE) {
+            isJournalEntryUnsynced = true;
+        }
+        long bytes = journal.append(entries, snapshotSize, getSnapshotChecksum(), shouldForce);
+        if (shouldForce) {
+            syncJournalEntry(directory);
+            lastSyncNanos = System.nanoTime();
+        }
+        event.commit(StorageSaveEvent.JOURNAL, bytes, entries.size(), shouldForce);
+    }
+
+    /**
+     * Forces the directory if the journal file was created since it was last forced.
+     *
+     * @param directory The directory holding the journal.
+     */
+    private void syncJournalEntry(Path directory) {
+        if (isJournalEntryUnsynced) {
+            syncDirectory(directory);
+            isJournalEntryUnsynced = false;
+        }
+    }
+
+    /**
+     * Returns the CRC32 checksum of the snapshot file, reading the file the first time it is needed.
+     *
+     * @return The checksum, or 0 if there is no snapshot file.
+     * @throws IOException If the snapshot file cannot be read.
+     */
+    private synchronized long getSnapshotChecksum() throws IOException {
+        if (snapshotChecksum != UNKNOWN_CHECKSUM) {
+            return snapshotChecksum;
+        }
+        CRC32 checksum = new CRC32();
+        if (Files.exists(filePath)) {
+            try (FileChannel channel = FileChannel.open(filePath, StandardOpenOption.READ)) {
+                ByteBuffer buffer = ByteBuffer.allocate(CHECKSUM_BUFFER_SIZE);
+                while (channel.read(buffer) != -1) {
+                    buffer.flip();
+                    checksum.update(buffer);
+                    buffer.clear();
+                }
+            }
+        }
+        snapshotChecksum = checksum.getValue();
+        return snapshotChecksum;
+    }
+
+    /**
+     * Forces any journal entries not yet synced to disk, when using {@link Durability#FSYNC_BATCHED}.
+     *
+     * @throws IOException If the journal cannot be forced.
+     */
+    synchronized void syncNow() throws IOException {
+        if (durability == Durability.FSYNC_BATCHED) {
+            StorageSaveEvent event = new StorageSaveEvent();
+            event.begin();
+            int unsyncedCount = journal.getUnsyncedCount();
+            journal.sync();
+            syncJournalEntry(filePath.toAbsolutePath().getParent());
+            lastSyncNanos = System.nanoTime();
+            if (unsyncedCount > 0) {
+                event.commit(StorageSaveEvent.SYNC, 0, unsyncedCount, true);
+            }
+        }
+    }
+
+    /**
+     * Returns how long until journal entries waiting to be forced are due for {@link #syncNow()},
+     * when using {@link Durability#FSYNC_BATCHED}. Lets the background writer sync a burst of
+     * entries on time even if nothing is appended after it.
+     *
+     * @return The delay in nanoseconds, 0 if a sync is overdue, or {@link #NO_SYNC_DUE} if none is waiting.
+     */
+    synchronized long getSyncDelayNanos() {
+        if (durability != Durability.FSYNC_BATCHED || journal.getUnsyncedCount() == 0) {
+            return NO_SYNC_DUE;
+        }
+        long dueNanos = lastSyncNanos + SYNC_BATCH_INTERVAL_MILLIS * 1_000_000;
+        return Math.max(0, dueNanos - System.nanoTime());
+    }
+
+    /**
+     * Sets how hard saves work to reach the disk. The default is {@link Durability#FSYNC_BATCHED}.
+     *
+     * @param durability The durability level.
+     */
+    public void setDurability(Durability durability) {
+        assert durability != null : "Durability must not be null";
+        this.durability = durability;
+    }
+
+    /**
+     * Moves all further disk writes onto a background thread, so that saving no longer blocks
+     * the caller. Use {@link #flush()} to wait for queued writes to reach the disk.
+     */
+    public void enableBackgroundWrites() {
+        if (backgroundWriter == null) {
+            backgroundWriter = new BackgroundWriter(this);
+        }
+    }
+
+    /**
+     * Blocks until every change saved so far has been written to disk, and forces any
+     * batched journal entries to disk when using {@link Durability#FSYNC_BATCHED}.
+     *
+     * @throws FloraException If a queued write failed.
+     */
+    public void flush() throws FloraException {
+        long start = System.nanoTime();
+        try {
+            if (backgroundWriter != null) {
+                submit(backgroundWriter::flush);
+            }
+            syncNow();
+        } catch (IOException e) {
+            throw new FloraException("Failed saving to storage: " + e.getMessage());
+        } finally {
+            persistNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the total time this storage has spent saving and flushing changes. Like the rest of this
+     * class, it is only meant to be read by the thread that makes changes.
+     *
+     * @return The time in nanoseconds.
+     */
+    public long getPersistNanos() {
+        return persistNanos;
+    }
+
+    /**
+     * Starts holding back changes: until {@link #endBatch(TaskList)} is called, the {@code save...}
+     * methods for individual changes only note that something changed. This lets a long run of
+     * commands be persisted with one snapshot instead of one journal entry each.
+     */
+    public void beginBatch() {
+        isBatching = true;
+    }
+
+    /**
+     * Stops holding back changes and, if any change was held back since {@link #beginBatch()},
+     * saves the given task list as a single snapshot.
+     *
+     * @param tasks The task list after every change in the batch.
+     * @throws FloraException If the snapshot cannot be written.
+     */
+    public void endBatch(TaskList tasks) throws FloraException {
+        isBatching = false;
+        if (hasBatchedChanges) {
+            hasBatchedChanges = false;
+            save(tasks);
+        }
+    }
+
+    /**
+     * Runs a background writer operation. If it reports that an earlier write failed, the journal
+     * may be missing entries, so the next change is saved as a full snapshot instead.
+     *
+     * @param operation The operation to run.
+     * @throws FloraException If an earlier write failed.
+     */
+    private void submit(WriterOperation operation) throws FloraException {
+        try {
+            operation.run();
+        } catch (FloraException e) {
+            isSnapshotStale = true;
+            throw e;
+        }
+    }
+
+    /**
+     * A background writer call that may report an earlier failed write.
+     */
+    @FunctionalInterface
+    private interface WriterOperation {
+        /**
+         * Runs the operation.
+         *
+         * @throws FloraException If an earlier write failed.
+         */
+        void run() throws FloraException;
+    }
+
+    /**
+     * Writes every task to the given stream in this storage's snapshot format.
+     *
+     * @param out   The stream to write to. It is flushed but not closed.
+     * @param tasks The tasks to write.
+     * @return The number of tasks written.
+     * @throws IOException If the stream cannot be written.
+     */
+    private int writeSnapshot(OutputStream out, Iterable<Task> tasks) throws IOException {
+        if (format == StorageFormat.BINARY) {
+            return BinaryTaskCodec.write(out, tasks);
+        }
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        int count = 0;
+        for (Task task : tasks) {
+            writer.write(task.toFileString());
+            writer.newLine();
+            count++;
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Persists a task that was just appended to the end of the task list.
+     *
+     * @param tasks The task list after the addition.
+     * @param task  The added task.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveAdded(TaskList tasks, Task task) throws FloraException {
+        appendToJournal(tasks, Journal.addEntry(task));
+    }
+
+    /**
+     * Persists marking the task at the given 1-based index as done.
+     *
+     * @param tasks The task list after the change.
+     * @param index The 1-based index of the marked task.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveMarked(TaskList tasks, int index) throws FloraException {
+        appendToJournal(tasks, Journal.markEntry(index));
+    }
+
+    /**
+     * Persists marking the task at the given 1-based index as not done.
+     *
+     * @param tasks The task list after the change.
+     * @param index The 1-based index of the unmarked task.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveUnmarked(TaskList tasks, int index) throws FloraException {
+        appendToJournal(tasks, Journal.unmarkEntry(index));
+    }
+
+    /**
+     * Persists replacing the task at the given 1-based index with an edited task.
+     *
+     * @param tasks The task list after the change.
+     * @param index The 1-based index of the edited task.
+     * @param task  The edited task now at that index.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveEdited(TaskList tasks, int index, Task task) throws FloraException {
+        appendToJournal(tasks, Journal.replaceEntry(index, task));
+    }
+
+    /**
+     * Persists removing the task that was at the given 1-based index.
+     *
+     * @param tasks The task list after the removal.
+     * @param index The 1-based index the removed task had.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveDeleted(TaskList tasks, int index) throws FloraException {
+        appendToJournal(tasks, Journal.deleteEntry(index));
+    }
+
+    /**
+     * Persists marking the tasks at the given 1-based indexes as done, in one write.
+     *
+     * @param tasks   The task list after the change.
+     * @param indexes The 1-based indexes of the marked tasks.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveMarkedAll(TaskList tasks, int[] indexes) throws FloraException {
+        List<String> entries = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            entries.add(Journal.markEntry(index));
+        }
+        appendAllToJournal(tasks, entries);
+    }
+
+    /**
+     * Persists marking the tasks at the given 1-based indexes as not done, in one write.
+     *
+     * @param tasks   The task list after the change.
+     * @param indexes The 1-based indexes of the unmarked tasks.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveUnmarkedAll(TaskList tasks, int[] indexes) throws FloraException {
+        List<String> entries = new ArrayList<>(indexes.length);
+        for (int index : indexes) {
+            entries.add(Journal.unmarkEntry(index));
+        }
+        appendAllToJournal(tasks, entries);
+    }
+
+    /**
+     * Persists removing the tasks that were at the given 1-based indexes, in one write.
+     *
+     * @param tasks         The task list after the removal.
+     * @param sortedIndexes The 1-based indexes the removed tasks had, in ascending order.
+     * @throws FloraException If the change cannot be written.
+     */
+    public void saveDeletedAll(TaskList tasks, int[] sortedIndexes) throws FloraException {
+        List<String> entries = new ArrayList<>(sortedIndexes.length);
+        // Deleting from the back first keeps every journaled index valid when the entries are replayed
+        for (int i = sortedIndexes.length - 1; i >= 0; i--) {
+            entries.add(Journal.deleteEntry(sortedIndexes[i]));
+        }
+        appendAllToJournal(tasks, entries);
+    }
+
+    /**
+     * Appends a change to the journal. See {@link #appendAllToJournal(TaskList, List)}.
+     *
+     * @param tasks The task list after the change, used if compaction is due.
+     * @param entry The encoded journal entry.
+     * @throws FloraException If the journal or snapshot cannot be written.
+     */
+    private void appendToJournal(TaskList tasks, String entry) throws FloraException {
+        appendAllToJournal(tasks, List.of(entry));
+    }
+
+    /**
+     * Appends the entries for one change to the journal in a single write, or saves a new snapshot
+     * instead if they would take the journal past {@link #COMPACTION_THRESHOLD} entries.
+     * During a batch, the change is only noted.
+     *
+     * @param tasks   The task list after the change, used if compaction is due.
+     * @param entries The encoded journal entries.
+     * @throws FloraException If the journal or snapshot cannot be written.
+     */
+    private void appendAllToJournal(TaskList tasks, List<String> entries) throws FloraException {
+        assert tasks != null : "TaskList to save must not be null";
+        if (entries.isEmpty()) {
+            return;
+        }
+        if (isBatching) {
+            hasBatchedChanges = true;
+            return;
+        }
+        if (isSnapshotStale || journalEntryCount + entries.size() > COMPACTION_THRESHOLD) {
+            isSnapshotStale = false;
+            save(tasks);
+            return;
+        }
+        long start = System.nanoTime();
+        journalEntryCount += entries.size();
         try {
-            Files.createDirectories(filePath.getParent());
-            List<String> lines = tasks.stream()
-                    .map(Task::toFileString)
-                    .collect(Collectors.toList());
-            Files.write(filePath, lines, StandardCharsets.UTF_8);
+            if (backgroundWriter != null) {
+                submit(() -> backgroundWriter.submitEntries(entries));
+                return;
+            }
+            appendEntriesNow(entries);
         } catch (IOException e) {
             throw new FloraException("Failed saving to storage: " + e.getMessage());
+        } finally {
+            persistNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Returns the size in bytes of the snapshot file, or 0 if it does not exist yet.
+     *
+     * @return The snapshot file size.
+     * @throws FloraException If the file size cannot be read.
+     */
+    private long getSnapshotSize() throws FloraException {
+        try {
+            return Files.exists(filePath) ? Files.size(filePath) : 0;
+        } catch (IOException e) {
+            throw new FloraException("Failed reading storage: " + e.getMessage());
         }
     }
 }
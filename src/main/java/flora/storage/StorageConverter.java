@@ -0,0 +1,48 @@
+package flora.storage;
+
+import java.util.List;
+
+import flora.exception.FloraException;
+import flora.task.Task;
+import flora.task.TaskList;
+
+/**
+ * Converts a task file between the text and binary storage formats.
+ * Each file's format is chosen from its extension, see {@link StorageFormat#fromPath(String)}.
+ */
+public class StorageConverter {
+    /**
+     * Loads every task from the source file, including any journaled changes,
+     * and writes them to the target file as a fresh snapshot.
+     *
+     * @param sourcePath The file to convert from.
+     * @param targetPath The file to convert to.
+     * @return The number of tasks converted.
+     * @throws FloraException If the source cannot be loaded or the target cannot be written.
+     */
+    public static int convert(String sourcePath, String targetPath) throws FloraException {
+        List<Task> tasks = new Storage(sourcePath).load();
+        new Storage(targetPath).save(new TaskList(tasks));
+        return tasks.size();
+    }
+
+    /**
+     * Converts a task file.
+     * Usage: {@code StorageConverter <source path> <target path>}, e.g.
+     * {@code StorageConverter data/tasks.txt data/tasks.bin}.
+     *
+     * @param args The source and target paths.
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: StorageConverter <source path> <target path>");
+            return;
+        }
+        try {
+            int count = convert(args[0], args[1]);
+            System.out.println("Converted " + count + " tasks from " + args[0] + " to " + args[1]);
+        } catch (FloraException e) {
+            System.err.println("Error: " + e.getMessage());
+        }
+    }
+}
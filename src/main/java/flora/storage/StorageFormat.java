@@ -0,0 +1,25 @@
+package flora.storage;
+
+/**
+ * The on-disk encodings a task snapshot can be stored in.
+ */
+public enum StorageFormat {
+    /** Pipe-delimited lines, as written by {@code Task.toFileString()}. */
+    TEXT,
+    /** Compact binary records with a versioned header, see {@link BinaryTaskCodec}. */
+    BINARY;
+
+    /** File extension that selects the binary format. */
+    public static final String BINARY_EXTENSION = ".bin";
+
+    /**
+     * Returns the format implied by a file's extension: binary for {@value #BINARY_EXTENSION}
+     * files and text for everything else.
+     *
+     * @param filePath The path of the snapshot file.
+     * @return The format for that file.
+     */
+    public static StorageFormat fromPath(String filePath) {
+        return filePath.endsWith(BINARY_EXTENSION) ? BINARY : TEXT;
+    }
+}
@@ -0,0 +1,222 @@
+package flora.storage;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.format.ResolverStyle;
+
+import flora.exception.FloraException;
+import flora.task.Deadline;
+import flora.task.Event;
+import flora.task.Task;
+import flora.task.Todo;
+
+/**
+ * Decodes pipe-delimited storage lines into tasks.
+ * Fields are located by scanning for the {@code " | "} separator and dates in the fixed-width
+ * {@code dd/MM/uuuu[ HH:mm]} layout written by {@link Task#toFileString()} are parsed digit by digit,
+ * so decoding a well-formed line needs neither regular expressions nor exceptions.
+ * Dates in any other layout fall back to the strict formatters.
+ */
+final class TaskLineDecoder {
+    private static final String SEPARATOR = " | ";
+    private static final int MAX_FIELDS = 5;
+    private static final int DATE_ONLY_LENGTH = 10;
+    private static final int DATE_TIME_LENGTH = 16;
+    private static final DateTimeFormatter DATE_TIME_FILE_FMT =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu HH:mm").withResolverStyle(ResolverStyle.STRICT);
+    private static final DateTimeFormatter DATE_ONLY_FILE_FMT =
+            DateTimeFormatter.ofPattern("dd/MM/uuuu").withResolverStyle(ResolverStyle.STRICT);
+
+    private TaskLineDecoder() {
+    }
+
+    /**
+     * Decodes a single line from the storage file into a Task object.
+     *
+     * @param line A pipe-delimited line from the storage file.
+     * @return The decoded Task.
+     * @throws FloraException If the line is malformed or contains an invalid task type or date.
+     */
+    static Task decode(String line) throws FloraException {
+        int[] starts = new int[MAX_FIELDS];
+        int[] ends = new int[MAX_FIELDS];
+        int fieldCount = splitFields(line, starts, ends);
+        if (fieldCount < 3) {
+            throw new FloraException("Missing fields in storage line");
+        }
+
+        boolean isDone = ends[1] - starts[1] == 1 && line.charAt(starts[1]) == '1';
+        String description = line.substring(starts[2], ends[2]);
+        Task task;
+
+        if (ends[0] - starts[0] != 1) {
+            throw new FloraException("Invalid task type: " + line.substring(starts[0], ends[0]));
+        }
+        switch (line.charAt(starts[0])) {
+        case 'T':
+            task = new Todo(description);
+            break;
+        case 'D':
+            if (fieldCount < 4) {
+                throw new FloraException("Missing due date for deadline task");
+            }
+            task = new Deadline(description, parseDateTime(line, starts[3], ends[3]));
+            break;
+        case 'E':
+            if (fieldCount < 5) {
+                throw new FloraException("Missing start or end date for event task");
+            }
+            LocalDateTime start = parseDateTime(line, starts[3], ends[3]);
+            LocalDateTime end = parseDateTime(line, starts[4], ends[4]);
+            if (!start.isBefore(end)) {
+                throw new FloraException("Event start must be before end in storage");
+            }
+            task = new Event(description, start, end);
+            break;
+        default:
+            throw new FloraException("Invalid task type: " + line.substring(starts[0], ends[0]));
+        }
+
+        if (isDone) {
+            task.mark();
+        }
+
+        return task;
+    }
+
+    /**
+     * Locates up to {@link #MAX_FIELDS} separator-delimited fields in the line.
+     * Trailing empty fields are dropped, matching {@link String#split(String)}.
+     *
+     * @param line   The line to split.
+     * @param starts Receives the start offset of each field.
+     * @param ends   Receives the end offset (exclusive) of each field.
+     * @return The number of fields found.
+     */
+    private static int splitFields(String line, int[] starts, int[] ends) {
+        int count = 0;
+        int fieldStart = 0;
+        while (count < MAX_FIELDS) {
+            int separator = line.indexOf(SEPARATOR, fieldStart);
+            starts[count] = fieldStart;
+            ends[count] = separator == -1 ? line.length() : separator;
+            count++;
+            if (separator == -1) {
+                break;
+            }
+            fieldStart = separator + SEPARATOR.length();
+        }
+        while (count > 0 && starts[count - 1] == ends[count - 1]) {
+            count--;
+        }
+        return count;
+    }
+
+    /**
+     * Parses the date/time in {@code line[start, end)}. Date-only values default to midnight.
+     *
+     * @param line  The line containing the date.
+     * @param start The start offset of the date field.
+     * @param end   The end offset (exclusive) of the date field.
+     * @return The parsed LocalDateTime.
+     * @throws FloraException If the field is not a valid date or date/time.
+     */
+    private static LocalDateTime parseDateTime(String line, int start, int end) throws FloraException {
+        int length = end - start;
+        if ((length == DATE_ONLY_LENGTH || length == DATE_TIME_LENGTH)
+                && line.charAt(start + 2) == '/' && line.charAt(start + 5) == '/') {
+            int day = twoDigits(line, start);
+            int month = twoDigits(line, start + 3);
+            int year = fourDigits(line, start + 6);
+            int hour = 0;
+            int minute = 0;
+            boolean isTimeValid = true;
+            if (length == DATE_TIME_LENGTH) {
+                hour = twoDigits(line, start + 11);
+                minute = twoDigits(line, start + 14);
+                isTimeValid = line.charAt(start + 10) == ' ' && line.charAt(start + 13) == ':'
+                        && hour >= 0 && hour <= 23 && minute >= 0 && minute <= 59;
+            }
+            if (isTimeValid && year >= 0 && isValidDate(year, month, day)) {
+                return LocalDateTime.of(year, month, day, hour, minute);
+            }
+        }
+        return parseDateTimeSlow(line.substring(start, end));
+    }
+
+    /**
+     * Returns whether the given day exists in the given month and year.
+     *
+     * @param year  The year.
+     * @param month The month, 1 to 12 for valid input.
+     * @param day   The day of month.
+     * @return {@code true} if the date exists.
+     */
+    private static boolean isValidDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        int monthLength = switch (month) {
+        case 2 -> Year.isLeap(year) ? 29 : 28;
+        case 4, 6, 9, 11 -> 30;
+        default -> 31;
+        };
+        return day <= monthLength;
+    }
+
+    /**
+     * Reads two ASCII digits starting at the given offset.
+     *
+     * @param s     The string to read from.
+     * @param start The offset of the first digit.
+     * @return The value, or -1 if either character is not a digit.
+     */
+    private static int twoDigits(String s, int start) {
+        int tens = s.charAt(start) - '0';
+        int ones = s.charAt(start + 1) - '0';
+        if (tens < 0 || tens > 9 || ones < 0 || ones > 9) {
+            return -1;
+        }
+        return tens * 10 + ones;
+    }
+
+    /**
+     * Reads four ASCII digits starting at the given offset.
+     *
+     * @param s     The string to read from.
+     * @param start The offset of the first digit.
+     * @return The value, or -1 if any character is not a digit.
+     */
+    private static int fourDigits(String s, int start) {
+        int high = twoDigits(s, start);
+        int low = twoDigits(s, start + 2);
+        if (high < 0 || low < 0) {
+            return -1;
+        }
+        return high * 100 + low;
+    }
+
+    /**
+     * Parses a date/time that is not in the fixed-width layout, using the strict formatters.
+     * Accepts both "dd/MM/uuuu HH:mm" (with time) and "dd/MM/uuuu" (date-only, defaults to midnight).
+     *
+     * @param dateStr The date/time string from the file.
+     * @return The parsed LocalDateTime.
+     * @throws FloraException If the string cannot be parsed or represents a non-existent date.
+     */
+    private static LocalDateTime parseDateTimeSlow(String dateStr) throws FloraException {
+        try {
+            return LocalDateTime.parse(dateStr, DATE_TIME_FILE_FMT);
+        } catch (DateTimeParseException e) {
+            try {
+                return LocalDate.parse(dateStr, DATE_ONLY_FILE_FMT).atTime(LocalTime.MIDNIGHT);
+            } catch (DateTimeParseException e2) {
+                throw new FloraException("Invalid date/time in storage: " + dateStr);
+            }
+        }
+    }
+}
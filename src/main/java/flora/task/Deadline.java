@@ -24,6 +24,15 @@ public class Deadline extends Task {
         this.due = due;
     }
 
+    /**
+     * Returns the due date and time of this deadline.
+     *
+     * @return The due date-time.
+     */
+    public LocalDateTime getDue() {
+        return due;
+    }
+
     /**
      * Converts a date-time to the file storage format, omitting time if midnight.
      *
@@ -62,6 +71,14 @@ public class Deadline extends Task {
         return "D";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Task copy() {
+        return new Deadline(description, due);
+    }
+
     /**
      * {@inheritDoc}
      * Deadlines support /desc and /by. Any event-only fields (/from, /to) are
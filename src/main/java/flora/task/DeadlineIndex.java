@@ -0,0 +1,267 @@
+package flora.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.SplittableRandom;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A due-ordered index over the deadlines in a task list that are not done yet.
+ *
+ * <p>Deadlines are kept in a treap ordered by due time, so the deadlines due by a given time are read
+ * in due order from the leftmost node without scanning or sorting the list.
+ * Deadlines with the same due time are ordered by when they were indexed.
+ *
+ * <p>Like {@link EventIndex}, nodes are never changed once built: a change copies the O(log n) nodes on
+ * the path it touches. So {@link #snapshot()} shares the whole tree in O(1), and later changes to the
+ * index never affect a snapshot or a stream already returned.
+ */
+class DeadlineIndex {
+    /**
+     * A tree node holding one deadline. Nodes are immutable, so a tree may be shared by several indexes.
+     */
+    private static final class Node {
+        private final Deadline deadline;
+        private final LocalDateTime due;
+        private final long sequence;
+        private final int priority;
+        private final Node left;
+        private final Node right;
+
+        private Node(Deadline deadline, long sequence, int priority, Node left, Node right) {
+            this.deadline = deadline;
+            this.due = deadline.getDue();
+            this.sequence = sequence;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+        }
+
+        /**
+         * Returns a copy of this node with the given children.
+         *
+         * @param left  The new left child.
+         * @param right The new right child.
+         * @return The copy.
+         */
+        private Node with(Node left, Node right) {
+            return new Node(deadline, sequence, priority, left, right);
+        }
+    }
+
+    /**
+     * Walks a tree in due order, stopping after the last node due at or before a given time.
+     */
+    private static final class DueIterator implements Iterator<Deadline> {
+        private final ArrayDeque<Node> path = new ArrayDeque<>();
+        private final LocalDateTime time;
+
+        private DueIterator(Node root, LocalDateTime time) {
+            this.time = time;
+            pushLeftmost(root);
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !path.isEmpty() && !path.peek().due.isAfter(time);
+        }
+
+        @Override
+        public Deadline next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Node node = path.pop();
+            pushLeftmost(node.right);
+            return node.deadline;
+        }
+
+        /**
+         * Pushes the given node and its chain of left children.
+         *
+         * @param node The subtree root.
+         */
+        private void pushLeftmost(Node node) {
+            for (Node current = node; current != null; current = current.left) {
+                path.push(current);
+            }
+        }
+    }
+
+    /** The sequence number of each indexed deadline, or {@code null} in a snapshot, which is never changed. */
+    private final IdentityHashMap<Deadline, Long> sequences;
+    private final SplittableRandom random;
+    private Node root = null;
+    private int size = 0;
+    private long nextSequence = 0;
+
+    /**
+     * Constructs an empty index.
+     */
+    DeadlineIndex() {
+        sequences = new IdentityHashMap<>();
+        random = new SplittableRandom(0);
+    }
+
+    /**
+     * Constructs a read-only index that shares the tree of the given index.
+     *
+     * @param source The index to share.
+     */
+    private DeadlineIndex(DeadlineIndex source) {
+        sequences = null;
+        random = null;
+        root = source.root;
+        size = source.size;
+    }
+
+    /**
+     * Returns a read-only copy of the index as it is now, in O(1). Later changes to this index are not seen by it.
+     *
+     * @return The copy.
+     */
+    DeadlineIndex snapshot() {
+        return new DeadlineIndex(this);
+    }
+
+    /**
+     * Indexes the given task if it is a deadline that is not done.
+     *
+     * @param task The added or unmarked task.
+     */
+    void add(Task task) {
+        assert sequences != null : "Deadline index snapshots cannot be changed";
+        if (task instanceof Deadline deadline && !deadline.isDone() && !sequences.containsKey(deadline)) {
+            long sequence = nextSequence++;
+            sequences.put(deadline, sequence);
+            root = insert(root, new Node(deadline, sequence, random.nextInt(), null, null));
+            size++;
+        }
+    }
+
+    /**
+     * Removes the given task from the index if it is an indexed deadline.
+     *
+     * @param task The removed or marked task.
+     */
+    void remove(Task task) {
+        assert sequences != null : "Deadline index snapshots cannot be changed";
+        if (task instanceof Deadline deadline) {
+            Long sequence = sequences.remove(deadline);
+            if (sequence != null) {
+                root = delete(root, deadline.getDue(), sequence);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed deadlines.
+     *
+     * @return The number of pending deadlines.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns the pending deadlines due at or before the given time, in due order.
+     * The stream reads the index as it is now, so later changes do not affect it.
+     *
+     * @param time The latest due time to include.
+     * @return A stream of the matching deadlines.
+     */
+    Stream<Deadline> streamDueBy(LocalDateTime time) {
+        Spliterator<Deadline> spliterator = Spliterators.spliteratorUnknownSize(new DueIterator(root, time),
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * Compares a node with the tree key of another deadline.
+     *
+     * @param node     The node.
+     * @param due      The other deadline's due time.
+     * @param sequence The other deadline's sequence number.
+     * @return A negative number, zero or a positive number as the node sorts before, at or after the key.
+     */
+    private static int compare(Node node, LocalDateTime due, long sequence) {
+        int byDue = node.due.compareTo(due);
+        return byDue != 0 ? byDue : Long.compare(node.sequence, sequence);
+    }
+
+    /**
+     * Returns the given subtree with a node inserted, copying the nodes on the path to it.
+     *
+     * @param node     The subtree root.
+     * @param inserted The node to insert.
+     * @return The new subtree root.
+     */
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(node, inserted.due, inserted.sequence) > 0) {
+            Node left = insert(node.left, inserted);
+            if (left.priority > node.priority) {
+                // rotate right, lifting the new left child
+                return left.with(left.left, node.with(left.right, node.right));
+            }
+            return node.with(left, node.right);
+        }
+        Node right = insert(node.right, inserted);
+        if (right.priority > node.priority) {
+            // rotate left, lifting the new right child
+            return right.with(node.with(node.left, right.left), right.right);
+        }
+        return node.with(node.left, right);
+    }
+
+    /**
+     * Returns the given subtree without the node with the given key, copying the nodes on the path to it.
+     *
+     * @param node     The subtree root.
+     * @param due      The deleted deadline's due time.
+     * @param sequence The deleted deadline's sequence number.
+     * @return The new subtree root.
+     */
+    private static Node delete(Node node, LocalDateTime due, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(node, due, sequence);
+        if (comparison > 0) {
+            return node.with(delete(node.left, due, sequence), node.right);
+        } else if (comparison < 0) {
+            return node.with(node.left, delete(node.right, due, sequence));
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Joins two subtrees where every key in {@code left} sorts before every key in {@code right},
+     * copying the nodes along the seam.
+     *
+     * @param left  The left subtree.
+     * @param right The right subtree.
+     * @return The root of the joined tree.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.with(left.left, merge(left.right, right));
+        }
+        return right.with(merge(left, right.left), right.right);
+    }
+}
@@ -31,6 +31,24 @@ public class Event extends Task {
         this.end = end;
     }
 
+    /**
+     * Returns the start date and time of this event.
+     *
+     * @return The start date-time.
+     */
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /**
+     * Returns the end date and time of this event.
+     *
+     * @return The end date-time.
+     */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
     /**
      * Converts a date-time to the file storage format.
      * Includes time if either the start or end time is not midnight.
@@ -71,6 +89,14 @@ public class Event extends Task {
         return "E";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Task copy() {
+        return new Event(description, start, end);
+    }
+
     /**
      * {@inheritDoc}
      * Events support /desc, /from, and /to. The deadline-only field /by is
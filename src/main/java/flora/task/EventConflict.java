@@ -0,0 +1,7 @@
+package flora.task;
+
+/**
+ * Holds two events whose times overlap, with the event that starts first as {@code first}.
+ */
+public record EventConflict(Event first, Event second) {
+}
@@ -0,0 +1,276 @@
+package flora.task;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+/**
+ * An interval tree over the events in a task list, for finding the events that overlap a time range.
+ *
+ * <p>Events are kept in a treap ordered by start time, and every node also records the latest end time
+ * in its subtree. A query skips any subtree whose latest end is not after the range start, and stops
+ * walking right once start times reach the range end, so it visits O(log n + k) nodes for k results.
+ * Events that start at the same time are ordered by when they were indexed.
+ *
+ * <p>Nodes are never changed once built: a change copies the O(log n) nodes on the path it touches instead.
+ * So {@link #snapshot()} shares the whole tree in O(1), and later changes to the index never affect a snapshot.
+ */
+class EventIndex {
+    /**
+     * A tree node holding one event. Nodes are immutable, so a tree may be shared by several indexes.
+     */
+    private static final class Node {
+        private final Event event;
+        private final long sequence;
+        private final int priority;
+        private final LocalDateTime maxEnd;
+        private final Node left;
+        private final Node right;
+
+        private Node(Event event, long sequence, int priority, Node left, Node right) {
+            this.event = event;
+            this.sequence = sequence;
+            this.priority = priority;
+            this.left = left;
+            this.right = right;
+            LocalDateTime latest = event.getEnd();
+            if (left != null && left.maxEnd.isAfter(latest)) {
+                latest = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(latest)) {
+                latest = right.maxEnd;
+            }
+            this.maxEnd = latest;
+        }
+
+        /**
+         * Returns a copy of this node with the given children.
+         *
+         * @param left  The new left child.
+         * @param right The new right child.
+         * @return The copy.
+         */
+        private Node with(Node left, Node right) {
+            return new Node(event, sequence, priority, left, right);
+        }
+    }
+
+    /** The sequence number of each indexed event, or {@code null} in a snapshot, which is never changed. */
+    private final IdentityHashMap<Event, Long> sequences;
+    private final SplittableRandom random;
+    private Node root = null;
+    private int size = 0;
+    private long nextSequence = 0;
+
+    /**
+     * Constructs an empty index.
+     */
+    EventIndex() {
+        sequences = new IdentityHashMap<>();
+        random = new SplittableRandom(0);
+    }
+
+    /**
+     * Constructs a read-only index that shares the tree of the given index.
+     *
+     * @param source The index to share.
+     */
+    private EventIndex(EventIndex source) {
+        sequences = null;
+        random = null;
+        root = source.root;
+        size = source.size;
+    }
+
+    /**
+     * Returns a read-only copy of the index as it is now, in O(1). Later changes to this index are not seen by it.
+     *
+     * @return The copy.
+     */
+    EventIndex snapshot() {
+        return new EventIndex(this);
+    }
+
+    /**
+     * Indexes the given task if it is an event.
+     *
+     * @param task The added task.
+     */
+    void add(Task task) {
+        assert sequences != null : "Event index snapshots cannot be changed";
+        if (task instanceof Event event) {
+            long sequence = nextSequence++;
+            sequences.put(event, sequence);
+            root = insert(root, new Node(event, sequence, random.nextInt(), null, null));
+            size++;
+        }
+    }
+
+    /**
+     * Removes the given task from the index if it is an indexed event.
+     *
+     * @param task The removed task.
+     */
+    void remove(Task task) {
+        assert sequences != null : "Event index snapshots cannot be changed";
+        if (task instanceof Event event) {
+            Long sequence = sequences.remove(event);
+            if (sequence != null) {
+                root = delete(root, event.getStart(), sequence);
+                size--;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of indexed events.
+     *
+     * @return The number of events.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Returns every event that overlaps the range from {@code from} to {@code to}, ordered by start time.
+     * An event overlaps the range if it starts before {@code to} and ends after {@code from}, so an event
+     * that only touches an end of the range is not included.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return The overlapping events.
+     */
+    List<Event> findOverlapping(LocalDateTime from, LocalDateTime to) {
+        List<Event> matches = new ArrayList<>();
+        collectOverlapping(root, from, to, matches);
+        return matches;
+    }
+
+    /**
+     * Passes every indexed event to the given action, ordered by start time.
+     *
+     * @param action The action to perform on each event.
+     */
+    void forEachInStartOrder(Consumer<Event> action) {
+        ArrayDeque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        while (node != null || !path.isEmpty()) {
+            while (node != null) {
+                path.push(node);
+                node = node.left;
+            }
+            node = path.pop();
+            action.accept(node.event);
+            node = node.right;
+        }
+    }
+
+    /**
+     * Adds the events in the given subtree that overlap the range to {@code matches}, in start order.
+     *
+     * @param node    The subtree root.
+     * @param from    The start of the range.
+     * @param to      The end of the range.
+     * @param matches Receives the overlapping events.
+     */
+    private static void collectOverlapping(Node node, LocalDateTime from, LocalDateTime to, List<Event> matches) {
+        if (node == null || !node.maxEnd.isAfter(from)) {
+            return;
+        }
+        collectOverlapping(node.left, from, to, matches);
+        if (!node.event.getStart().isBefore(to)) {
+            // every event to the right starts even later
+            return;
+        }
+        if (node.event.getEnd().isAfter(from)) {
+            matches.add(node.event);
+        }
+        collectOverlapping(node.right, from, to, matches);
+    }
+
+    /**
+     * Compares a node with the tree key of another event.
+     *
+     * @param node     The node.
+     * @param start    The other event's start time.
+     * @param sequence The other event's sequence number.
+     * @return A negative number, zero or a positive number as the node sorts before, at or after the key.
+     */
+    private static int compare(Node node, LocalDateTime start, long sequence) {
+        int byStart = node.event.getStart().compareTo(start);
+        return byStart != 0 ? byStart : Long.compare(node.sequence, sequence);
+    }
+
+    /**
+     * Returns the given subtree with a node inserted, copying the nodes on the path to it.
+     *
+     * @param node     The subtree root.
+     * @param inserted The node to insert.
+     * @return The new subtree root.
+     */
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(node, inserted.event.getStart(), inserted.sequence) > 0) {
+            Node left = insert(node.left, inserted);
+            if (left.priority > node.priority) {
+                // rotate right, lifting the new left child
+                return left.with(left.left, node.with(left.right, node.right));
+            }
+            return node.with(left, node.right);
+        }
+        Node right = insert(node.right, inserted);
+        if (right.priority > node.priority) {
+            // rotate left, lifting the new right child
+            return right.with(node.with(node.left, right.left), right.right);
+        }
+        return node.with(node.left, right);
+    }
+
+    /**
+     * Returns the given subtree without the node with the given key, copying the nodes on the path to it.
+     *
+     * @param node     The subtree root.
+     * @param start    The deleted event's start time.
+     * @param sequence The deleted event's sequence number.
+     * @return The new subtree root.
+     */
+    private static Node delete(Node node, LocalDateTime start, long sequence) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = compare(node, start, sequence);
+        if (comparison > 0) {
+            return node.with(delete(node.left, start, sequence), node.right);
+        } else if (comparison < 0) {
+            return node.with(node.left, delete(node.right, start, sequence));
+        }
+        return merge(node.left, node.right);
+    }
+
+    /**
+     * Joins two subtrees where every key in {@code left} sorts before every key in {@code right},
+     * copying the nodes along the seam.
+     *
+     * @param left  The left subtree.
+     * @param right The right subtree.
+     * @return The root of the joined tree.
+     */
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            return left.with(left.left, merge(left.right, right));
+        }
+        return right.with(merge(left, right.left), right.right);
+    }
+}
@@ -0,0 +1,303 @@
+package flora.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+
+/**
+ * An inverted index from lowercase description trigrams to the tasks containing them.
+ * A keyword can only be contained in a description that contains every trigram of the keyword,
+ * so intersecting the postings narrows a search down to a few candidates, which are then
+ * checked with the same case-insensitive {@code contains} test that a full scan would use.
+ *
+ * <p>Each indexed task holds an order key. New tasks get increasing keys and a replaced task
+ * passes its key on to its replacement, so reading matches in key order gives them in list order.
+ *
+ * <p>Tasks are split into shards of {@value #SHARD_SIZE} consecutive keys, and each shard maps a trigram
+ * to a bit set over its keys, so intersecting postings is a few word-wide ANDs per shard.
+ * {@link #snapshot()} shares the shards like {@link TaskSlots} shares its chunks: a shared shard is copied
+ * the first time the index changes it, so a change copies at most one shard and never affects a snapshot.
+ */
+class SearchIndex {
+    /** The number of consecutive order keys in a shard, and so the most tasks a change copies. */
+    private static final int SHARD_SIZE = 256;
+    private static final int WORDS_PER_SET = SHARD_SIZE / Long.SIZE;
+    private static final int INITIAL_SHARDS = 4;
+    /** Rough heap cost of one trigram entry and its bit set, used for memory estimates. */
+    private static final long TRIGRAM_ENTRY_BYTES = 112;
+    /** Rough heap cost of a shard's own fields and task array, used for memory estimates. */
+    private static final long SHARD_BYTES = 96 + 8L * SHARD_SIZE;
+    /** Rough heap cost of one task's order key mapping, used for memory estimates. */
+    private static final long TASK_ENTRY_BYTES = 40;
+
+    /**
+     * The postings of the tasks whose order keys fall in one range of {@value #SHARD_SIZE} keys.
+     */
+    private static final class Shard {
+        private final HashMap<Long, long[]> postings;
+        private final Task[] tasks;
+        private int taskCount;
+
+        private Shard() {
+            postings = new HashMap<>();
+            tasks = new Task[SHARD_SIZE];
+            taskCount = 0;
+        }
+
+        private Shard(Shard source) {
+            postings = new HashMap<>(source.postings);
+            postings.replaceAll((trigram, keys) -> keys.clone());
+            tasks = source.tasks.clone();
+            taskCount = source.taskCount;
+        }
+    }
+
+    private Shard[] shards;
+    /** Shards that a snapshot may also hold, which must be copied before they are changed. */
+    private final BitSet shared = new BitSet();
+    /** The order key of each indexed task, or {@code null} in a snapshot, which is never changed. */
+    private final IdentityHashMap<Task, Integer> keysByTask;
+    private int nextKey = 0;
+
+    /**
+     * Constructs an empty index.
+     */
+    SearchIndex() {
+        shards = new Shard[INITIAL_SHARDS];
+        keysByTask = new IdentityHashMap<>();
+    }
+
+    /**
+     * Constructs a read-only index that shares every shard of the given index.
+     *
+     * @param source The index to share.
+     */
+    private SearchIndex(SearchIndex source) {
+        shards = source.shards.clone();
+        keysByTask = null;
+        nextKey = source.nextKey;
+    }
+
+    /**
+     * Returns a read-only copy of the index as it is now that shares its shards, in O(n / SHARD_SIZE).
+     * Later changes to this index are not seen by the copy.
+     *
+     * @return The copy.
+     */
+    SearchIndex snapshot() {
+        shared.set(0, shards.length);
+        return new SearchIndex(this);
+    }
+
+    /**
+     * Indexes a task appended to the end of the list.
+     *
+     * @param task The added task.
+     */
+    void add(Task task) {
+        insert(task, nextKey++);
+    }
+
+    /**
+     * Removes a task from the index.
+     *
+     * @param task The removed task.
+     */
+    void remove(Task task) {
+        assert keysByTask != null : "Search index snapshots cannot be changed";
+        Integer key = keysByTask.remove(task);
+        if (key == null) {
+            return;
+        }
+        int index = key / SHARD_SIZE;
+        int offset = key % SHARD_SIZE;
+        Shard shard = writableShard(index);
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            long[] keys = shard.postings.get(trigram);
+            if (keys == null) {
+                continue;
+            }
+            keys[offset / Long.SIZE] &= ~(1L << offset);
+            if (isEmpty(keys)) {
+                shard.postings.remove(trigram);
+            }
+        }
+        shard.tasks[offset] = null;
+        if (--shard.taskCount == 0) {
+            shards[index] = null;
+        }
+    }
+
+    /**
+     * Replaces an indexed task with another that takes its position in the list.
+     *
+     * @param oldTask The task being replaced.
+     * @param newTask The task taking its place.
+     */
+    void replace(Task oldTask, Task newTask) {
+        assert keysByTask != null : "Search index snapshots cannot be changed";
+        Integer key = keysByTask.get(oldTask);
+        assert key != null : "Replaced task must be indexed";
+        remove(oldTask);
+        insert(newTask, key);
+    }
+
+    /**
+     * Returns whether the keyword is long enough to be answered from the index.
+     * Shorter keywords have no trigrams and must be answered with a scan instead.
+     *
+     * @param lowerKeyword The lowercase keyword.
+     * @return {@code true} if {@link #find(String)} can answer the query.
+     */
+    static boolean canSearch(String lowerKeyword) {
+        return lowerKeyword.length() >= 3;
+    }
+
+    /**
+     * Returns the tasks whose lowercase description contains the lowercase keyword, in list order.
+     *
+     * @param lowerKeyword The lowercase keyword, at least three characters long.
+     * @return The matching tasks.
+     */
+    List<Task> find(String lowerKeyword) {
+        assert canSearch(lowerKeyword) : "Keyword too short for trigram search: " + lowerKeyword;
+        long[] trigrams = trigramsOf(lowerKeyword);
+        long[] candidates = new long[WORDS_PER_SET];
+        List<Task> matches = new ArrayList<>();
+        for (Shard shard : shards) {
+            if (shard == null || !intersect(shard, trigrams, candidates)) {
+                continue;
+            }
+            for (int word = 0; word < WORDS_PER_SET; word++) {
+                for (long bits = candidates[word]; bits != 0; bits &= bits - 1) {
+                    Task task = shard.tasks[word * Long.SIZE + Long.numberOfTrailingZeros(bits)];
+                    if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                        matches.add(task);
+                    }
+                }
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Returns an estimate of the heap memory used by the index, in bytes.
+     * A snapshot counts the shards it shares.
+     *
+     * @return The estimated memory usage.
+     */
+    long estimateMemoryBytes() {
+        long bytes = keysByTask == null ? 0 : keysByTask.size() * TASK_ENTRY_BYTES;
+        for (Shard shard : shards) {
+            if (shard != null) {
+                bytes += SHARD_BYTES + shard.postings.size() * TRIGRAM_ENTRY_BYTES;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Indexes a task under the given order key.
+     *
+     * @param task The task to index.
+     * @param key  The order key of the task's position in the list.
+     */
+    private void insert(Task task, int key) {
+        assert keysByTask != null : "Search index snapshots cannot be changed";
+        keysByTask.put(task, key);
+        int index = key / SHARD_SIZE;
+        int offset = key % SHARD_SIZE;
+        if (index >= shards.length) {
+            shards = Arrays.copyOf(shards, Math.max(shards.length * 2, index + 1));
+        }
+        if (shards[index] == null) {
+            shards[index] = new Shard();
+            shared.clear(index);
+        }
+        Shard shard = writableShard(index);
+        shard.tasks[offset] = task;
+        shard.taskCount++;
+        for (long trigram : trigramsOf(task.getDescription().toLowerCase())) {
+            shard.postings.computeIfAbsent(trigram, t -> new long[WORDS_PER_SET])[offset / Long.SIZE] |= 1L << offset;
+        }
+    }
+
+    /**
+     * Returns the given shard, first copying it if a snapshot may also hold it.
+     *
+     * @param index The shard index.
+     * @return A shard that only this index holds.
+     */
+    private Shard writableShard(int index) {
+        if (shared.get(index)) {
+            shards[index] = new Shard(shards[index]);
+            shared.clear(index);
+        }
+        return shards[index];
+    }
+
+    /**
+     * Intersects the shard's postings of every given trigram into {@code candidates}.
+     *
+     * @param shard      The shard to read.
+     * @param trigrams   The keyword's trigrams.
+     * @param candidates Receives the keys, relative to the shard, present under every trigram.
+     * @return {@code false} if no key is present under every trigram.
+     */
+    private static boolean intersect(Shard shard, long[] trigrams, long[] candidates) {
+        Arrays.fill(candidates, -1L);
+        for (long trigram : trigrams) {
+            long[] keys = shard.postings.get(trigram);
+            if (keys == null) {
+                return false;
+            }
+            for (int word = 0; word < WORDS_PER_SET; word++) {
+                candidates[word] &= keys[word];
+            }
+        }
+        return !isEmpty(candidates);
+    }
+
+    /**
+     * Returns whether the bit set has no bits set.
+     *
+     * @param bits The bit set.
+     * @return {@code true} if every word is zero.
+     */
+    private static boolean isEmpty(long[] bits) {
+        for (long word : bits) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the distinct trigrams of a string, each packed into a long as three 16-bit chars.
+     *
+     * @param text The string to split.
+     * @return The packed trigrams, without duplicates.
+     */
+    private static long[] trigramsOf(String text) {
+        int n = text.length() - 2;
+        if (n <= 0) {
+            return new long[0];
+        }
+        long[] trigrams = new long[n];
+        for (int i = 0; i < n; i++) {
+            trigrams[i] = ((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2);
+        }
+        Arrays.sort(trigrams);
+        int distinct = 1;
+        for (int i = 1; i < n; i++) {
+            if (trigrams[i] != trigrams[distinct - 1]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+}
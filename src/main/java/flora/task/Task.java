@@ -55,6 +55,27 @@ public abstract class Task {
         assert !done : "Task should be unmarked after unmark()";
     }
 
+    /**
+     * Returns a copy of this task with the given completion status, leaving this task unchanged.
+     * A {@link TaskList} marks its tasks by replacing them with such copies, so snapshots of the list
+     * never see a task change.
+     *
+     * @param isDone Whether the copy is done.
+     * @return The copy.
+     */
+    public Task withDone(boolean isDone) {
+        Task copy = copy();
+        copy.done = isDone;
+        return copy;
+    }
+
+    /**
+     * Returns a copy of this task that is not done.
+     *
+     * @return The copy.
+     */
+    protected abstract Task copy();
+
     /**
      * Returns the single-character type identifier for this task.
      *
@@ -1,32 +1,119 @@
 package flora.task;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import flora.metrics.IndexEvent;
+
 /**
  * Represents a list of tasks with operations to add, remove, find, and access tasks.
+ * Tasks are kept in {@link TaskSlots}, so access, replacement and removal by 1-based index
+ * take O(log n) time however long the list grows.
+ *
+ * <p>Tasks in a list are never changed in place; marking one replaces it with a marked copy. Together with
+ * the chunk sharing in {@link TaskSlots}, this makes {@link #snapshot()} cheap, and a snapshot is an
+ * immutable version of the list that any number of threads may read without locking. The indexes built so far
+ * are shared with the snapshot in the same way, so queries on a snapshot are as fast as on the list.
+ *
+ * <p>Building an index and keeping the built indexes up to date after a change emit {@link IndexEvent}s.
  */
 public class TaskList implements Iterable<Task> {
-    private final List<Task> tasks;
+    /** How many tasks a cancellable search reads between checks for whether to stop. */
+    private static final int STOP_CHECK_INTERVAL = 1024;
+
+    private final TaskSlots tasks;
+    /** Number of tasks in the list for each details key, used for O(1) duplicate checks. */
+    private final HashMap<String, Integer> detailsKeyCounts;
+    /** Trigram index over descriptions, built on the first search and maintained afterwards. */
+    private SearchIndex searchIndex = null;
+    /** Interval tree over events, built on the first time-range query and maintained afterwards. */
+    private EventIndex eventIndex = null;
+    /** Due-ordered index over pending deadlines, built on the first due-date query and maintained afterwards. */
+    private DeadlineIndex deadlineIndex = null;
+    /** Whether this list is a read-only snapshot, which has no duplicate-detection counts. */
+    private final boolean isSnapshot;
 
     /**
      * Constructs an empty TaskList.
      */
     public TaskList() {
-        tasks = new ArrayList<>();
+        tasks = new TaskSlots(List.of());
+        detailsKeyCounts = new HashMap<>();
+        isSnapshot = false;
     }
 
     /**
-     * Constructs a TaskList with the given list of tasks.
+     * Constructs a TaskList holding the given tasks in order.
+     * The given list is copied, so later changes to it do not affect this TaskList.
      *
      * @param tasks The initial list of tasks.
      */
     public TaskList(List<Task> tasks) {
         assert tasks != null : "Initial task list must not be null";
-        this.tasks = tasks;
+        this.tasks = new TaskSlots(tasks);
+        detailsKeyCounts = new HashMap<>(Math.max(16, tasks.size() * 4 / 3 + 1));
+        isSnapshot = false;
+        for (Task task : tasks) {
+            indexDetails(task);
+        }
+    }
+
+    /**
+     * Constructs a read-only snapshot holding the given slots and indexes.
+     *
+     * @param slots         The slots, which nothing else may change.
+     * @param searchIndex   The search index, or {@code null} if none has been built.
+     * @param eventIndex    The event index, or {@code null} if none has been built.
+     * @param deadlineIndex The deadline index, or {@code null} if none has been built.
+     */
+    private TaskList(TaskSlots slots, SearchIndex searchIndex, EventIndex eventIndex, DeadlineIndex deadlineIndex) {
+        tasks = slots;
+        detailsKeyCounts = null;
+        isSnapshot = true;
+        this.searchIndex = searchIndex;
+        this.eventIndex = eventIndex;
+        this.deadlineIndex = deadlineIndex;
+    }
+
+    /**
+     * Returns a read-only snapshot of the list as it is now, which later changes to this list do not affect.
+     * The snapshot shares this list's chunks of tasks until this list changes them, so taking one costs
+     * O(n / 256) rather than copying every task. Since tasks in a list are never changed in place,
+     * any number of threads may read the snapshot while this list keeps changing.
+     *
+     * <p>The snapshot carries every index this list has built, shared in the same way, so its queries use
+     * them rather than rebuilding them. Call {@link #buildIndexes()} first for every snapshot to have them all.
+     * A keyword search on a snapshot without a search index scans its tasks rather than build an index for a
+     * version that is soon replaced, while time-range and due-date queries build their indexes on first use.
+     * Changing a snapshot throws {@link UnsupportedOperationException}.
+     *
+     * @return The snapshot.
+     */
+    public TaskList snapshot() {
+        return new TaskList(tasks.snapshot(),
+                searchIndex == null ? null : searchIndex.snapshot(),
+                eventIndex == null ? null : eventIndex.snapshot(),
+                deadlineIndex == null ? null : deadlineIndex.snapshot());
+    }
+
+    /**
+     * Builds every index now rather than on first use, so that every snapshot taken from now on carries them.
+     * The indexes are then kept up to date by each change, which also copies the one shard of the search index
+     * it touches if a snapshot still shares it.
+     */
+    public void buildIndexes() {
+        checkWritable();
+        getSearchIndex(() -> false);
+        getEventIndex();
+        getDeadlineIndex();
     }
 
     /**
@@ -36,7 +123,37 @@ public class TaskList implements Iterable<Task> {
      */
     public void add(Task task) {
         assert task != null : "Cannot add a null task";
+        checkWritable();
         tasks.add(task);
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        indexDetails(task);
+        if (searchIndex != null) {
+            searchIndex.add(task);
+        }
+        indexTimes(task);
+        event.commit(IndexEvent.ALL, "add", 1, tasks.size());
+    }
+
+    /**
+     * Adds every candidate whose details are not already in the list, in order.
+     * Candidates that duplicate an existing task, or an earlier candidate, are skipped.
+     * Each check is a hash lookup, so importing a large batch takes linear time.
+     *
+     * @param candidates The tasks to add.
+     * @return The candidates that were skipped as duplicates.
+     */
+    public List<Task> addAllUnique(List<Task> candidates) {
+        assert candidates != null : "Cannot add a null list of tasks";
+        List<Task> skipped = new ArrayList<>();
+        for (Task candidate : candidates) {
+            if (containsTaskWithDetails(candidate)) {
+                skipped.add(candidate);
+            } else {
+                add(candidate);
+            }
+        }
+        return skipped;
     }
 
     /**
@@ -47,7 +164,48 @@ public class TaskList implements Iterable<Task> {
      */
     public Task remove(int index) {
         assert index >= 1 && index <= tasks.size() : "Task index out of bounds: " + index;
-        return tasks.remove(index - 1);
+        checkWritable();
+        Task removed = tasks.remove(index - 1);
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        unindexDetails(removed);
+        if (searchIndex != null) {
+            searchIndex.remove(removed);
+        }
+        unindexTimes(removed);
+        event.commit(IndexEvent.ALL, "remove", 1, tasks.size());
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given 1-based indexes in a single pass over the list,
+     * rather than shifting the remaining tasks once per removal.
+     *
+     * @param sortedIndexes The distinct 1-based indexes to remove, in ascending order.
+     * @return The removed tasks, in list order.
+     */
+    public List<Task> removeAll(int[] sortedIndexes) {
+        assert sortedIndexes.length == 0
+                || (sortedIndexes[0] >= 1 && sortedIndexes[sortedIndexes.length - 1] <= tasks.size())
+                : "Task indexes out of bounds";
+        checkWritable();
+        int[] positions = new int[sortedIndexes.length];
+        for (int i = 0; i < sortedIndexes.length; i++) {
+            assert i == 0 || sortedIndexes[i] > sortedIndexes[i - 1] : "Task indexes must be ascending";
+            positions[i] = sortedIndexes[i] - 1;
+        }
+        List<Task> removed = tasks.removeAll(positions);
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        for (Task task : removed) {
+            unindexDetails(task);
+            if (searchIndex != null) {
+                searchIndex.remove(task);
+            }
+            unindexTimes(task);
+        }
+        event.commit(IndexEvent.ALL, "remove", removed.size(), tasks.size());
+        return removed;
     }
 
     /**
@@ -70,7 +228,60 @@ public class TaskList implements Iterable<Task> {
     public void set(int index, Task task) {
         assert index >= 1 && index <= tasks.size() : "Task index out of bounds: " + index;
         assert task != null : "Cannot set a null task";
-        tasks.set(index - 1, task);
+        checkWritable();
+        Task replaced = tasks.set(index - 1, task);
+        IndexEvent event = new IndexEvent();
+        event.begin();
+        unindexDetails(replaced);
+        indexDetails(task);
+        if (searchIndex != null) {
+            searchIndex.replace(replaced, task);
+        }
+        unindexTimes(replaced);
+        indexTimes(task);
+        event.commit(IndexEvent.ALL, "replace", 1, tasks.size());
+    }
+
+    /**
+     * Marks the task at the given 1-based index as done, by replacing it with a marked copy.
+     * Tasks in a list must be marked through this method, never in place, so that snapshots and the
+     * due-date index stay consistent.
+     *
+     * @param index The 1-based index of the task to mark.
+     * @return The marked task now in the list.
+     */
+    public Task mark(int index) {
+        return setDone(index, true);
+    }
+
+    /**
+     * Marks the task at the given 1-based index as not done, by replacing it with an unmarked copy.
+     * Tasks in a list must be unmarked through this method, never in place, so that snapshots and the
+     * due-date index stay consistent.
+     *
+     * @param index The 1-based index of the task to unmark.
+     * @return The unmarked task now in the list.
+     */
+    public Task unmark(int index) {
+        return setDone(index, false);
+    }
+
+    /**
+     * Replaces the task at the given 1-based index with a copy that has the given completion status,
+     * unless it already has that status.
+     *
+     * @param index  The 1-based index of the task.
+     * @param isDone Whether the task should be done.
+     * @return The task now at that index.
+     */
+    private Task setDone(int index, boolean isDone) {
+        Task task = get(index);
+        if (task.isDone() == isDone) {
+            return task;
+        }
+        Task updated = task.withDone(isDone);
+        set(index, updated);
+        return updated;
     }
 
     /**
@@ -81,8 +292,7 @@ public class TaskList implements Iterable<Task> {
      * @return {@code true} if a task with identical details already exists.
      */
     public boolean containsTaskWithDetails(Task candidate) {
-        String key = candidate.getDetailsKey();
-        return tasks.stream().anyMatch(t -> t.getDetailsKey().equals(key));
+        return countDetails(candidate.getDetailsKey()) > 0;
     }
 
     /**
@@ -96,28 +306,243 @@ public class TaskList implements Iterable<Task> {
      */
     public boolean containsTaskWithDetailsExcluding(Task candidate, int excludeIndex) {
         String key = candidate.getDetailsKey();
-        for (int i = 1; i <= tasks.size(); i++) {
-            if (i != excludeIndex && tasks.get(i - 1).getDetailsKey().equals(key)) {
-                return true;
-            }
+        int count = countDetails(key);
+        if (count > 0 && excludeIndex >= 1 && excludeIndex <= tasks.size()
+                && tasks.get(excludeIndex - 1).getDetailsKey().equals(key)) {
+            count--;
         }
-        return false;
+        return count > 0;
     }
 
     /**
      * Finds all tasks whose descriptions contain the given keyword (case-insensitive).
+     * Keywords of three or more characters are answered from a trigram index; shorter keywords, and
+     * keywords on a snapshot taken before the index was built, fall back to a scan.
      *
      * @param keyword The keyword to search for.
      * @return A new TaskList containing the matching tasks.
      */
     public TaskList find(String keyword) {
+        return find(keyword, () -> false);
+    }
+
+    /**
+     * Finds tasks like {@link #find(String)}, but gives up once the given check returns {@code true}.
+     * The check is made every {@value #STOP_CHECK_INTERVAL} tasks while scanning or building the search index,
+     * and an index whose build was given up is dropped rather than kept half-built.
+     *
+     * @param keyword    The keyword to search for.
+     * @param shouldStop Returns whether to give up.
+     * @return A new TaskList containing the matching tasks.
+     * @throws CancellationException If the search was given up.
+     */
+    public TaskList find(String keyword, BooleanSupplier shouldStop) {
         String lowerKeyword = keyword.toLowerCase();
-        List<Task> matches = tasks.stream()
-                .filter(task -> task.getDescription().toLowerCase().contains(lowerKeyword))
-                .collect(Collectors.toList());
+        if (SearchIndex.canSearch(lowerKeyword) && (!isSnapshot || hasSearchIndex())) {
+            return new TaskList(getSearchIndex(shouldStop).find(lowerKeyword));
+        }
+        List<Task> matches = new ArrayList<>();
+        int scanned = 0;
+        for (Task task : tasks) {
+            if (++scanned % STOP_CHECK_INTERVAL == 0 && shouldStop.getAsBoolean()) {
+                throw new CancellationException("Search given up");
+            }
+            if (task.getDescription().toLowerCase().contains(lowerKeyword)) {
+                matches.add(task);
+            }
+        }
         return new TaskList(matches);
     }
 
+    /**
+     * Finds all events that overlap the given time range, ordered by start time.
+     * An event overlaps the range if it starts before {@code to} and ends after {@code from}.
+     * The range is answered from an interval tree in O(log n + k) time for k matching events.
+     *
+     * @param from The start of the range.
+     * @param to   The end of the range.
+     * @return A new TaskList containing the overlapping events.
+     */
+    public TaskList findEventsBetween(LocalDateTime from, LocalDateTime to) {
+        assert from != null && to != null : "Time range must not be null";
+        return new TaskList(new ArrayList<>(getEventIndex().findOverlapping(from, to)));
+    }
+
+    /**
+     * Returns the events that are not done and overlap the given event, ordered by start time.
+     * The event itself is never included, and a done event has no conflicts.
+     * The overlapping events are found with the interval tree in O(log n + k) time.
+     *
+     * @param event The event to check, which may or may not be in this list.
+     * @return The conflicting events.
+     */
+    public List<Event> findConflicts(Event event) {
+        assert event != null : "Event must not be null";
+        if (event.isDone()) {
+            return List.of();
+        }
+        return getEventIndex().findOverlapping(event.getStart(), event.getEnd()).stream()
+                .filter(other -> other != event && !other.isDone())
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Returns every pair of events that are not done and overlap each other.
+     * Events are swept in start order while keeping the events that are still running, so each new event
+     * conflicts with exactly the running events. This takes O(n + p) time for p pairs, since the start
+     * order comes from the interval tree, rather than comparing every pair of events.
+     * Pairs are ordered by the start of the later event, then by the start of the earlier one.
+     *
+     * @return The overlapping pairs.
+     */
+    public List<EventConflict> findAllConflicts() {
+        List<EventConflict> conflicts = new ArrayList<>();
+        List<Event> running = new ArrayList<>();
+        getEventIndex().forEachInStartOrder(event -> {
+            if (event.isDone()) {
+                return;
+            }
+            running.removeIf(other -> !other.getEnd().isAfter(event.getStart()));
+            for (Event other : running) {
+                conflicts.add(new EventConflict(other, event));
+            }
+            running.add(event);
+        });
+        return conflicts;
+    }
+
+    /**
+     * Returns the earliest gaps of at least the given length between {@code from} and {@code to}
+     * that no pending event overlaps, in time order.
+     * Only the events overlapping the window are read, in start order from the interval tree, and their
+     * intervals are merged in a single sweep, so the time taken depends on the window rather than the list.
+     *
+     * @param from     The start of the window.
+     * @param to       The end of the window.
+     * @param duration The minimum length of a gap.
+     * @param limit    The maximum number of gaps to return.
+     * @return The free slots, each covering the whole gap.
+     */
+    public List<TimeSlot> findFreeSlots(LocalDateTime from, LocalDateTime to, Duration duration, int limit) {
+        assert from != null && to != null : "Time window must not be null";
+        assert duration != null && !duration.isNegative() && !duration.isZero() : "Duration must be positive";
+        assert limit > 0 : "Limit must be positive";
+        List<TimeSlot> slots = new ArrayList<>();
+        LocalDateTime freeFrom = from;
+        for (Event event : getEventIndex().findOverlapping(from, to)) {
+            if (event.isDone()) {
+                continue;
+            }
+            if (!Duration.between(freeFrom, event.getStart()).minus(duration).isNegative()) {
+                slots.add(new TimeSlot(freeFrom, event.getStart()));
+                if (slots.size() == limit) {
+                    return slots;
+                }
+            }
+            if (event.getEnd().isAfter(freeFrom)) {
+                freeFrom = event.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(to) && !Duration.between(freeFrom, to).minus(duration).isNegative()) {
+            slots.add(new TimeSlot(freeFrom, to));
+        }
+        return slots;
+    }
+
+    /**
+     * Returns the deadlines that are not done and are due at or before the given time, in due order.
+     * The deadlines are read from a sorted index, so nothing is scanned or sorted. The stream reads the
+     * index as it is now, so later changes to the list do not affect it.
+     *
+     * @param time The latest due time to include.
+     * @return A stream of the matching deadlines.
+     */
+    public Stream<Deadline> streamPendingDeadlinesDueBy(LocalDateTime time) {
+        assert time != null : "Due time must not be null";
+        return getDeadlineIndex().streamDueBy(time);
+    }
+
+    /**
+     * Returns an estimate of the heap memory used by the search index, in bytes.
+     * Returns 0 if no search has been run yet, since the index is built lazily.
+     *
+     * @return The estimated search index memory usage.
+     */
+    public long getSearchIndexMemoryBytes() {
+        return searchIndex == null ? 0 : searchIndex.estimateMemoryBytes();
+    }
+
+    /**
+     * Returns whether the search index has been built, or was carried over when this snapshot was taken.
+     *
+     * @return {@code true} if there is a search index.
+     */
+    private synchronized boolean hasSearchIndex() {
+        return searchIndex != null;
+    }
+
+    /**
+     * Returns the search index, building it from the current tasks on first use.
+     * Like the other index getters, this is synchronized so that threads reading a snapshot build it once.
+     *
+     * @param shouldStop Returns whether to give up building the index.
+     * @return The search index.
+     * @throws CancellationException If the build was given up.
+     */
+    private synchronized SearchIndex getSearchIndex(BooleanSupplier shouldStop) {
+        if (searchIndex == null) {
+            IndexEvent event = new IndexEvent();
+            event.begin();
+            SearchIndex built = new SearchIndex();
+            int added = 0;
+            for (Task task : tasks) {
+                if (++added % STOP_CHECK_INTERVAL == 0 && shouldStop.getAsBoolean()) {
+                    throw new CancellationException("Search index build given up");
+                }
+                built.add(task);
+            }
+            searchIndex = built;
+            event.commit("search", "build", tasks.size(), tasks.size());
+        }
+        return searchIndex;
+    }
+
+    /**
+     * Returns the event index, building it from the current tasks on first use.
+     *
+     * @return The event index.
+     */
+    private synchronized EventIndex getEventIndex() {
+        if (eventIndex == null) {
+            IndexEvent event = new IndexEvent();
+            event.begin();
+            eventIndex = new EventIndex();
+            for (Task task : tasks) {
+                eventIndex.add(task);
+            }
+            event.commit("event", "build", tasks.size(), tasks.size());
+        }
+        return eventIndex;
+    }
+
+    /**
+     * Returns the deadline index, building it from the current tasks on first use.
+     *
+     * @return The deadline index.
+     */
+    private synchronized DeadlineIndex getDeadlineIndex() {
+        if (deadlineIndex == null) {
+            IndexEvent event = new IndexEvent();
+            event.begin();
+            deadlineIndex = new DeadlineIndex();
+            for (Task task : tasks) {
+                deadlineIndex.add(task);
+            }
+            event.commit("deadline", "build", tasks.size(), tasks.size());
+        }
+        return deadlineIndex;
+    }
+
     /**
      * Returns a sequential stream over the tasks in this list.
      *
@@ -127,6 +552,19 @@ public class TaskList implements Iterable<Task> {
         return tasks.stream();
     }
 
+    /**
+     * Returns a sequential stream over the tasks from the given 1-based index to the end of the list.
+     * The first task is found in O(log n), so reading a page of k tasks with {@link Stream#limit} costs
+     * O(log n + k) wherever the page is.
+     *
+     * @param index The 1-based index of the first task, up to {@code size() + 1} for an empty stream.
+     * @return A stream of tasks.
+     */
+    public Stream<Task> streamFrom(int index) {
+        assert index >= 1 && index <= tasks.size() + 1 : "Task index out of bounds: " + index;
+        return tasks.streamFrom(index - 1);
+    }
+
     /**
      * Returns the number of tasks in the list.
      *
@@ -136,6 +574,74 @@ public class TaskList implements Iterable<Task> {
         return tasks.size();
     }
 
+    /**
+     * Returns the number of tasks with the given details key. Snapshots have no counts, so they scan.
+     *
+     * @param key The details key.
+     * @return The number of tasks with that key.
+     */
+    private int countDetails(String key) {
+        if (detailsKeyCounts == null) {
+            return (int) tasks.stream().filter(task -> task.getDetailsKey().equals(key)).count();
+        }
+        return detailsKeyCounts.getOrDefault(key, 0);
+    }
+
+    /**
+     * Throws if this list is a read-only snapshot.
+     */
+    private void checkWritable() {
+        if (isSnapshot) {
+            throw new UnsupportedOperationException("Task list snapshots cannot be changed");
+        }
+    }
+
+    /**
+     * Records the given task's details key in the duplicate-detection index.
+     *
+     * @param task The task being added to the list.
+     */
+    private void indexDetails(Task task) {
+        detailsKeyCounts.merge(task.getDetailsKey(), 1, Integer::sum);
+    }
+
+    /**
+     * Removes one occurrence of the given task's details key from the duplicate-detection index.
+     *
+     * @param task The task being removed from the list.
+     */
+    private void unindexDetails(Task task) {
+        detailsKeyCounts.computeIfPresent(task.getDetailsKey(), (key, count) -> count > 1 ? count - 1 : null);
+    }
+
+    /**
+     * Adds the given task to the time-based indexes that have been built.
+     *
+     * @param task The task being added to the list.
+     */
+    private void indexTimes(Task task) {
+        if (eventIndex != null) {
+            eventIndex.add(task);
+        }
+        if (deadlineIndex != null) {
+            deadlineIndex.add(task);
+        }
+    }
+
+    /**
+     * Removes the given task from the time-based indexes that have been built.
+     *
+     * @param task The task being removed from the list.
+     */
+    private void unindexTimes(Task task) {
+        if (eventIndex != null) {
+            eventIndex.remove(task);
+        }
+        if (deadlineIndex != null) {
+            deadlineIndex.remove(task);
+        }
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -0,0 +1,354 @@
+package flora.task;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Stores tasks in fixed-size chunks, each holding up to {@value #CHUNK_SIZE} tasks packed at its front.
+ * A Fenwick tree over the chunk sizes counts the tasks up to each chunk, so the chunk holding the k-th task
+ * is found in O(log n), and positional {@code get}, {@code set} and {@code remove} only touch that chunk.
+ * Removing a task shifts at most one chunk; chunks are repacked in a single O(n) pass once they are less
+ * than a quarter full on average, which keeps memory bounded and costs O(1) amortized per removal.
+ *
+ * <p>{@link #snapshot()} shares the chunks instead of copying the tasks, so it costs O(n / CHUNK_SIZE).
+ * A shared chunk is copied the first time either side changes it, so neither sees the other's changes.
+ */
+class TaskSlots implements Iterable<Task> {
+    /** The most tasks a chunk holds, and so the most that a change copies or shifts. */
+    private static final int CHUNK_SIZE = 256;
+    private static final int INITIAL_CHUNKS = 4;
+    private static final int MIN_CHUNKS_TO_REPACK = 4;
+
+    private Task[][] chunks;
+    private int[] chunkSizes;
+    /** Fenwick tree over the chunk sizes, 1-based: tree[i] counts tasks in chunks (i - lowbit(i), i]. */
+    private int[] tree;
+    /** Chunks that a snapshot may also hold, which must be copied before they are changed. */
+    private final BitSet shared = new BitSet();
+    private int chunkCount = 0;
+    private int size = 0;
+
+    /**
+     * Constructs slots holding the given tasks in order.
+     *
+     * @param initial The initial tasks.
+     */
+    TaskSlots(Iterable<Task> initial) {
+        pack(initial.iterator());
+    }
+
+    /**
+     * Constructs slots that share every chunk of the given slots.
+     *
+     * @param source The slots to share.
+     */
+    private TaskSlots(TaskSlots source) {
+        chunks = source.chunks.clone();
+        chunkSizes = source.chunkSizes.clone();
+        tree = source.tree.clone();
+        chunkCount = source.chunkCount;
+        size = source.size;
+        shared.set(0, chunkCount);
+    }
+
+    /**
+     * Returns an independent copy of these slots that shares their chunks.
+     * Changes to either copy afterwards are not seen by the other.
+     *
+     * @return The copy.
+     */
+    TaskSlots snapshot() {
+        shared.set(0, chunkCount);
+        return new TaskSlots(this);
+    }
+
+    /**
+     * Returns the number of tasks.
+     *
+     * @return The number of tasks.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Appends a task after the last task.
+     *
+     * @param task The task to append.
+     */
+    void add(Task task) {
+        if (chunkCount == 0 || chunkSizes[chunkCount - 1] == CHUNK_SIZE) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, chunks.length * 2);
+                chunkSizes = Arrays.copyOf(chunkSizes, chunks.length);
+                rebuildTree();
+            }
+            chunks[chunkCount++] = new Task[CHUNK_SIZE];
+        }
+        int last = chunkCount - 1;
+        writableChunk(last)[chunkSizes[last]] = task;
+        chunkSizes[last]++;
+        size++;
+        update(last + 1, 1);
+    }
+
+    /**
+     * Returns the task at the given 0-based position.
+     *
+     * @param position The 0-based position.
+     * @return The task at that position.
+     */
+    Task get(int position) {
+        long location = locate(position);
+        return chunks[chunkOf(location)][offsetOf(location)];
+    }
+
+    /**
+     * Replaces the task at the given 0-based position.
+     *
+     * @param position The 0-based position.
+     * @param task     The new task.
+     * @return The task previously at that position.
+     */
+    Task set(int position, Task task) {
+        long location = locate(position);
+        Task[] chunk = writableChunk(chunkOf(location));
+        Task old = chunk[offsetOf(location)];
+        chunk[offsetOf(location)] = task;
+        return old;
+    }
+
+    /**
+     * Removes the task at the given 0-based position. Only the later tasks in the same chunk are moved.
+     *
+     * @param position The 0-based position.
+     * @return The removed task.
+     */
+    Task remove(int position) {
+        long location = locate(position);
+        int index = chunkOf(location);
+        int offset = offsetOf(location);
+        Task[] chunk = writableChunk(index);
+        Task removed = chunk[offset];
+        int chunkSize = chunkSizes[index];
+        System.arraycopy(chunk, offset + 1, chunk, offset, chunkSize - offset - 1);
+        chunk[chunkSize - 1] = null;
+        chunkSizes[index]--;
+        size--;
+        update(index + 1, -1);
+        if (chunkCount >= MIN_CHUNKS_TO_REPACK && (long) chunkCount * CHUNK_SIZE > 4L * size) {
+            pack(iterator());
+        }
+        return removed;
+    }
+
+    /**
+     * Removes the tasks at the given 0-based positions in a single pass that also repacks the chunks,
+     * which is O(n) however many tasks are removed.
+     *
+     * @param sortedPositions The distinct positions to remove, in ascending order.
+     * @return The removed tasks, in list order.
+     */
+    List<Task> removeAll(int[] sortedPositions) {
+        List<Task> removed = new ArrayList<>(sortedPositions.length);
+        List<Task> kept = new ArrayList<>(Math.max(0, size - sortedPositions.length));
+        int next = 0;
+        int position = 0;
+        for (Task task : this) {
+            if (next < sortedPositions.length && sortedPositions[next] == position) {
+                removed.add(task);
+                next++;
+            } else {
+                kept.add(task);
+            }
+            position++;
+        }
+        assert next == sortedPositions.length : "Positions must be distinct, sorted and in bounds";
+        pack(kept.iterator());
+        return removed;
+    }
+
+    /**
+     * Returns a sequential stream over the tasks, in order.
+     *
+     * @return A stream of tasks.
+     */
+    Stream<Task> stream() {
+        return streamFrom(0);
+    }
+
+    /**
+     * Returns a sequential stream over the tasks from the given 0-based position to the end.
+     * The first task is found in O(log n) and the rest are read in chunk order, so taking the first
+     * k tasks of the stream costs O(log n + k).
+     *
+     * @param position The 0-based position of the first task, between 0 and {@code size()}.
+     * @return A stream of tasks.
+     */
+    Stream<Task> streamFrom(int position) {
+        Spliterator<Task> spliterator = Spliterators.spliterator(iteratorFrom(position), size - position,
+                Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(spliterator, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     * The returned iterator does not support removal.
+     */
+    @Override
+    public Iterator<Task> iterator() {
+        return iteratorFrom(0);
+    }
+
+    /**
+     * Returns an iterator over the tasks from the given 0-based position to the end.
+     *
+     * @param position The 0-based position of the first task, between 0 and {@code size()}.
+     * @return The iterator.
+     */
+    private Iterator<Task> iteratorFrom(int position) {
+        assert position >= 0 && position <= size : "Position out of bounds: " + position;
+        long start = position == size ? (long) chunkCount << 32 : locate(position);
+        return new Iterator<>() {
+            private int chunk = chunkOf(start);
+            private int offset = offsetOf(start);
+
+            @Override
+            public boolean hasNext() {
+                while (chunk < chunkCount && offset >= chunkSizes[chunk]) {
+                    chunk++;
+                    offset = 0;
+                }
+                return chunk < chunkCount;
+            }
+
+            @Override
+            public Task next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return chunks[chunk][offset++];
+            }
+        };
+    }
+
+    /**
+     * Returns the chunk holding the task at the given 0-based position and the task's offset in it,
+     * by descending the Fenwick tree from its highest power of two.
+     *
+     * @param position The 0-based position, between 0 and {@code size() - 1}.
+     * @return The 0-based chunk index in the high 32 bits and the offset in the low 32 bits.
+     */
+    private long locate(int position) {
+        assert position >= 0 && position < size : "Position out of bounds: " + position;
+        int chunk = 0;
+        int remaining = position + 1;
+        for (int step = Integer.highestOneBit(chunks.length); step > 0; step >>= 1) {
+            int next = chunk + step;
+            if (next <= chunks.length && tree[next] < remaining) {
+                chunk = next;
+                remaining -= tree[next];
+            }
+        }
+        // chunk is now the number of chunks whose prefix holds fewer than position + 1 tasks
+        return (long) chunk << 32 | (remaining - 1);
+    }
+
+    /**
+     * Returns the chunk index of a location returned by {@link #locate(int)}.
+     *
+     * @param location The location.
+     * @return The 0-based chunk index.
+     */
+    private static int chunkOf(long location) {
+        return (int) (location >>> 32);
+    }
+
+    /**
+     * Returns the offset within its chunk of a location returned by {@link #locate(int)}.
+     *
+     * @param location The location.
+     * @return The 0-based offset.
+     */
+    private static int offsetOf(long location) {
+        return (int) location;
+    }
+
+    /**
+     * Returns the given chunk, first copying it if a snapshot may also hold it.
+     *
+     * @param index The 0-based chunk index.
+     * @return A chunk that only these slots hold.
+     */
+    private Task[] writableChunk(int index) {
+        if (shared.get(index)) {
+            chunks[index] = chunks[index].clone();
+            shared.clear(index);
+        }
+        return chunks[index];
+    }
+
+    /**
+     * Replaces the chunks with full chunks holding the given tasks in order.
+     * The new chunks are never shared, and the old ones are left untouched for any snapshot holding them.
+     *
+     * @param source The tasks to hold.
+     */
+    private void pack(Iterator<Task> source) {
+        Task[][] packed = new Task[INITIAL_CHUNKS][];
+        int[] packedSizes = new int[INITIAL_CHUNKS];
+        int packedCount = 0;
+        int packedSize = 0;
+        while (source.hasNext()) {
+            if (packedCount == 0 || packedSizes[packedCount - 1] == CHUNK_SIZE) {
+                if (packedCount == packed.length) {
+                    packed = Arrays.copyOf(packed, packed.length * 2);
+                    packedSizes = Arrays.copyOf(packedSizes, packed.length);
+                }
+                packed[packedCount++] = new Task[CHUNK_SIZE];
+            }
+            packed[packedCount - 1][packedSizes[packedCount - 1]++] = source.next();
+            packedSize++;
+        }
+        chunks = packed;
+        chunkSizes = packedSizes;
+        chunkCount = packedCount;
+        size = packedSize;
+        shared.clear();
+        rebuildTree();
+    }
+
+    /**
+     * Adds a delta to the task count of the given 1-based chunk.
+     *
+     * @param chunk The 1-based chunk.
+     * @param delta The change in tasks.
+     */
+    private void update(int chunk, int delta) {
+        for (int i = chunk; i <= chunks.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Rebuilds the Fenwick tree from the chunk sizes in O(n / CHUNK_SIZE).
+     */
+    private void rebuildTree() {
+        tree = new int[chunks.length + 1];
+        for (int i = 1; i <= chunks.length; i++) {
+            tree[i] += chunkSizes[i - 1];
+            int parent = i + (i & -i);
+            if (parent <= chunks.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+}
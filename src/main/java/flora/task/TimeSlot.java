@@ -0,0 +1,18 @@
+package flora.task;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Holds a period of time from {@code start} to {@code end}.
+ */
+public record TimeSlot(LocalDateTime start, LocalDateTime end) {
+    /**
+     * Returns the length of this slot.
+     *
+     * @return The time between the start and the end.
+     */
+    public Duration getDuration() {
+        return Duration.between(start, end);
+    }
+}
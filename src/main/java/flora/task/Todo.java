@@ -25,6 +25,14 @@ public class Todo extends Task {
         return "T";
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    protected Task copy() {
+        return new Todo(description);
+    }
+
     /**
      * {@inheritDoc}
      * Todos only support /desc. Any date fields are collected as invalid and ignored.
@@ -0,0 +1,47 @@
+package flora.ui;
+
+import javafx.scene.control.ListCell;
+import javafx.scene.image.Image;
+
+/**
+ * A transcript cell that shows one chat message in a dialog box.
+ * The list view only creates enough cells to fill the window, and each cell reuses its dialog box for
+ * whichever message it is showing, so scrolling a long transcript creates no new nodes.
+ */
+class ChatCell extends ListCell<ChatMessage> {
+    /** Room left beside the dialog box for the list view's scroll bar. */
+    private static final double SCROLL_BAR_ALLOWANCE = 14;
+
+    private final Image userImage;
+    private final Image floraImage;
+    private DialogBox dialogBox = null;
+
+    /**
+     * Constructs a cell that shows messages with the given profile images.
+     *
+     * @param userImage  The user's profile image.
+     * @param floraImage Flora's profile image.
+     */
+    ChatCell(Image userImage, Image floraImage) {
+        this.userImage = userImage;
+        this.floraImage = floraImage;
+        // lets the cell shrink to the list view's width, so long messages wrap instead of scrolling sideways
+        setPrefWidth(0);
+    }
+
+    @Override
+    protected void updateItem(ChatMessage message, boolean isEmpty) {
+        super.updateItem(message, isEmpty);
+        setText(null);
+        if (isEmpty || message == null) {
+            setGraphic(null);
+            return;
+        }
+        if (dialogBox == null) {
+            dialogBox = new DialogBox();
+            dialogBox.prefWidthProperty().bind(getListView().widthProperty().subtract(SCROLL_BAR_ALLOWANCE));
+        }
+        dialogBox.show(message, message.isFromFlora() ? floraImage : userImage);
+        setGraphic(dialogBox);
+    }
+}
@@ -0,0 +1,75 @@
+package flora.ui;
+
+/**
+ * Represents one message in the chat transcript.
+ *
+ * @param kind Who sent the message and how it should be shown.
+ * @param text The message text.
+ */
+public record ChatMessage(Kind kind, String text) {
+    /** The text shown while Flora is still working on a reply. */
+    private static final String PENDING_TEXT = "...";
+    private static final String ERROR_PREFIX = "Error: ";
+
+    /**
+     * The kinds of chat message.
+     */
+    public enum Kind {
+        /** Input typed by the user. */
+        USER,
+        /** A normal reply from Flora. */
+        REPLY,
+        /** A reply from Flora reporting an error. */
+        ERROR,
+        /** A placeholder for a reply Flora is still working on. */
+        PENDING
+    }
+
+    /**
+     * Creates a message echoing the user's input.
+     *
+     * @param text The user's input.
+     * @return The message.
+     */
+    public static ChatMessage ofUser(String text) {
+        return new ChatMessage(Kind.USER, text);
+    }
+
+    /**
+     * Creates a message for Flora's response, which is an error if the response starts with {@code "Error: "}.
+     *
+     * @param response Flora's response text.
+     * @return The message.
+     */
+    public static ChatMessage ofResponse(String response) {
+        return new ChatMessage(response.startsWith(ERROR_PREFIX) ? Kind.ERROR : Kind.REPLY, response);
+    }
+
+    /**
+     * Creates an error message from Flora.
+     *
+     * @param text The error text.
+     * @return The message.
+     */
+    public static ChatMessage ofError(String text) {
+        return new ChatMessage(Kind.ERROR, text);
+    }
+
+    /**
+     * Creates a placeholder for a reply Flora is still working on.
+     *
+     * @return The message.
+     */
+    public static ChatMessage ofPending() {
+        return new ChatMessage(Kind.PENDING, PENDING_TEXT);
+    }
+
+    /**
+     * Returns whether the message was sent by Flora rather than the user.
+     *
+     * @return {@code true} for Flora's messages.
+     */
+    public boolean isFromFlora() {
+        return kind != Kind.USER;
+    }
+}
@@ -0,0 +1,221 @@
+package flora.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import flora.Flora;
+import flora.command.Command;
+import flora.exception.FloraException;
+
+/**
+ * Runs user input through Flora on a single background thread, so that a slow command never blocks
+ * the thread that submitted it. Commands run one at a time in submission order, which keeps Flora's
+ * task list single-writer, and each reply is delivered through a callback executor, e.g.
+ * {@code Platform::runLater} to get back onto the JavaFX application thread.
+ *
+ * <p>Cancelling drops every command still waiting, which is then never run, and stops a running read-only
+ * command such as {@code list} or {@code find}. A running command that changes the task list is allowed to
+ * finish, since it may be partway through changing or saving the list, and its real reply is delivered.
+ */
+public class CommandRunner {
+    /** How long {@link #close()} waits for queued commands to finish. */
+    private static final long CLOSE_TIMEOUT_SECONDS = 10;
+
+    /**
+     * Holds Flora's reply to one submitted input.
+     *
+     * @param text        The response text, or {@code null} if the command was cancelled.
+     * @param isExit      Whether the command asked the application to exit.
+     * @param isCancelled Whether the command was cancelled before its reply was delivered.
+     */
+    public record Reply(String text, boolean isExit, boolean isCancelled) {
+        private static final Reply CANCELLED = new Reply(null, false, true);
+    }
+
+    /**
+     * A submitted input whose reply is delivered exactly once, either as the command's response or as a
+     * cancellation, whichever happens first.
+     */
+    private final class Submission implements Runnable {
+        private final String input;
+        private final Consumer<Reply> onReply;
+        private boolean isSettled = false;
+        /** The command once it has started running, or {@code null} while it is waiting. */
+        private Command command = null;
+
+        private Submission(String input, Consumer<Reply> onReply) {
+            this.input = input;
+            this.onReply = onReply;
+        }
+
+        @Override
+        public void run() {
+            synchronized (CommandRunner.this) {
+                if (isSettled) {
+                    return;
+                }
+            }
+            Command parsed;
+            try {
+                parsed = flora.parse(input);
+            } catch (FloraException e) {
+                settle(new Reply("Error: " + e.getMessage(), false, false));
+                return;
+            }
+            synchronized (CommandRunner.this) {
+                if (isSettled) {
+                    return;
+                }
+                command = parsed;
+            }
+            String text = flora.getResponse(parsed);
+            settle(new Reply(text, flora.isExit(), false));
+        }
+
+        /**
+         * Cancels this submission if it is still waiting, or if it is running a read-only command,
+         * which is asked to stop. A running command that changes the task list is left to deliver its reply.
+         * The check and the settling happen under one lock, so the command cannot start in between.
+         *
+         * @return {@code true} if this call delivered the cancellation.
+         */
+        private boolean cancel() {
+            synchronized (CommandRunner.this) {
+                if (isSettled || (command != null && !command.isReadOnly())) {
+                    return false;
+                }
+                if (command != null) {
+                    command.cancel();
+                }
+                markSettled();
+            }
+            deliver(Reply.CANCELLED);
+            return true;
+        }
+
+        /**
+         * Delivers the given reply unless one has already been delivered.
+         *
+         * @param reply The reply to deliver.
+         * @return {@code true} if this call delivered the reply.
+         */
+        private boolean settle(Reply reply) {
+            synchronized (CommandRunner.this) {
+                if (isSettled) {
+                    return false;
+                }
+                markSettled();
+            }
+            deliver(reply);
+            return true;
+        }
+
+        /**
+         * Marks this submission as settled. Must be called while holding the runner's lock.
+         */
+        private void markSettled() {
+            assert Thread.holdsLock(CommandRunner.this) : "Settling must hold the runner's lock";
+            isSettled = true;
+            unfinished.remove(this);
+        }
+
+        /**
+         * Hands the given reply to the callback executor. Called outside the lock, since the executor may
+         * run the callback on this thread.
+         *
+         * @param reply The reply to deliver.
+         */
+        private void deliver(Reply reply) {
+            callbackExecutor.execute(() -> onReply.accept(reply));
+        }
+    }
+
+    private final Flora flora;
+    private final Executor callbackExecutor;
+    private final ExecutorService executor;
+    private final Set<Submission> unfinished = new LinkedHashSet<>();
+
+    /**
+     * Constructs a runner for the given Flora instance and starts its command thread.
+     *
+     * @param flora            The Flora instance that handles input. It must not be used by other threads.
+     * @param callbackExecutor The executor that delivers replies, in the order the commands finish.
+     */
+    public CommandRunner(Flora flora, Executor callbackExecutor) {
+        assert flora != null : "Flora must not be null";
+        assert callbackExecutor != null : "Callback executor must not be null";
+        this.flora = flora;
+        this.callbackExecutor = callbackExecutor;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flora-command");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the given input to run after every input submitted before it.
+     *
+     * @param input   The raw user input.
+     * @param onReply Receives the reply, or a cancelled reply, on the callback executor.
+     */
+    public void submit(String input, Consumer<Reply> onReply) {
+        assert input != null && onReply != null : "Input and reply callback must not be null";
+        Submission submission = new Submission(input, onReply);
+        synchronized (this) {
+            unfinished.add(submission);
+        }
+        executor.execute(submission);
+    }
+
+    /**
+     * Cancels every waiting command and every running read-only command, delivering a cancelled reply for each.
+     *
+     * @return The number of commands cancelled.
+     */
+    public int cancelAll() {
+        List<Submission> cancelled;
+        synchronized (this) {
+            cancelled = new ArrayList<>(unfinished);
+        }
+        int count = 0;
+        for (Submission submission : cancelled) {
+            if (submission.cancel()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Returns whether any submitted command has not finished yet.
+     *
+     * @return {@code true} if a command is waiting or running.
+     */
+    public synchronized boolean isBusy() {
+        return !unfinished.isEmpty();
+    }
+
+    /**
+     * Stops accepting commands and waits for the queued ones to finish, so that their changes are
+     * saved before the application exits.
+     *
+     * @return {@code true} if every queued command finished in time.
+     */
+    public boolean close() {
+        executor.shutdown();
+        try {
+            return executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
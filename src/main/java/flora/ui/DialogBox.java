@@ -1,96 +1,85 @@
 package flora.ui;
 
-import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
-import javafx.fxml.FXML;
-import javafx.fxml.FXMLLoader;
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.control.Label;
 import javafx.scene.image.Image;
 import javafx.scene.image.ImageView;
 import javafx.scene.layout.HBox;
+import javafx.scene.layout.Priority;
+import javafx.scene.layout.Region;
 
 /**
  * Represents a dialog box consisting of an ImageView to represent the speaker's face
  * and a label containing text from the speaker.
+ * A dialog box is reused for different messages as the transcript scrolls, see {@link #show}.
+ *
+ * <p>The layout is built in code rather than loaded from FXML, since parsing the FXML for every box cost
+ * far more than filling it in. The stylesheet is parsed once and shared by every box.
  */
 public class DialogBox extends HBox {
-    @FXML
-    private Label dialog;
-    @FXML
-    private ImageView displayPicture;
+    private static final List<String> MESSAGE_STYLE_CLASSES = List.of("reply-label", "error-label", "pending-label");
+    private static final String STYLESHEET = DialogBox.class.getResource("/css/dialog-box.css").toExternalForm();
+    private static final double PICTURE_SIZE = 36;
+    private static final double SPACING = 8;
+    private static final Insets PADDING = new Insets(6, 8, 6, 8);
+
+    private final Label dialog = new Label();
+    private final ImageView displayPicture = new ImageView();
 
     /**
-     * Constructs a DialogBox by loading the FXML layout and setting the display text and image.
-     *
-     * @param text The text to display in the dialog label.
-     * @param img  The image to display as the speaker's profile picture.
+     * Constructs an empty DialogBox with the text on the left and the image on the right.
      */
-    private DialogBox(String text, Image img) {
-        try {
-            FXMLLoader fxmlLoader = new FXMLLoader(MainWindow.class.getResource("/view/DialogBox.fxml"));
-            fxmlLoader.setController(this);
-            fxmlLoader.setRoot(this);
-            fxmlLoader.load();
-        } catch (IOException e) {
-            e.printStackTrace();
-        }
+    public DialogBox() {
+        dialog.setMinHeight(Region.USE_PREF_SIZE);
+        dialog.setWrapText(true);
+        HBox.setHgrow(dialog, Priority.ALWAYS);
 
-        dialog.setText(text);
-        displayPicture.setImage(img);
-    }
+        displayPicture.setId("displayPicture");
+        displayPicture.setFitWidth(PICTURE_SIZE);
+        displayPicture.setFitHeight(PICTURE_SIZE);
+        displayPicture.setPreserveRatio(true);
+        displayPicture.setPickOnBounds(true);
 
-    /**
-     * Flips the dialog box such that the ImageView is on the left and text on the right.
-     */
-    private void flip() {
-        ObservableList<Node> reversedChildren = FXCollections.observableArrayList(this.getChildren());
-        Collections.reverse(reversedChildren);
-        getChildren().setAll(reversedChildren);
-        setAlignment(Pos.TOP_LEFT);
-        dialog.getStyleClass().add("reply-label");
+        setAlignment(Pos.TOP_RIGHT);
+        setSpacing(SPACING);
+        setPadding(PADDING);
+        setMaxSize(Double.MAX_VALUE, Double.MAX_VALUE);
+        getStylesheets().add(STYLESHEET);
+        getChildren().addAll(dialog, displayPicture);
     }
 
     /**
-     * Creates a dialog box for the user's message. The profile picture is hidden
-     * to give a clean, asymmetric chat appearance.
+     * Shows the given message. The user's messages have the text on the left and the image on the right;
+     * Flora's messages are flipped, with the image on the left, and styled by the kind of message.
      *
-     * @param text The user's message text.
-     * @param img  The user's profile image (not displayed).
-     * @return A new DialogBox for the user.
+     * @param message The message to show.
+     * @param img     The speaker's profile image.
      */
-    public static DialogBox getUserDialog(String text, Image img) {
-        return new DialogBox(text, img);
-    }
+    public void show(ChatMessage message, Image img) {
+        dialog.setText(message.text());
+        displayPicture.setImage(img);
 
-    /**
-     * Creates a dialog box for Flora's reply, flipped so the image appears on the left.
-     *
-     * @param text Flora's response text.
-     * @param img  Flora's profile image.
-     * @return A new flipped DialogBox for Flora.
-     */
-    public static DialogBox getFloraDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        return db;
-    }
+        boolean isFlipped = message.isFromFlora();
+        if (isFlipped != (getChildren().get(0) == displayPicture)) {
+            ObservableList<Node> reversedChildren = FXCollections.observableArrayList(this.getChildren());
+            Collections.reverse(reversedChildren);
+            getChildren().setAll(reversedChildren);
+        }
+        setAlignment(isFlipped ? Pos.TOP_LEFT : Pos.TOP_RIGHT);
 
-    /**
-     * Creates an error dialog box for Flora's error responses, styled to catch the user's attention.
-     *
-     * @param text The error message text.
-     * @param img  Flora's profile image.
-     * @return A new flipped DialogBox styled as an error.
-     */
-    public static DialogBox getFloraErrorDialog(String text, Image img) {
-        var db = new DialogBox(text, img);
-        db.flip();
-        db.dialog.getStyleClass().add("error-label");
-        return db;
+        dialog.getStyleClass().removeAll(MESSAGE_STYLE_CLASSES);
+        dialog.getStyleClass().addAll(switch (message.kind()) {
+        case USER -> List.of();
+        case REPLY -> List.of("reply-label");
+        case ERROR -> List.of("reply-label", "error-label");
+        case PENDING -> List.of("reply-label", "pending-label");
+        });
     }
 }
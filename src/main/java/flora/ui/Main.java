@@ -4,6 +4,7 @@ import java.io.IOException;
 
 import flora.Flora;
 import javafx.application.Application;
+import javafx.application.Platform;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Scene;
 import javafx.scene.layout.AnchorPane;
@@ -13,7 +14,12 @@ import javafx.stage.Stage;
  * A GUI for Flora using FXML.
  */
 public class Main extends Application {
+    /** The number of chat messages kept in memory before older ones are spilled to disk. */
+    private static final int TRANSCRIPT_CAPACITY = 500;
+
     private final Flora flora = new Flora();
+    private CommandRunner commandRunner = null;
+    private Transcript transcript = null;
 
     /**
      * Sets up and displays the primary application window.
@@ -32,10 +38,34 @@ public class Main extends Application {
             stage.setMinHeight(220);
             stage.setMinWidth(417);
 
-            fxmlLoader.<MainWindow>getController().setFlora(flora);
+            commandRunner = new CommandRunner(flora, Platform::runLater);
+            transcript = Transcript.createTemporary(TRANSCRIPT_CAPACITY);
+            fxmlLoader.<MainWindow>getController().setFlora(flora, commandRunner, transcript);
             stage.show();
         } catch (IOException e) {
             e.printStackTrace();
         }
     }
+
+    /**
+     * Lets queued commands finish, then makes sure every queued save reaches the disk
+     * before the application exits. Also deletes the spilled chat history.
+     */
+    @Override
+    public void stop() {
+        if (commandRunner != null && !commandRunner.close()) {
+            System.err.println("Error: Gave up waiting for unfinished commands");
+        }
+        String error = flora.flushStorage();
+        if (error != null) {
+            System.err.println(error);
+        }
+        if (transcript != null) {
+            try {
+                transcript.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
 }
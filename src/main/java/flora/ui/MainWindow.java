@@ -1,72 +1,159 @@
 package flora.ui;
 
+import java.io.IOException;
+import java.util.List;
+
 import flora.Flora;
 import javafx.animation.PauseTransition;
 import javafx.application.Platform;
+import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
-import javafx.scene.control.ScrollPane;
+import javafx.scene.control.IndexedCell;
+import javafx.scene.control.ListView;
 import javafx.scene.control.TextField;
+import javafx.scene.control.skin.VirtualFlow;
 import javafx.scene.image.Image;
+import javafx.scene.input.KeyCode;
+import javafx.scene.input.ScrollEvent;
 import javafx.scene.layout.AnchorPane;
-import javafx.scene.layout.VBox;
 import javafx.util.Duration;
 /**
  * Controller for the main GUI.
+ * Commands run on a {@link CommandRunner} so the window stays responsive while they execute.
+ * Pressing Escape in the input field cancels every command that has not finished yet.
+ *
+ * <p>The chat is a list view over the messages a {@link Transcript} holds in memory. The list view only
+ * lays out the messages on screen, and the transcript spills old messages to disk, so a long session
+ * neither slows down nor keeps growing. Scrolling up past the oldest message pages earlier ones back in.
  */
 public class MainWindow extends AnchorPane {
     @FXML
-    private ScrollPane scrollPane;
-    @FXML
-    private VBox dialogContainer;
+    private ListView<ChatMessage> transcriptView;
     @FXML
     private TextField userInput;
 
-    private Flora flora;
+    private CommandRunner commandRunner;
+    private Transcript transcript;
 
     private final Image userImage = new Image(this.getClass().getResourceAsStream("/images/User.png"));
     private final Image floraImage = new Image(this.getClass().getResourceAsStream("/images/Flora.png"));
 
     /**
-     * Initializes the controller, binding the scroll pane to always scroll to the bottom.
+     * Initializes the controller, setting up the transcript cells, paging in older messages when scrolling
+     * up past the top, and letting Escape cancel unfinished commands.
      */
     @FXML
     public void initialize() {
-        scrollPane.vvalueProperty().bind(dialogContainer.heightProperty());
+        transcriptView.setCellFactory(view -> new ChatCell(userImage, floraImage));
+        transcriptView.setFocusTraversable(false);
+        transcriptView.addEventFilter(ScrollEvent.SCROLL, event -> {
+            if (event.getDeltaY() > 0 && isScrolledToTop()) {
+                loadOlderMessages();
+            }
+        });
+        userInput.setOnKeyPressed(event -> {
+            if (event.getCode() == KeyCode.ESCAPE && commandRunner != null) {
+                commandRunner.cancelAll();
+            }
+        });
     }
 
     /**
-     * Injects the Flora instance and displays the welcome message.
+     * Injects the Flora instance, the runner that executes its commands and the transcript that holds the
+     * chat history, and displays the welcome message.
      *
-     * @param flora The Flora instance to use for handling user input.
+     * @param flora         The Flora instance, used here only for the welcome message.
+     * @param commandRunner The runner that executes user input on Flora.
+     * @param transcript    The empty transcript to record the chat in.
      */
-    public void setFlora(Flora flora) {
-        this.flora = flora;
-        dialogContainer.getChildren().add(
-                DialogBox.getFloraDialog(this.flora.getWelcomeMessage(), floraImage)
-        );
+    public void setFlora(Flora flora, CommandRunner commandRunner, Transcript transcript) {
+        this.commandRunner = commandRunner;
+        this.transcript = transcript;
+        addMessage(ChatMessage.ofResponse(flora.getWelcomeMessage()));
     }
 
     /**
-     * Creates two dialog boxes, one echoing user input and the other containing Flora's reply and then appends them to
-     * the dialog container. Clears the user input after processing.
+     * Echoes the user input followed by a pending reply, and submits the input to the command runner.
+     * The pending reply is replaced by Flora's reply once the command finishes.
+     * Clears the user input straight away so the next command can be typed.
      */
     @FXML
     private void handleUserInput() {
         String input = userInput.getText();
-        String response = flora.getResponse(input);
-        boolean isError = response.startsWith("Error: ");
-        DialogBox floraBox = isError
-                ? DialogBox.getFloraErrorDialog(response, floraImage)
-                : DialogBox.getFloraDialog(response, floraImage);
-        dialogContainer.getChildren().addAll(
-                DialogBox.getUserDialog(input, userImage),
-                floraBox
-        );
+        addMessage(ChatMessage.ofUser(input));
+        long pendingIndex = addMessage(ChatMessage.ofPending());
         userInput.clear();
-        if (flora.isExit()) {
+        commandRunner.submit(input, reply -> showReply(pendingIndex, reply));
+    }
+
+    /**
+     * Replaces a pending reply with Flora's reply, and schedules the exit if the command asked for it.
+     * If the pending reply has already been spilled from memory, Flora's reply is appended instead.
+     * Must be called on the JavaFX application thread.
+     *
+     * @param pendingIndex The transcript index of the pending reply.
+     * @param reply        The reply to the command.
+     */
+    private void showReply(long pendingIndex, CommandRunner.Reply reply) {
+        ChatMessage message = reply.isCancelled()
+                ? ChatMessage.ofError("Cancelled.")
+                : ChatMessage.ofResponse(reply.text());
+        int position = transcript.replace(pendingIndex, message);
+        if (position != -1) {
+            transcriptView.getItems().set(position, message);
+            transcriptView.scrollTo(transcriptView.getItems().size() - 1);
+        } else {
+            addMessage(message);
+        }
+        if (reply.isExit()) {
             PauseTransition delay = new PauseTransition(Duration.seconds(1.5));
             delay.setOnFinished(event -> Platform.exit());
             delay.play();
         }
     }
+
+    /**
+     * Appends a message to the transcript and the list view, drops the same messages from the list view
+     * as the transcript drops from memory, and scrolls to the bottom.
+     *
+     * @param message The message to append.
+     * @return The transcript index of the message.
+     */
+    private long addMessage(ChatMessage message) {
+        long index = transcript.getTotalCount();
+        ObservableList<ChatMessage> items = transcriptView.getItems();
+        items.add(message);
+        int dropped = transcript.add(message);
+        items.remove(0, dropped);
+        transcriptView.scrollTo(items.size() - 1);
+        return index;
+    }
+
+    /**
+     * Pages the messages just before the oldest one shown back into the list view, keeping the view
+     * on the message that was at the top.
+     */
+    private void loadOlderMessages() {
+        if (!transcript.hasOlder()) {
+            return;
+        }
+        try {
+            List<ChatMessage> older = transcript.loadOlder();
+            transcriptView.getItems().addAll(0, older);
+            transcriptView.scrollTo(older.size());
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Returns whether the first message in the list view is on screen.
+     *
+     * @return {@code true} if the list view is scrolled to the top.
+     */
+    private boolean isScrolledToTop() {
+        VirtualFlow<?> flow = (VirtualFlow<?>) transcriptView.lookup(".virtual-flow");
+        IndexedCell<?> firstCell = flow == null ? null : flow.getFirstVisibleCell();
+        return firstCell != null && firstCell.getIndex() == 0;
+    }
 }
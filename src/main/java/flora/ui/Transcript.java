@@ -0,0 +1,234 @@
+package flora.ui;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Holds the chat history with a bounded number of messages in memory.
+ *
+ * <p>Messages are numbered from 0 in the order they are added, and the messages in memory are always the
+ * most recent ones plus any pages read back by {@link #loadOlder()}. Once more than the capacity are in
+ * memory, the oldest messages are dropped a page at a time. A page that has never been dropped before is
+ * first appended to a spill file, so it can be paged back in later; the file offset of every page is kept,
+ * which costs a few bytes per hundred messages.
+ */
+public class Transcript implements Closeable {
+    /** The number of messages spilled to, and read back from, the spill file at a time. */
+    public static final int PAGE_SIZE = 100;
+
+    private final Path spillFile;
+    private final RandomAccessFile spill;
+    private final int capacity;
+    private final ArrayList<ChatMessage> loaded = new ArrayList<>();
+    /** The file offset of each spilled page, followed by the offset where the next page will go. */
+    private final List<Long> pageOffsets = new ArrayList<>(List.of(0L));
+    private long firstLoaded = 0;
+    private boolean canSpill = true;
+
+    /**
+     * Constructs an empty transcript that spills to the given file, replacing anything already in it.
+     *
+     * @param spillFile The file to spill old messages to.
+     * @param capacity  The number of messages to keep in memory, at least {@link #PAGE_SIZE}.
+     * @throws IOException If the spill file cannot be opened.
+     */
+    public Transcript(Path spillFile, int capacity) throws IOException {
+        assert capacity >= PAGE_SIZE : "Capacity must hold at least one page";
+        this.spillFile = spillFile;
+        this.capacity = capacity;
+        spill = new RandomAccessFile(spillFile.toFile(), "rw");
+        spill.setLength(0);
+    }
+
+    /**
+     * Constructs an empty transcript that spills to a new temporary file, deleted when the transcript is
+     * closed or the program exits.
+     *
+     * @param capacity The number of messages to keep in memory, at least {@link #PAGE_SIZE}.
+     * @return The transcript.
+     * @throws IOException If the temporary file cannot be created.
+     */
+    public static Transcript createTemporary(int capacity) throws IOException {
+        Path file = Files.createTempFile("flora-transcript", ".bin");
+        file.toFile().deleteOnExit();
+        return new Transcript(file, capacity);
+    }
+
+    /**
+     * Returns the number of messages ever added.
+     *
+     * @return The total number of messages.
+     */
+    public long getTotalCount() {
+        return firstLoaded + loaded.size();
+    }
+
+    /**
+     * Returns the number of the oldest message in memory.
+     *
+     * @return The index of the first loaded message.
+     */
+    public long getFirstLoadedIndex() {
+        return firstLoaded;
+    }
+
+    /**
+     * Returns the messages in memory, oldest first.
+     *
+     * @return An unmodifiable view of the loaded messages.
+     */
+    public List<ChatMessage> getLoaded() {
+        return Collections.unmodifiableList(loaded);
+    }
+
+    /**
+     * Returns whether there are older messages that are not in memory.
+     *
+     * @return {@code true} if {@link #loadOlder()} would load anything.
+     */
+    public boolean hasOlder() {
+        return firstLoaded > 0;
+    }
+
+    /**
+     * Appends a message, then drops the oldest pages from memory until at most the capacity remain.
+     * If a page cannot be spilled, it is kept in memory instead and spilling stops for good.
+     *
+     * @param message The message to append.
+     * @return The number of messages dropped from the front of memory.
+     */
+    public int add(ChatMessage message) {
+        loaded.add(message);
+        int dropped = 0;
+        while (loaded.size() > capacity) {
+            List<ChatMessage> page = loaded.subList(0, PAGE_SIZE);
+            if (firstLoaded == getSpilledCount()) {
+                if (!canSpill || !trySpill(page)) {
+                    break;
+                }
+            }
+            page.clear();
+            firstLoaded += PAGE_SIZE;
+            dropped += PAGE_SIZE;
+        }
+        return dropped;
+    }
+
+    /**
+     * Replaces a message that is still in memory and has never been spilled.
+     *
+     * @param index   The number of the message to replace.
+     * @param message The new message.
+     * @return The position of the message in {@link #getLoaded()}, or -1 if it could not be replaced.
+     */
+    public int replace(long index, ChatMessage message) {
+        if (index < Math.max(firstLoaded, getSpilledCount()) || index >= getTotalCount()) {
+            return -1;
+        }
+        int position = (int) (index - firstLoaded);
+        loaded.set(position, message);
+        return position;
+    }
+
+    /**
+     * Reads the page of messages just before the oldest one in memory back into memory.
+     * The page stays in memory until later messages push it out again.
+     *
+     * @return The messages read, oldest first, or an empty list if there are no older messages.
+     * @throws IOException If the spill file cannot be read.
+     */
+    public List<ChatMessage> loadOlder() throws IOException {
+        if (!hasOlder()) {
+            return List.of();
+        }
+        int page = (int) (firstLoaded / PAGE_SIZE) - 1;
+        List<ChatMessage> messages = readPage(page);
+        loaded.addAll(0, messages);
+        firstLoaded -= messages.size();
+        return messages;
+    }
+
+    /**
+     * Closes and deletes the spill file.
+     *
+     * @throws IOException If the file cannot be closed or deleted.
+     */
+    @Override
+    public void close() throws IOException {
+        spill.close();
+        Files.deleteIfExists(spillFile);
+    }
+
+    /**
+     * Returns the number of messages in the spill file.
+     *
+     * @return The number of spilled messages.
+     */
+    private long getSpilledCount() {
+        return (long) (pageOffsets.size() - 1) * PAGE_SIZE;
+    }
+
+    /**
+     * Appends a page of messages to the spill file.
+     *
+     * @param page The messages to spill.
+     * @return {@code true} if the page was spilled.
+     */
+    private boolean trySpill(List<ChatMessage> page) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            for (ChatMessage message : page) {
+                byte[] text = message.text().getBytes(StandardCharsets.UTF_8);
+                out.writeByte(message.kind().ordinal());
+                out.writeInt(text.length);
+                out.write(text);
+            }
+            long end = pageOffsets.get(pageOffsets.size() - 1);
+            spill.seek(end);
+            spill.write(bytes.toByteArray());
+            pageOffsets.add(end + bytes.size());
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            canSpill = false;
+            return false;
+        }
+    }
+
+    /**
+     * Reads one spilled page of messages.
+     *
+     * @param page The 0-based page number.
+     * @return The messages in the page, oldest first.
+     * @throws IOException If the spill file cannot be read.
+     */
+    private List<ChatMessage> readPage(int page) throws IOException {
+        long start = pageOffsets.get(page);
+        byte[] bytes = new byte[(int) (pageOffsets.get(page + 1) - start)];
+        spill.seek(start);
+        spill.readFully(bytes);
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        ChatMessage.Kind[] kinds = ChatMessage.Kind.values();
+        List<ChatMessage> messages = new ArrayList<>(PAGE_SIZE);
+        for (int i = 0; i < PAGE_SIZE; i++) {
+            ChatMessage.Kind kind = kinds[in.readByte()];
+            byte[] text = new byte[in.readInt()];
+            in.readFully(text);
+            messages.add(new ChatMessage(kind, new String(text, StandardCharsets.UTF_8)));
+        }
+        return messages;
+    }
+}
@@ -8,10 +8,30 @@ import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.io.TempDir;
@@ -19,23 +39,45 @@ import org.junit.jupiter.api.io.TempDir;
 import flora.command.AddDeadlineCommand;
 import flora.command.AddEventCommand;
 import flora.command.AddTodoCommand;
+import flora.command.BulkDeleteCommand;
+import flora.command.BulkMarkCommand;
+import flora.command.BulkUnmarkCommand;
 import flora.command.Command;
+import flora.command.ConflictsCommand;
 import flora.command.DeleteCommand;
+import flora.command.DueCommand;
 import flora.command.EditCommand;
 import flora.command.ExitCommand;
 import flora.command.FindCommand;
+import flora.command.FreeSlotCommand;
 import flora.command.ListCommand;
 import flora.command.MarkCommand;
+import flora.command.OverdueCommand;
+import flora.command.ScheduleCommand;
+import flora.command.StatsCommand;
 import flora.command.UnmarkCommand;
 import flora.exception.FloraException;
+import flora.metrics.CommandMetrics;
+import flora.metrics.LatencyHistogram;
 import flora.parser.Parser;
+import flora.server.FloraServer;
+import flora.storage.Durability;
 import flora.storage.Storage;
+import flora.storage.StorageConverter;
 import flora.task.Deadline;
 import flora.task.EditResult;
 import flora.task.Event;
+import flora.task.EventConflict;
 import flora.task.Task;
 import flora.task.TaskList;
+import flora.task.TimeSlot;
 import flora.task.Todo;
+import flora.ui.ChatMessage;
+import flora.ui.CommandRunner;
+import flora.ui.Transcript;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 
 public class FloraTest {
 
@@ -449,6 +491,41 @@ public class FloraTest {
         assertEquals(0, results.size());
     }
 
+    @Test
+    public void taskList_find_substringAcrossWords() {
+        TaskList list = new TaskList();
+        list.add(new Todo("Read Book"));
+        list.add(new Todo("bread and butter"));
+        TaskList results = list.find("d bo");
+        assertEquals(1, results.size());
+        assertEquals("Read Book", results.get(1).getDescription());
+    }
+
+    @Test
+    public void taskList_find_shortKeyword() {
+        TaskList list = new TaskList();
+        list.add(new Todo("Read Book"));
+        list.add(new Todo("buy groceries"));
+        assertEquals(1, list.find("Bo").size());
+    }
+
+    @Test
+    public void taskList_find_tracksChangesAfterFirstSearch() {
+        TaskList list = new TaskList();
+        list.add(new Todo("read book"));
+        list.add(new Todo("buy milk"));
+        assertEquals(1, list.find("book").size());
+
+        list.add(new Todo("return book"));
+        list.set(2, new Todo("book flight"));
+        list.remove(1);
+        TaskList results = list.find("book");
+        assertEquals(2, results.size());
+        assertEquals("book flight", results.get(1).getDescription());
+        assertEquals("return book", results.get(2).getDescription());
+        assertTrue(list.getSearchIndexMemoryBytes() > 0);
+    }
+
     @Test
     public void taskList_containsTaskWithDetails_foundMatch() {
         TaskList list = new TaskList();
@@ -491,6 +568,417 @@ public class FloraTest {
         assertTrue(list.containsTaskWithDetailsExcluding(new Todo("buy milk"), 2));
     }
 
+    @Test
+    public void taskList_containsTaskWithDetails_afterRemove_noMatch() {
+        TaskList list = new TaskList();
+        list.add(new Todo("buy milk"));
+        list.remove(1);
+        assertFalse(list.containsTaskWithDetails(new Todo("buy milk")));
+    }
+
+    @Test
+    public void taskList_containsTaskWithDetails_afterSet_tracksReplacement() {
+        TaskList list = new TaskList();
+        list.add(new Todo("buy milk"));
+        list.set(1, new Todo("buy bread"));
+        assertFalse(list.containsTaskWithDetails(new Todo("buy milk")));
+        assertTrue(list.containsTaskWithDetails(new Todo("buy bread")));
+    }
+
+    @Test
+    public void taskList_containsTaskWithDetails_indexesConstructorList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("buy milk"));
+        TaskList list = new TaskList(tasks);
+        assertTrue(list.containsTaskWithDetails(new Todo("buy milk")));
+    }
+
+    @Test
+    public void taskList_containsTaskWithDetailsExcluding_duplicateAtOtherIndex() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("buy milk"));
+        tasks.add(new Todo("buy milk"));
+        TaskList list = new TaskList(tasks);
+        assertTrue(list.containsTaskWithDetailsExcluding(new Todo("buy milk"), 1));
+    }
+
+    @Test
+    public void taskList_addAllUnique_skipsDuplicates() {
+        TaskList list = new TaskList();
+        list.add(new Todo("buy milk"));
+        List<Task> batch = List.of(new Todo("buy milk"), new Todo("read book"), new Todo("read book"));
+        List<Task> skipped = list.addAllUnique(batch);
+        assertEquals(2, list.size());
+        assertEquals(2, skipped.size());
+        assertEquals("read book", list.get(2).getDescription());
+    }
+
+    @Test
+    public void taskList_constructorWithList_copiesList() {
+        List<Task> tasks = new ArrayList<>();
+        tasks.add(new Todo("a"));
+        TaskList list = new TaskList(tasks);
+        tasks.add(new Todo("b"));
+        assertEquals(1, list.size());
+    }
+
+    @Test
+    public void taskList_removeNearHead_keepsNumbering() {
+        TaskList list = new TaskList();
+        List<Task> expected = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Task task = new Todo("task " + i);
+            list.add(task);
+            expected.add(task);
+        }
+        // enough removals to trigger compaction, interleaved with adds and replacements
+        for (int i = 0; i < 700; i++) {
+            int index = i % 3 + 1;
+            assertEquals(expected.remove(index - 1), list.remove(index));
+            if (i % 10 == 0) {
+                Task task = new Todo("extra " + i);
+                list.add(task);
+                expected.add(task);
+            }
+            if (i % 7 == 0) {
+                Task task = new Todo("replaced " + i);
+                list.set(expected.size(), task);
+                expected.set(expected.size() - 1, task);
+            }
+        }
+        assertEquals(expected.size(), list.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), list.get(i + 1));
+        }
+        assertEquals(expected, list.stream().toList());
+        List<Task> iterated = new ArrayList<>();
+        list.forEach(iterated::add);
+        assertEquals(expected, iterated);
+    }
+
+    @Test
+    public void taskList_removeAll_thenAdd() {
+        TaskList list = new TaskList();
+        for (int i = 0; i < 200; i++) {
+            list.add(new Todo("task " + i));
+        }
+        for (int i = 200; i > 0; i--) {
+            list.remove(i);
+        }
+        assertEquals(0, list.size());
+        list.add(new Todo("fresh"));
+        assertEquals("fresh", list.get(1).getDescription());
+        assertFalse(list.containsTaskWithDetails(new Todo("task 0")));
+    }
+
+    @Test
+    public void taskList_findEventsBetween_matchesScan() {
+        TaskList list = new TaskList();
+        Random random = new java.util.Random(7);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 2000; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 60));
+            list.add(new Event("event " + i, start, start.plusHours(1 + random.nextInt(48))));
+            if (i % 5 == 0) {
+                list.add(new Todo("todo " + i));
+            }
+        }
+        list.find("event");
+        for (int i = 0; i < 300; i++) {
+            list.remove(1 + random.nextInt(list.size()));
+        }
+        for (int i = 0; i < 100; i++) {
+            LocalDateTime start = base.plusHours(random.nextInt(24 * 60));
+            list.set(1 + random.nextInt(list.size()), new Event("moved " + i, start, start.plusHours(3)));
+        }
+        for (int i = 0; i < 50; i++) {
+            LocalDateTime from = base.plusHours(random.nextInt(24 * 60));
+            LocalDateTime to = from.plusHours(1 + random.nextInt(72));
+            List<Task> expected = list.stream()
+                    .filter(task -> task instanceof Event)
+                    .map(task -> (Event) task)
+                    .filter(event -> event.getStart().isBefore(to) && event.getEnd().isAfter(from))
+                    .sorted(Comparator.comparing(Event::getStart))
+                    .map(event -> (Task) event)
+                    .toList();
+            List<Task> actual = list.findEventsBetween(from, to).stream().toList();
+            assertEquals(expected.size(), actual.size());
+            assertTrue(actual.containsAll(expected));
+            for (int j = 1; j < actual.size(); j++) {
+                assertFalse(((Event) actual.get(j)).getStart().isBefore(((Event) actual.get(j - 1)).getStart()));
+            }
+        }
+    }
+
+    @Test
+    public void taskList_findEventsBetween_excludesTouchingEvents() {
+        TaskList list = new TaskList();
+        LocalDateTime nine = LocalDateTime.of(2025, 3, 1, 9, 0);
+        list.add(new Event("before", nine.minusHours(1), nine));
+        list.add(new Event("during", nine, nine.plusHours(1)));
+        list.add(new Event("after", nine.plusHours(1), nine.plusHours(2)));
+        TaskList found = list.findEventsBetween(nine, nine.plusHours(1));
+        assertEquals(1, found.size());
+        assertEquals("during", found.get(1).getDescription());
+    }
+
+    @Test
+    public void taskList_streamPendingDeadlinesDueBy_dueOrder() {
+        TaskList list = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 12, 0);
+        list.add(new Deadline("third", base.plusDays(3)));
+        list.add(new Deadline("first", base.plusDays(1)));
+        list.add(new Todo("not a deadline"));
+        list.add(new Deadline("later", base.plusDays(10)));
+        list.add(new Deadline("second", base.plusDays(2)));
+        List<String> due = list.streamPendingDeadlinesDueBy(base.plusDays(3))
+                .map(Task::getDescription).toList();
+        assertEquals(List.of("first", "second", "third"), due);
+    }
+
+    @Test
+    public void taskList_streamPendingDeadlinesDueBy_staysInSync() {
+        TaskList list = new TaskList();
+        LocalDateTime base = LocalDateTime.of(2025, 3, 1, 12, 0);
+        list.add(new Deadline("a", base.plusDays(1)));
+        list.add(new Deadline("b", base.plusDays(2)));
+        list.add(new Deadline("c", base.plusDays(3)));
+        assertEquals(3, list.streamPendingDeadlinesDueBy(base.plusDays(5)).count());
+
+        list.mark(1);
+        list.remove(2);
+        list.add(new Deadline("d", base));
+        list.set(2, new Deadline("c moved", base.plusDays(30)));
+        List<String> due = list.streamPendingDeadlinesDueBy(base.plusDays(5))
+                .map(Task::getDescription).toList();
+        assertEquals(List.of("d"), due);
+
+        list.unmark(1);
+        due = list.streamPendingDeadlinesDueBy(base.plusDays(5)).map(Task::getDescription).toList();
+        assertEquals(List.of("d", "a"), due);
+    }
+
+    @Test
+    public void taskList_findConflicts_excludesSelfAndDone() {
+        TaskList list = new TaskList();
+        LocalDateTime nine = LocalDateTime.of(2025, 3, 1, 9, 0);
+        Event meeting = new Event("meeting", nine, nine.plusHours(2));
+        list.add(meeting);
+        list.add(new Event("lunch", nine.plusHours(1), nine.plusHours(3)));
+        list.add(new Event("call", nine.minusHours(1), nine.plusMinutes(30)));
+        list.add(new Event("standup", nine.plusHours(2), nine.plusHours(3)));
+        list.mark(3);
+        List<String> conflicts = list.findConflicts(meeting).stream().map(Task::getDescription).toList();
+        assertEquals(List.of("lunch"), conflicts);
+    }
+
+    @Test
+    public void taskList_findAllConflicts_matchesPairwiseScan() {
+        TaskList list = new TaskList();
+        Random random = new Random(11);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        for (int i = 0; i < 400; i++) {
+            LocalDateTime start = base.plusMinutes(30L * random.nextInt(2000));
+            list.add(new Event("event " + i, start, start.plusMinutes(30L * (1 + random.nextInt(8)))));
+        }
+        for (int i = 1; i <= list.size(); i += 7) {
+            list.mark(i);
+        }
+        List<Event> events = list.stream().map(task -> (Event) task).filter(event -> !event.isDone()).toList();
+        int expected = 0;
+        for (int i = 0; i < events.size(); i++) {
+            for (int j = i + 1; j < events.size(); j++) {
+                Event a = events.get(i);
+                Event b = events.get(j);
+                if (a.getStart().isBefore(b.getEnd()) && b.getStart().isBefore(a.getEnd())) {
+                    expected++;
+                }
+            }
+        }
+        List<EventConflict> conflicts = list.findAllConflicts();
+        assertEquals(expected, conflicts.size());
+        for (EventConflict conflict : conflicts) {
+            assertFalse(conflict.first().isDone() || conflict.second().isDone());
+            assertFalse(conflict.second().getStart().isBefore(conflict.first().getStart()));
+            assertTrue(conflict.second().getStart().isBefore(conflict.first().getEnd()));
+        }
+    }
+
+    @Test
+    public void taskList_findFreeSlots_mergesOverlappingEvents() {
+        TaskList list = new TaskList();
+        LocalDateTime day = LocalDateTime.of(2025, 3, 1, 0, 0);
+        list.add(new Event("a", day.plusHours(9), day.plusHours(11)));
+        list.add(new Event("b", day.plusHours(10), day.plusHours(12)));
+        list.add(new Event("c", day.plusHours(11), day.plusHours(13)));
+        list.add(new Event("d", day.plusHours(14), day.plusHours(15)));
+        list.add(new Event("done", day.plusHours(16), day.plusHours(20)));
+        list.mark(5);
+        List<TimeSlot> slots = list.findFreeSlots(day.plusHours(8), day.plusHours(22), Duration.ofHours(1), 10);
+        assertEquals(List.of(
+                new TimeSlot(day.plusHours(8), day.plusHours(9)),
+                new TimeSlot(day.plusHours(13), day.plusHours(14)),
+                new TimeSlot(day.plusHours(15), day.plusHours(22))), slots);
+    }
+
+    @Test
+    public void taskList_findFreeSlots_skipsShortGapsAndHonoursLimit() {
+        TaskList list = new TaskList();
+        LocalDateTime day = LocalDateTime.of(2025, 3, 1, 0, 0);
+        list.add(new Event("early", day.minusHours(2), day.plusHours(9)));
+        list.add(new Event("a", day.plusHours(10), day.plusHours(11)));
+        list.add(new Event("b", day.plusHours(11).plusMinutes(30), day.plusHours(12)));
+        List<TimeSlot> slots = list.findFreeSlots(day, day.plusDays(1), Duration.ofHours(1), 1);
+        assertEquals(List.of(new TimeSlot(day.plusHours(9), day.plusHours(10))), slots);
+        assertTrue(list.findFreeSlots(day, day.plusHours(12), Duration.ofHours(2), 5).isEmpty());
+    }
+
+    @Test
+    public void taskList_removeAll_removesInOnePass() {
+        TaskList list = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            list.add(new Todo("task " + i));
+        }
+        list.find("task");
+        List<Task> removed = list.removeAll(new int[] {1, 2, 5, 10});
+        assertEquals(List.of("task 1", "task 2", "task 5", "task 10"),
+                removed.stream().map(Task::getDescription).toList());
+        assertEquals(6, list.size());
+        assertEquals("task 3", list.get(1).getDescription());
+        assertEquals("task 9", list.get(6).getDescription());
+        assertFalse(list.containsTaskWithDetails(new Todo("task 5")));
+        assertEquals(0, list.find("task 1").size());
+        list.add(new Todo("task 11"));
+        assertEquals("task 11", list.get(7).getDescription());
+    }
+
+    @Test
+    public void taskList_streamFrom_skipsRemovedTasks() {
+        TaskList list = new TaskList();
+        for (int i = 1; i <= 200; i++) {
+            list.add(new Todo("task " + i));
+        }
+        // removes the odd-numbered tasks among the first 100
+        for (int i = 1; i <= 50; i++) {
+            list.remove(i);
+        }
+        assertEquals(List.of("task 98", "task 100", "task 101"),
+                list.streamFrom(49).limit(3).map(Task::getDescription).toList());
+        assertEquals("task 200", list.streamFrom(list.size()).findFirst().orElseThrow().getDescription());
+        assertEquals(0, list.streamFrom(list.size() + 1).count());
+    }
+
+    @Test
+    public void taskList_snapshot_isUnaffectedByLaterChanges() {
+        TaskList list = new TaskList();
+        for (int i = 0; i < 1000; i++) {
+            list.add(new Todo("task " + i));
+        }
+        TaskList snapshot = list.snapshot();
+        List<Task> before = snapshot.stream().toList();
+
+        list.add(new Todo("extra"));
+        list.remove(300);
+        list.set(700, new Todo("replaced"));
+        list.mark(5);
+        list.removeAll(new int[] {1, 2, 900});
+        for (int i = 0; i < 600; i++) {
+            list.remove(1);
+        }
+
+        assertEquals(before, snapshot.stream().toList());
+        assertEquals(before.get(299), snapshot.get(300));
+        assertFalse(snapshot.get(5).isDone());
+        assertEquals(List.of("task 998", "task 999"),
+                snapshot.streamFrom(999).map(Task::getDescription).toList());
+        assertEquals(397, list.size());
+        assertEquals("extra", list.get(list.size()).getDescription());
+    }
+
+    @Test
+    public void taskList_snapshot_answersQueriesAndRejectsChanges() {
+        TaskList list = new TaskList();
+        LocalDateTime nine = LocalDateTime.of(2025, 3, 1, 9, 0);
+        list.add(new Todo("read book"));
+        list.add(new Deadline("return book", nine));
+        list.add(new Event("book club", nine, nine.plusHours(2)));
+        list.find("book");
+        TaskList snapshot = list.snapshot();
+        list.add(new Todo("buy book"));
+        list.mark(2);
+
+        assertEquals(3, snapshot.find("book").size());
+        assertEquals(1, snapshot.findEventsBetween(nine, nine.plusHours(1)).size());
+        assertEquals(1, snapshot.streamPendingDeadlinesDueBy(nine).count());
+        assertEquals(0, list.streamPendingDeadlinesDueBy(nine).count());
+        assertTrue(snapshot.containsTaskWithDetails(new Todo("read book")));
+        assertFalse(snapshot.containsTaskWithDetails(new Todo("buy book")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.add(new Todo("late")));
+        assertThrows(UnsupportedOperationException.class, () -> snapshot.mark(1));
+    }
+
+    @Test
+    public void taskList_snapshot_sharedIndexesMatchScans() {
+        TaskList list = new TaskList();
+        Random random = new Random(17);
+        LocalDateTime base = LocalDateTime.of(2025, 1, 1, 0, 0);
+        String[] words = {"book", "milk", "club", "gym", "call"};
+        list.buildIndexes();
+        List<TaskList> snapshots = new ArrayList<>();
+        List<List<Task>> contents = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            int choice = random.nextInt(10);
+            LocalDateTime time = base.plusHours(random.nextInt(500));
+            String description = words[random.nextInt(words.length)] + " " + i;
+            if (choice < 5 || list.size() == 0) {
+                list.add(choice % 3 == 0 ? new Todo(description)
+                        : choice % 3 == 1 ? new Deadline(description, time)
+                        : new Event(description, time, time.plusHours(1 + random.nextInt(5))));
+            } else if (choice < 7) {
+                list.remove(1 + random.nextInt(list.size()));
+            } else if (choice < 8) {
+                list.set(1 + random.nextInt(list.size()), new Todo(description));
+            } else {
+                list.mark(1 + random.nextInt(list.size()));
+            }
+            if (i % 250 == 0) {
+                snapshots.add(list.snapshot());
+                contents.add(list.stream().toList());
+            }
+        }
+        snapshots.add(list);
+        contents.add(list.stream().toList());
+
+        LocalDateTime from = base.plusHours(100);
+        LocalDateTime to = base.plusHours(200);
+        for (int i = 0; i < snapshots.size(); i++) {
+            TaskList snapshot = snapshots.get(i);
+            List<Task> tasks = contents.get(i);
+            assertEquals(tasks.stream().filter(task -> task.getDescription().contains("book")).toList(),
+                    snapshot.find("book").stream().toList());
+            assertEquals(tasks.stream().filter(task -> task instanceof Event event
+                            && event.getStart().isBefore(to) && event.getEnd().isAfter(from)).count(),
+                    snapshot.findEventsBetween(from, to).size());
+            assertEquals(tasks.stream().filter(task -> task instanceof Deadline deadline
+                            && !deadline.isDone() && !deadline.getDue().isAfter(from)).count(),
+                    snapshot.streamPendingDeadlinesDueBy(from).count());
+        }
+    }
+
+    @Test
+    public void taskList_mark_replacesTaskWithCopy() {
+        TaskList list = new TaskList();
+        Todo todo = new Todo("read book");
+        list.add(todo);
+        Task marked = list.mark(1);
+        assertFalse(todo.isDone());
+        assertTrue(marked.isDone());
+        assertEquals(marked, list.get(1));
+        assertEquals(marked, list.mark(1));
+        assertEquals(1, list.find("read").size());
+        assertFalse(list.unmark(1).isDone());
+    }
+
     // ==================== Parser: basic commands ====================
 
     @Test
@@ -548,6 +1036,26 @@ public class FloraTest {
         assertInstanceOf(ListCommand.class, cmd);
     }
 
+    @Test
+    public void parser_parseListPage_acceptsPageAndSize() throws FloraException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        Command cmd = Parser.parse("list /size 3 /PAGE 2");
+        cmd.execute(tasks, null);
+        assertTrue(cmd.getMessage().contains("\n4.[T][ ] task 4\n5.[T][ ] task 5\n6.[T][ ] task 6\n"));
+        assertFalse(cmd.getMessage().contains("task 7"));
+    }
+
+    @Test
+    public void parser_parseListPage_invalidOptionsThrow() {
+        assertThrows(FloraException.class, () -> Parser.parse("list /page"));
+        assertThrows(FloraException.class, () -> Parser.parse("list /page 0"));
+        assertThrows(FloraException.class, () -> Parser.parse("list /size abc"));
+        assertThrows(FloraException.class, () -> Parser.parse("list everything"));
+    }
+
     @Test
     public void parser_parseBye_returnsExitCommand() throws FloraException {
         Command cmd = Parser.parse("bye");
@@ -606,6 +1114,85 @@ public class FloraTest {
         assertInstanceOf(ListCommand.class, cmd);
     }
 
+    @Test
+    public void parseSchedule_valid_returnsScheduleCommand() throws FloraException {
+        Command cmd = Parser.parse("schedule /from 1/3/2025 /to 2/3/2025 12:00");
+        assertInstanceOf(ScheduleCommand.class, cmd);
+    }
+
+    @Test
+    public void parseSchedule_missingTo_throwsException() {
+        assertThrows(FloraException.class, () -> Parser.parse("schedule /from 1/3/2025"));
+    }
+
+    @Test
+    public void parseSchedule_startAfterEnd_throwsException() {
+        assertThrows(FloraException.class, () -> Parser.parse("schedule /from 2/3/2025 /to 1/3/2025"));
+    }
+
+    @Test
+    public void parseDue_valid_returnsDueCommand() throws FloraException {
+        assertInstanceOf(DueCommand.class, Parser.parse("due /before 1/3/2025"));
+        assertInstanceOf(DueCommand.class, Parser.parse("due /before next week"));
+    }
+
+    @Test
+    public void parseDue_missingDate_throwsException() {
+        assertThrows(FloraException.class, () -> Parser.parse("due"));
+        assertThrows(FloraException.class, () -> Parser.parse("due /before"));
+    }
+
+    @Test
+    public void parseOverdue_returnsOverdueCommand() throws FloraException {
+        assertInstanceOf(OverdueCommand.class, Parser.parse("overdue"));
+    }
+
+    @Test
+    public void parseConflicts_returnsConflictsCommand() throws FloraException {
+        assertInstanceOf(ConflictsCommand.class, Parser.parse("conflicts"));
+    }
+
+    @Test
+    public void parseFreeSlot_valid_returnsFreeSlotCommand() throws FloraException {
+        assertInstanceOf(FreeSlotCommand.class, Parser.parse("freeslot /duration 2h /within 1/3/2025 2/3/2025"));
+        assertInstanceOf(FreeSlotCommand.class,
+                Parser.parse("freeslot /duration 1h30m /within 1/3/2025 9:00 1/3/2025 18:00"));
+        assertInstanceOf(FreeSlotCommand.class,
+                Parser.parse("freeslot /duration 45m /within 1/3/2025 9:00 /to 1/3/2025"));
+    }
+
+    @Test
+    public void parseFreeSlot_invalidDuration_throwsException() {
+        assertThrows(FloraException.class, () -> Parser.parse("freeslot /duration 2x /within 1/3/2025 2/3/2025"));
+        assertThrows(FloraException.class, () -> Parser.parse("freeslot /duration h /within 1/3/2025 2/3/2025"));
+        assertThrows(FloraException.class, () -> Parser.parse("freeslot /duration 0m /within 1/3/2025 2/3/2025"));
+    }
+
+    @Test
+    public void parseFreeSlot_missingWindow_throwsException() {
+        assertThrows(FloraException.class, () -> Parser.parse("freeslot /duration 2h"));
+        assertThrows(FloraException.class, () -> Parser.parse("freeslot /duration 2h /within 1/3/2025"));
+    }
+
+    @Test
+    public void parseBulk_indexLists_returnBulkCommands() throws FloraException {
+        assertInstanceOf(BulkMarkCommand.class, Parser.parse("mark 1-500,800,900-950"));
+        assertInstanceOf(BulkUnmarkCommand.class, Parser.parse("unmark 1, 3"));
+        assertInstanceOf(BulkDeleteCommand.class, Parser.parse("delete 2-4"));
+        assertInstanceOf(BulkDeleteCommand.class, Parser.parse("delete done"));
+        assertInstanceOf(MarkCommand.class, Parser.parse("mark 5"));
+        assertInstanceOf(DeleteCommand.class, Parser.parse("delete 5"));
+    }
+
+    @Test
+    public void parseBulk_invalidRanges_throwException() {
+        assertThrows(FloraException.class, () -> Parser.parse("mark 5-3"));
+        assertThrows(FloraException.class, () -> Parser.parse("mark 1,,2"));
+        assertThrows(FloraException.class, () -> Parser.parse("delete 0-2"));
+        assertThrows(FloraException.class, () -> Parser.parse("unmark 2-x"));
+        assertThrows(FloraException.class, () -> Parser.parse("mark done"));
+    }
+
     // ==================== Parser: edit command ====================
 
     @Test
@@ -626,6 +1213,18 @@ public class FloraTest {
         assertInstanceOf(EditCommand.class, cmd);
     }
 
+    @Test
+    public void parseEdit_wordsAfterIndex_ignored() throws FloraException {
+        Command cmd = Parser.parse("edit 3 foo /desc bar");
+        assertInstanceOf(EditCommand.class, cmd);
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 3; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        cmd.execute(tasks, tempStorage());
+        assertEquals("bar", tasks.get(3).getDescription());
+    }
+
     @Test
     public void parseEdit_noIndex_throwsException() {
         FloraException ex = assertThrows(FloraException.class, () -> Parser.parse("edit"));
@@ -661,6 +1260,32 @@ public class FloraTest {
                 Parser.parse("edit 1 /from 6/8/2024 14:00 /to 6/8/2024 14:00"));
     }
 
+    // ==================== Parser: flags ====================
+
+    @Test
+    public void parse_flagsInAnyOrderAndCase_areRecognised() throws FloraException {
+        assertInstanceOf(AddEventCommand.class, Parser.parse("event meeting /TO 6/8/2024 16:00 /from 6/8/2024 14:00"));
+        assertInstanceOf(AddDeadlineCommand.class, Parser.parse("Deadline submit /By tomorrow"));
+        assertInstanceOf(FreeSlotCommand.class, Parser.parse("freeslot /within 1/3/2025 2/3/2025 /duration 2h"));
+    }
+
+    @Test
+    public void parse_slashWordThatIsNotAFlag_staysInValue() {
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        flora.getResponse("todo clean up");
+        assertTrue(flora.getResponse("edit 1 /desc clean up /usr and a/by").contains("clean up /usr and a/by"));
+        assertTrue(flora.getResponse("deadline back up /etc /by tomorrow").contains("back up /etc"));
+        assertEquals(null, flora.flushStorage());
+    }
+
+    @Test
+    public void parse_flagsWithoutDescription_throwsException() {
+        FloraException ex = assertThrows(FloraException.class, () -> Parser.parse("deadline /by tomorrow"));
+        assertEquals("At least put something bro", ex.getMessage());
+        ex = assertThrows(FloraException.class, () -> Parser.parse("event /from 1/1/2025 /to 2/1/2025"));
+        assertEquals("At least put something bro", ex.getMessage());
+    }
+
     // ==================== Parser: event start/end validation ====================
 
     @Test
@@ -813,6 +1438,28 @@ public class FloraTest {
                 Storage.parseTask("E | 0 | fair | 30/02/2026 10:00 | 01/03/2026 10:00"));
     }
 
+    @Test
+    public void storageParseTask_leapDay_parses() throws FloraException {
+        Task task = Storage.parseTask("D | 0 | task | 29/02/2024");
+        assertEquals("[D][ ] task (by: 29 Feb 2024)", task.toString());
+    }
+
+    @Test
+    public void storageParseTask_invalidTime_throwsException() {
+        assertThrows(FloraException.class, () -> Storage.parseTask("D | 0 | task | 01/12/2024 24:00"));
+    }
+
+    @Test
+    public void storageParseTask_missingDescription_throwsException() {
+        assertThrows(FloraException.class, () -> Storage.parseTask("T | 0"));
+    }
+
+    @Test
+    public void storageParseTask_eventEndBeforeStart_throwsException() {
+        assertThrows(FloraException.class, () ->
+                Storage.parseTask("E | 0 | fair | 02/03/2026 10:00 | 01/03/2026 10:00"));
+    }
+
     // ==================== Storage: round-trips ====================
 
     @Test
@@ -865,6 +1512,338 @@ public class FloraTest {
         assertEquals(original.toString(), parsed.toString());
     }
 
+    // ==================== Storage: journal ====================
+
+    @Test
+    public void storage_journal_replaysCommandsOnLoad() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        storage.save(tasks);
+        new AddTodoCommand("read book").execute(tasks, storage);
+        new AddTodoCommand("buy milk").execute(tasks, storage);
+        new MarkCommand(2).execute(tasks, storage);
+        new EditCommand(1, "read novel", null, null, null).execute(tasks, storage);
+        new AddTodoCommand("walk dog").execute(tasks, storage);
+        new DeleteCommand(2).execute(tasks, storage);
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] read novel", loaded.get(0).toString());
+        assertEquals("[T][ ] walk dog", loaded.get(1).toString());
+    }
+
+    @Test
+    public void storage_journal_replaysWithoutSnapshot() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("read book").execute(tasks, storage);
+        new MarkCommand(1).execute(tasks, storage);
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(1, loaded.size());
+        assertTrue(loaded.get(0).isDone());
+    }
+
+    @Test
+    public void storage_save_clearsJournal() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("read book").execute(tasks, storage);
+        storage.save(tasks);
+
+        assertFalse(tempDir.resolve("tasks.txt.journal").toFile().exists());
+        assertEquals(1, tempStorage().load().size());
+    }
+
+    @Test
+    public void storage_journal_compactsAfterThreshold() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        for (int i = 0; i <= Storage.COMPACTION_THRESHOLD; i++) {
+            new AddTodoCommand("task " + i).execute(tasks, storage);
+        }
+
+        assertFalse(tempDir.resolve("tasks.txt.journal").toFile().exists());
+        assertEquals(Storage.COMPACTION_THRESHOLD + 1, tempStorage().load().size());
+    }
+
+    @Test
+    public void storage_journal_staleJournalIgnored() throws Exception {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        storage.save(tasks);
+        new AddTodoCommand("read book").execute(tasks, storage);
+        // Simulate a crash after the snapshot was rewritten but before the journal was cleared
+        Files.writeString(tempDir.resolve("tasks.txt"), "T | 0 | read book\n");
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(1, loaded.size());
+    }
+
+    @Test
+    public void storage_journal_staleJournalIgnoredWhenSnapshotSizeUnchanged() throws Exception {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("ab").execute(tasks, storage);
+        new AddTodoCommand("xy").execute(tasks, storage);
+        storage.save(tasks);
+        new DeleteCommand(1).execute(tasks, storage);
+        new AddTodoCommand("cd").execute(tasks, storage);
+        // Simulate a crash after compaction wrote a snapshot of the same size but before the journal was cleared
+        Files.writeString(tempDir.resolve("tasks.txt"), "T | 0 | xy\nT | 0 | cd\n");
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] xy", loaded.get(0).toString());
+        assertEquals("[T][ ] cd", loaded.get(1).toString());
+    }
+
+    @Test
+    public void storage_journal_headerWithoutChecksumDiscarded() throws Exception {
+        Files.writeString(tempDir.resolve("tasks.txt"), "T | 0 | xy\n");
+        Files.writeString(tempDir.resolve("tasks.txt.journal"), "#base 11\nA | T | 0 | cd\n");
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(1, loaded.size());
+        assertEquals("[T][ ] xy", loaded.get(0).toString());
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt.journal")));
+    }
+
+    @Test
+    public void storage_journal_tornLastEntryIgnored() throws Exception {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("read book").execute(tasks, storage);
+        Files.writeString(tempDir.resolve("tasks.txt.journal"), "A | T | 0 | half",
+                StandardOpenOption.APPEND);
+
+        assertEquals(1, tempStorage().load().size());
+    }
+
+    @Test
+    public void storage_journal_tornLastEntryCutBeforeNextAppend() throws Exception {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("read book").execute(tasks, storage);
+        Files.writeString(tempDir.resolve("tasks.txt.journal"), "A | T | 0 | tor",
+                StandardOpenOption.APPEND);
+
+        Storage reloaded = tempStorage();
+        TaskList reloadedTasks = new TaskList(reloaded.load());
+        new AddTodoCommand("after").execute(reloadedTasks, reloaded);
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(2, loaded.size());
+        assertEquals("[T][ ] after", loaded.get(1).toString());
+    }
+
+    @Test
+    public void storage_journal_tornHeaderStartsNewJournal() throws Exception {
+        Files.writeString(tempDir.resolve("tasks.txt.journal"), "#ba");
+
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList(storage.load());
+        new AddTodoCommand("read book").execute(tasks, storage);
+
+        assertEquals(1, tempStorage().load().size());
+    }
+
+    // ==================== Storage: parallel load ====================
+
+    @Test
+    public void storage_loadParallel_matchesSequentialLoad() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 200; i++) {
+            lines.add(i % 3 == 0 ? "D | 1 | task " + i + " | 01/12/2024 18:00" : "T | 0 | task " + i);
+        }
+        Files.write(tempDir.resolve("tasks.txt"), lines);
+
+        List<Task> sequential = tempStorage().load();
+        List<Task> parallel = tempStorage().loadParallel(64);
+        assertEquals(200, parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals(sequential.get(i).toString(), parallel.get(i).toString());
+        }
+    }
+
+    @Test
+    public void storage_loadParallel_reportsCorruptedLineNumber() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            lines.add(i == 77 ? "X | 0 | broken" : "T | 0 | task " + i);
+        }
+        Files.write(tempDir.resolve("tasks.txt"), lines);
+
+        FloraException ex = assertThrows(FloraException.class, () -> tempStorage().loadParallel(50));
+        assertTrue(ex.getMessage().startsWith("Skipped corrupted line 77: X | 0 | broken"), ex.getMessage());
+    }
+
+    // ==================== Storage: binary format ====================
+
+    private TaskList sampleTasks() {
+        TaskList tasks = new TaskList();
+        Todo todo = new Todo("read book ✓");
+        todo.mark();
+        tasks.add(todo);
+        tasks.add(new Deadline("submit report", LocalDateTime.of(2024, 12, 1, 18, 0)));
+        tasks.add(new Deadline("pay rent", LocalDateTime.of(1969, 7, 20, 0, 0)));
+        tasks.add(new Event("book fair", LocalDateTime.of(2024, 8, 6, 0, 0), LocalDateTime.of(2024, 8, 8, 0, 0)));
+        return tasks;
+    }
+
+    @Test
+    public void storage_binary_roundTrip() throws FloraException {
+        TaskList tasks = sampleTasks();
+        new Storage(tempDir.resolve("tasks.bin").toString()).save(tasks);
+
+        List<Task> loaded = new Storage(tempDir.resolve("tasks.bin").toString()).load();
+        assertEquals(tasks.size(), loaded.size());
+        for (int i = 1; i <= tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i - 1).toString());
+        }
+    }
+
+    @Test
+    public void storage_binary_smallerThanText() throws Exception {
+        TaskList tasks = sampleTasks();
+        new Storage(tempDir.resolve("tasks.txt").toString()).save(tasks);
+        new Storage(tempDir.resolve("tasks.bin").toString()).save(tasks);
+        assertTrue(Files.size(tempDir.resolve("tasks.bin")) < Files.size(tempDir.resolve("tasks.txt")));
+    }
+
+    @Test
+    public void storage_binary_wrongMagic_throwsException() throws Exception {
+        Files.writeString(tempDir.resolve("tasks.bin"), "T | 0 | read book\n");
+        FloraException ex = assertThrows(FloraException.class, () ->
+                new Storage(tempDir.resolve("tasks.bin").toString()).load());
+        assertTrue(ex.getMessage().contains("Not a binary task file"));
+    }
+
+    @Test
+    public void storage_binary_corruptedLength_throwsException() throws Exception {
+        // A todo whose description length varint claims about 2 GB
+        byte[] file = {'F', 'L', 'R', 'B', 1, 'T', 0, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 'x'};
+        Files.write(tempDir.resolve("tasks.bin"), file);
+        FloraException ex = assertThrows(FloraException.class, () ->
+                new Storage(tempDir.resolve("tasks.bin").toString()).load());
+        assertTrue(ex.getMessage().contains("Corrupted record 1"));
+    }
+
+    @Test
+    public void storage_binary_corruptedDateTime_throwsException() throws Exception {
+        // A deadline due 2^50 minutes after the epoch, past the last year a date-time can hold
+        byte[] pastMax = {'F', 'L', 'R', 'B', 1, 'D', 0, 1, 'x',
+            (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0x04};
+        // A deadline whose minutes are so large that converting them to seconds overflows
+        byte[] overflow = {'F', 'L', 'R', 'B', 1, 'D', 0, 1, 'x', (byte) 0xFE, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF,
+            (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x01};
+        for (byte[] file : List.of(pastMax, overflow)) {
+            Files.write(tempDir.resolve("tasks.bin"), file);
+            FloraException ex = assertThrows(FloraException.class, () ->
+                    new Storage(tempDir.resolve("tasks.bin").toString()).load());
+            assertTrue(ex.getMessage().contains("Corrupted record 1"));
+        }
+    }
+
+    @Test
+    public void storageConverter_textToBinaryAndBack_preservesTasks() throws FloraException {
+        TaskList tasks = sampleTasks();
+        tempStorage().save(tasks);
+        String text = tempDir.resolve("tasks.txt").toString();
+        String binary = tempDir.resolve("tasks.bin").toString();
+        String back = tempDir.resolve("back.txt").toString();
+
+        assertEquals(4, StorageConverter.convert(text, binary));
+        assertEquals(4, StorageConverter.convert(binary, back));
+        List<Task> loaded = new Storage(back).load();
+        for (int i = 1; i <= tasks.size(); i++) {
+            assertEquals(tasks.get(i).toString(), loaded.get(i - 1).toString());
+        }
+    }
+
+    // ==================== Storage: atomic writes ====================
+
+    @Test
+    public void storage_save_leavesNoTempFiles() throws Exception {
+        Storage storage = tempStorage();
+        storage.save(sampleTasks());
+        storage.save(sampleTasks());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of("tasks.txt"), files.map(p -> p.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    public void storage_everyDurability_roundTrips() throws FloraException {
+        for (Durability durability : Durability.values()) {
+            Storage storage = new Storage(tempDir.resolve(durability + ".txt").toString());
+            storage.setDurability(durability);
+            TaskList tasks = sampleTasks();
+            storage.save(tasks);
+            new AddTodoCommand("walk dog").execute(tasks, storage);
+            storage.flush();
+            assertEquals(5, new Storage(tempDir.resolve(durability + ".txt").toString()).load().size());
+        }
+    }
+
+    @Test
+    public void durability_fromName_acceptsDashedLowercase() {
+        assertEquals(Durability.FSYNC_ON_SAVE, Durability.fromName("fsync-on-save"));
+        assertEquals(Durability.NONE, Durability.fromName("NONE"));
+        assertThrows(IllegalArgumentException.class, () -> Durability.fromName("sometimes"));
+    }
+
+    // ==================== Storage: background writes ====================
+
+    @Test
+    public void storage_backgroundWrites_flushPersistsAllChanges() throws FloraException {
+        Storage storage = tempStorage();
+        storage.enableBackgroundWrites();
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= Storage.COMPACTION_THRESHOLD + 50; i++) {
+            new AddTodoCommand("task " + i).execute(tasks, storage);
+        }
+        new MarkCommand(3).execute(tasks, storage);
+        new DeleteCommand(1).execute(tasks, storage);
+        storage.flush();
+
+        List<Task> loaded = tempStorage().load();
+        assertEquals(tasks.size(), loaded.size());
+        assertEquals("[T][X] task 3", loaded.get(1).toString());
+        assertEquals(tasks.get(tasks.size()).toString(), loaded.get(loaded.size() - 1).toString());
+    }
+
+    @Test
+    public void storage_backgroundWrites_syncBatchedEntriesWhenIdle() throws Exception {
+        Storage storage = tempStorage();
+        storage.enableBackgroundWrites();
+        TaskList tasks = new TaskList();
+        try (Recording recording = new Recording()) {
+            recording.enable("flora.StorageSave").withoutThreshold();
+            recording.start();
+            new AddTodoCommand("read book").execute(tasks, storage);
+            Thread.sleep(Storage.SYNC_BATCH_INTERVAL_MILLIS + 500);
+            recording.stop();
+            Path recordingFile = tempDir.resolve("sync.jfr");
+            recording.dump(recordingFile);
+
+            // Nothing was saved or flushed after the add, so only the writer's timed sync can have forced it
+            assertTrue(RecordingFile.readAllEvents(recordingFile).stream()
+                    .anyMatch(event -> event.getString("kind").equals("sync")));
+        }
+    }
+
+    @Test
+    public void exitCommand_execute_flushesBackgroundWrites() throws FloraException {
+        Storage storage = tempStorage();
+        storage.enableBackgroundWrites();
+        TaskList tasks = new TaskList();
+        new AddTodoCommand("read book").execute(tasks, storage);
+        new ExitCommand().execute(tasks, storage);
+
+        assertEquals(1, tempStorage().load().size());
+    }
+
     // ==================== Command: AddTodoCommand ====================
 
     @Test
@@ -938,6 +1917,28 @@ public class FloraTest {
 
     // ==================== Command: AddEventCommand ====================
 
+    @Test
+    public void addEventCommand_overlappingEvent_warnsButAdds() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("meeting", LocalDateTime.of(2024, 8, 6, 14, 0), LocalDateTime.of(2024, 8, 6, 16, 0)));
+        AddEventCommand cmd = new AddEventCommand("call",
+                LocalDateTime.of(2024, 8, 6, 15, 0), LocalDateTime.of(2024, 8, 6, 17, 0));
+        cmd.execute(tasks, tempStorage());
+        assertEquals(2, tasks.size());
+        assertTrue(cmd.getMessage().contains("clashes with"));
+        assertTrue(cmd.getMessage().contains("meeting"));
+    }
+
+    @Test
+    public void addEventCommand_backToBackEvent_noWarning() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("meeting", LocalDateTime.of(2024, 8, 6, 14, 0), LocalDateTime.of(2024, 8, 6, 16, 0)));
+        AddEventCommand cmd = new AddEventCommand("call",
+                LocalDateTime.of(2024, 8, 6, 16, 0), LocalDateTime.of(2024, 8, 6, 17, 0));
+        cmd.execute(tasks, tempStorage());
+        assertFalse(cmd.getMessage().contains("clashes with"));
+    }
+
     @Test
     public void addEventCommand_execute_addsTaskToList() throws FloraException {
         TaskList tasks = new TaskList();
@@ -1013,6 +2014,95 @@ public class FloraTest {
         assertTrue(msg.contains("0 task"));
     }
 
+    // ==================== Command: BulkMarkCommand / BulkUnmarkCommand / BulkDeleteCommand ====================
+
+    @Test
+    public void bulkMarkCommand_execute_marksRangesAndPersists() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 10; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        storage.save(tasks);
+        tasks.mark(2);
+        Command cmd = Parser.parse("mark 1-3,7,3");
+        cmd.execute(tasks, storage);
+        assertEquals("Nice! I've marked 3 tasks as done.\n1 of them were already done bro.", cmd.getMessage());
+        List<Task> loaded = storage.load();
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i <= 3 && i != 2 || i == 7, loaded.get(i - 1).isDone());
+        }
+    }
+
+    @Test
+    public void bulkMarkCommand_outOfBounds_changesNothing() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        Command cmd = Parser.parse("mark 1-3");
+        assertThrows(FloraException.class, () -> cmd.execute(tasks, tempStorage()));
+        assertFalse(tasks.get(1).isDone());
+    }
+
+    @Test
+    public void bulkUnmarkCommand_execute_unmarksTasks() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("a"));
+        tasks.add(new Todo("b"));
+        tasks.mark(1);
+        tasks.mark(2);
+        Command cmd = Parser.parse("unmark 1,2");
+        cmd.execute(tasks, tempStorage());
+        assertFalse(tasks.get(1).isDone() || tasks.get(2).isDone());
+        assertEquals("Ok, I've marked 2 tasks as not done yet.", cmd.getMessage());
+    }
+
+    @Test
+    public void bulkDeleteCommand_deleteDone_removesDoneTasksAndPersists() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 20; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        storage.save(tasks);
+        for (int i = 1; i <= 20; i += 3) {
+            tasks.mark(i);
+        }
+        Command cmd = Parser.parse("delete done");
+        cmd.execute(tasks, storage);
+        assertEquals(13, tasks.size());
+        assertTrue(cmd.getMessage().startsWith("Noted. I've removed 7 tasks."));
+        List<String> expected = tasks.stream().map(Task::getDescription).toList();
+        assertEquals(expected, storage.load().stream().map(Task::getDescription).toList());
+    }
+
+    @Test
+    public void bulkDeleteCommand_manyRanges_persistsAsSnapshot() throws FloraException {
+        Storage storage = tempStorage();
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= Storage.COMPACTION_THRESHOLD * 2; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        storage.save(tasks);
+        Command cmd = Parser.parse("delete 1-" + (Storage.COMPACTION_THRESHOLD + 10) + ",1500");
+        cmd.execute(tasks, storage);
+        assertEquals(Storage.COMPACTION_THRESHOLD - 11, tasks.size());
+        assertFalse(Files.exists(tempDir.resolve("tasks.txt.journal")));
+        List<Task> loaded = storage.load();
+        assertEquals(tasks.size(), loaded.size());
+        assertEquals("task " + (Storage.COMPACTION_THRESHOLD + 11), loaded.get(0).getDescription());
+    }
+
+    @Test
+    public void bulkDeleteCommand_nothingDone_returnsNothingMessage() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("a"));
+        Command cmd = new BulkDeleteCommand();
+        cmd.execute(tasks, tempStorage());
+        assertEquals("Nothing to remove bro.", cmd.getMessage());
+        assertEquals(1, tasks.size());
+    }
+
     // ==================== Command: MarkCommand ====================
 
     @Test
@@ -1084,6 +2174,18 @@ public class FloraTest {
 
     // ==================== Command: EditCommand ====================
 
+    @Test
+    public void editCommand_moveEventOntoAnother_warns() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("meeting", LocalDateTime.of(2024, 8, 6, 14, 0), LocalDateTime.of(2024, 8, 6, 16, 0)));
+        tasks.add(new Event("call", LocalDateTime.of(2024, 8, 7, 14, 0), LocalDateTime.of(2024, 8, 7, 15, 0)));
+        EditCommand cmd = new EditCommand(2, null, null,
+                LocalDateTime.of(2024, 8, 6, 15, 0), LocalDateTime.of(2024, 8, 6, 15, 30));
+        cmd.execute(tasks, tempStorage());
+        assertTrue(cmd.getMessage().contains("clashes with"));
+        assertTrue(cmd.getMessage().contains("meeting"));
+    }
+
     @Test
     public void editCommand_execute_updatesTaskDescription() throws FloraException {
         TaskList tasks = new TaskList();
@@ -1176,6 +2278,138 @@ public class FloraTest {
         assertTrue(cmd.getMessage().contains("Read Book"));
     }
 
+    @Test
+    public void findCommand_cancelled_stopsWithoutKeepingIndex() throws FloraException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 3000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        FindCommand cancelled = new FindCommand("task");
+        cancelled.cancel();
+        FloraException e = assertThrows(FloraException.class, () -> cancelled.execute(tasks, null));
+        assertEquals("Stopped that one for you bro", e.getMessage());
+        assertEquals(0, tasks.getSearchIndexMemoryBytes());
+
+        FindCommand cmd = new FindCommand("task");
+        cmd.execute(tasks, null);
+        assertTrue(cmd.getMessage().contains("3000.[T][ ] task 3000"));
+    }
+
+    // ==================== Command: ScheduleCommand ====================
+
+    @Test
+    public void scheduleCommand_execute_listsOverlappingEvents() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("conference", LocalDateTime.of(2025, 3, 1, 9, 0), LocalDateTime.of(2025, 3, 3, 17, 0)));
+        tasks.add(new Event("dinner", LocalDateTime.of(2025, 3, 5, 19, 0), LocalDateTime.of(2025, 3, 5, 21, 0)));
+        tasks.add(new Todo("conference notes"));
+        Command cmd = Parser.parse("schedule /from 2/3/2025 /to 2/3/2025");
+        cmd.execute(tasks, null);
+        String msg = cmd.getMessage();
+        assertTrue(msg.contains("conference"));
+        assertFalse(msg.contains("dinner"));
+        assertFalse(msg.contains("conference notes"));
+    }
+
+    @Test
+    public void scheduleCommand_noEvents_returnsNothingMessage() throws FloraException {
+        ScheduleCommand cmd = new ScheduleCommand(LocalDateTime.of(2025, 3, 1, 0, 0),
+                LocalDateTime.of(2025, 3, 2, 0, 0));
+        cmd.execute(new TaskList(), null);
+        assertEquals("Nothing on during that time.", cmd.getMessage());
+    }
+
+    // ==================== Command: DueCommand / OverdueCommand ====================
+
+    @Test
+    public void dueCommand_execute_listsPendingDeadlinesInDueOrder() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("report", LocalDateTime.of(2025, 3, 5, 12, 0)));
+        tasks.add(new Deadline("essay", LocalDateTime.of(2025, 3, 2, 12, 0)));
+        tasks.add(new Deadline("thesis", LocalDateTime.of(2025, 6, 1, 12, 0)));
+        tasks.add(new Deadline("quiz", LocalDateTime.of(2025, 3, 1, 12, 0)));
+        tasks.mark(4);
+        Command cmd = Parser.parse("due /before 5/3/2025");
+        cmd.execute(tasks, null);
+        String msg = cmd.getMessage();
+        assertTrue(msg.indexOf("essay") < msg.indexOf("report"));
+        assertFalse(msg.contains("thesis"));
+        assertFalse(msg.contains("quiz"));
+    }
+
+    @Test
+    public void dueCommand_nothingDue_returnsNothingMessage() throws FloraException {
+        DueCommand cmd = new DueCommand(LocalDateTime.of(2025, 3, 1, 0, 0));
+        cmd.execute(new TaskList(), null);
+        assertEquals("Nothing due by then.", cmd.getMessage());
+    }
+
+    @Test
+    public void overdueCommand_execute_listsPastDeadlines() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("past", LocalDateTime.now().minusDays(1)));
+        tasks.add(new Deadline("future", LocalDateTime.now().plusDays(1)));
+        OverdueCommand cmd = new OverdueCommand();
+        cmd.execute(tasks, null);
+        assertTrue(cmd.getMessage().contains("past"));
+        assertFalse(cmd.getMessage().contains("future"));
+    }
+
+    @Test
+    public void markCommand_execute_removesFromOverdue() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Deadline("past", LocalDateTime.now().minusDays(1)));
+        OverdueCommand overdue = new OverdueCommand();
+        overdue.execute(tasks, null);
+        new MarkCommand(1).execute(tasks, tempStorage());
+        overdue = new OverdueCommand();
+        overdue.execute(tasks, null);
+        assertEquals("Nothing overdue, nice one bro.", overdue.getMessage());
+    }
+
+    // ==================== Command: ConflictsCommand ====================
+
+    @Test
+    public void conflictsCommand_execute_listsClashingPairs() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("meeting", LocalDateTime.of(2024, 8, 6, 14, 0), LocalDateTime.of(2024, 8, 6, 16, 0)));
+        tasks.add(new Event("call", LocalDateTime.of(2024, 8, 6, 15, 0), LocalDateTime.of(2024, 8, 6, 17, 0)));
+        tasks.add(new Event("dinner", LocalDateTime.of(2024, 8, 6, 19, 0), LocalDateTime.of(2024, 8, 6, 21, 0)));
+        ConflictsCommand cmd = new ConflictsCommand();
+        cmd.execute(tasks, null);
+        String msg = cmd.getMessage();
+        assertTrue(msg.contains("1.[E][ ] meeting"));
+        assertTrue(msg.contains("clashes with [E][ ] call"));
+        assertFalse(msg.contains("dinner"));
+    }
+
+    @Test
+    public void conflictsCommand_noClashes_returnsAllGoodMessage() throws FloraException {
+        ConflictsCommand cmd = new ConflictsCommand();
+        cmd.execute(new TaskList(), null);
+        assertEquals("No clashes, you're all good bro.", cmd.getMessage());
+    }
+
+    // ==================== Command: FreeSlotCommand ====================
+
+    @Test
+    public void freeSlotCommand_execute_listsEarliestGaps() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("meeting", LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 3, 1, 10, 0)));
+        Command cmd = Parser.parse("freeslot /duration 2h /within 1/3/2025 1/3/2025");
+        cmd.execute(tasks, null);
+        assertEquals("Here are the earliest free slots: \n1.1 Mar 2025 10:00 to 1 Mar 2025 23:59", cmd.getMessage());
+    }
+
+    @Test
+    public void freeSlotCommand_fullyBooked_returnsNoSlotMessage() throws FloraException {
+        TaskList tasks = new TaskList();
+        tasks.add(new Event("conference", LocalDateTime.of(2025, 3, 1, 0, 0), LocalDateTime.of(2025, 3, 3, 0, 0)));
+        Command cmd = Parser.parse("freeslot /duration 30m /within 1/3/2025 2/3/2025");
+        cmd.execute(tasks, null);
+        assertEquals("No free slot that long in there bro.", cmd.getMessage());
+    }
+
     // ==================== Command: ListCommand ====================
 
     @Test
@@ -1210,6 +2444,56 @@ public class FloraTest {
         assertTrue(msg.contains("2."));
     }
 
+    @Test
+    public void listCommand_largeList_showsFirstPageWithHint() throws FloraException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 120; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        ListCommand cmd = new ListCommand();
+        cmd.execute(tasks, null);
+        String msg = cmd.getMessage();
+        assertTrue(msg.contains("\n50.[T][ ] task 50\n"));
+        assertFalse(msg.contains("task 51"));
+        assertTrue(msg.endsWith("Showing tasks 1-50 of 120. Type \"list /page 2\" for more."));
+    }
+
+    @Test
+    public void listCommand_lastPage_hasNoHint() throws FloraException {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 25; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        ListCommand cmd = new ListCommand(3, 10);
+        cmd.execute(tasks, null);
+        assertEquals("Here are the tasks in your list: \n21.[T][ ] task 21\n22.[T][ ] task 22\n23.[T][ ] task 23"
+                + "\n24.[T][ ] task 24\n25.[T][ ] task 25\nShowing tasks 21-25 of 25.", cmd.getMessage());
+
+        ListCommand middle = new ListCommand(2, 10);
+        middle.execute(tasks, null);
+        assertTrue(middle.getMessage().endsWith("Type \"list /page 3 /size 10\" for more."));
+    }
+
+    @Test
+    public void listCommand_pagePastEnd_throwsException() {
+        TaskList tasks = new TaskList();
+        tasks.add(new Todo("only task"));
+        FloraException e = assertThrows(FloraException.class, () -> new ListCommand(2, 50).execute(tasks, null));
+        assertEquals("Bro, your list only has 1 page", e.getMessage());
+    }
+
+    @Test
+    public void listCommand_cancelled_stopsRenderingLargePage() {
+        TaskList tasks = new TaskList();
+        for (int i = 1; i <= 3000; i++) {
+            tasks.add(new Todo("task " + i));
+        }
+        ListCommand cmd = new ListCommand(1, 3000);
+        cmd.cancel();
+        FloraException e = assertThrows(FloraException.class, () -> cmd.execute(tasks, null));
+        assertEquals("Stopped that one for you bro", e.getMessage());
+    }
+
     // ==================== Command.isExit ====================
 
     @Test
@@ -1224,6 +2508,506 @@ public class FloraTest {
         assertFalse(cmd.isExit());
     }
 
+    // ==================== Flora: headless mode ====================
+
+    @Test
+    public void flora_runBatch_savesOnceAtEnd() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        String script = "# nightly import\ntodo read book\n\ntodo buy milk\nmark 5\n"
+                + "deadline submit report /by 1/3/2025\nmark 1\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        int failures = new Flora(filePath).runBatch(new BufferedReader(new StringReader(script)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        assertEquals(1, failures);
+        String report = output.toString(StandardCharsets.UTF_8);
+        assertTrue(report.contains("Line 5: Error:"));
+        assertTrue(report.contains("Ran 5 commands, 1 failed."));
+        assertFalse(Files.exists(Path.of(filePath + ".journal")));
+        List<Task> saved = new Storage(filePath).load();
+        assertEquals(3, saved.size());
+        assertTrue(saved.get(0).isDone());
+    }
+
+    @Test
+    public void flora_runBatch_stopsAtExit() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        String script = "todo first\nbye\ntodo second\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new Flora(filePath).runBatch(new BufferedReader(new StringReader(script)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void flora_runRepl_respondsToEachLine() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        String input = "todo read book\nlist\nbye\ntodo ignored\n";
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        new Flora(filePath).runRepl(new BufferedReader(new StringReader(input)),
+                new PrintStream(output, true, StandardCharsets.UTF_8));
+
+        String transcript = output.toString(StandardCharsets.UTF_8);
+        assertTrue(transcript.contains("Hi there! Flora here."));
+        assertTrue(transcript.contains("Got it. I've added this task:"));
+        assertTrue(transcript.contains("1.[T][ ] read book"));
+        assertFalse(transcript.contains("ignored"));
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    // ==================== Metrics ====================
+
+    @Test
+    public void latencyHistogram_percentiles_withinBucketPrecision() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(500_500, histogram.getMeanNanos());
+        assertEquals(1_000_000, histogram.getMaxNanos());
+        long p50 = histogram.getPercentileNanos(50);
+        long p99 = histogram.getPercentileNanos(99);
+        assertTrue(p50 >= 500_000 && p50 <= 500_000 * 1.04, "p50 was " + p50);
+        assertTrue(p99 >= 990_000 && p99 <= 1_000_000, "p99 was " + p99);
+        assertEquals(1_000_000, histogram.getPercentileNanos(100));
+    }
+
+    @Test
+    public void latencyHistogram_smallAndHugeValues_areKept() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.getPercentileNanos(50));
+        histogram.record(-5);
+        histogram.record(7);
+        histogram.record(Long.MAX_VALUE);
+        assertEquals(7, histogram.getPercentileNanos(50));
+        assertTrue(histogram.getMaxNanos() > Duration.ofHours(1).toNanos());
+        List<Long> counts = new ArrayList<>();
+        histogram.forEachBucket((lowerBound, count) -> counts.add(count));
+        assertEquals(List.of(1L, 1L, 1L), counts);
+    }
+
+    @Test
+    public void flora_getResponse_recordsCommandMetrics() {
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        flora.getResponse("todo read book");
+        flora.getResponse("list");
+        flora.getResponse("list");
+        flora.getResponse("mark 9");
+        flora.getResponse("dance");
+        CommandMetrics metrics = flora.getMetrics();
+
+        assertEquals(1, metrics.getCount("AddTodo"));
+        assertEquals(2, metrics.getCount("List"));
+        assertEquals(1, metrics.getErrorCount("Mark"));
+        assertEquals(1, metrics.getErrorCount(CommandMetrics.INVALID_TYPE));
+        assertEquals(2, metrics.getHistogram("List", CommandMetrics.Phase.PARSE).getCount());
+        assertEquals(2, metrics.getHistogram("List", CommandMetrics.Phase.EXECUTE).getCount());
+        assertEquals(0, metrics.getHistogram("List", CommandMetrics.Phase.PERSIST).getCount());
+        assertEquals(1, metrics.getHistogram("AddTodo", CommandMetrics.Phase.PERSIST).getCount());
+        assertEquals(null, metrics.getHistogram("Delete", CommandMetrics.Phase.EXECUTE));
+        assertEquals(null, flora.flushStorage());
+    }
+
+    @Test
+    public void commandMetrics_toJson_phaseNamesIgnoreDefaultLocale() {
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        flora.getResponse("todo read book");
+        Locale defaultLocale = Locale.getDefault();
+        try {
+            // Turkish lowercases 'I' to a dotless 'ı', which would turn "persist" into "persıst"
+            Locale.setDefault(Locale.forLanguageTag("tr-TR"));
+            String json = flora.getMetrics().toJson();
+            assertTrue(json.contains("\"persist\":{"));
+            assertTrue(flora.getMetrics().formatSummary().contains("\n  persist"));
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
+        assertEquals(null, flora.flushStorage());
+    }
+
+    @Test
+    public void statsCommand_execute_summarizesAndWritesDump() throws Exception {
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        flora.getResponse("todo read book");
+        assertTrue(flora.getResponse("stats").startsWith("Here's how your commands have been doing:\nAddTodo: 1 run"));
+
+        Path dumpFile = tempDir.resolve("stats").resolve("metrics.json");
+        StatsCommand command = assertInstanceOf(StatsCommand.class, Parser.parse("stats"));
+        command.setMetrics(flora.getMetrics(), dumpFile);
+        command.execute(null, null);
+        assertTrue(command.getMessage().endsWith("Full stats written to " + dumpFile));
+        String json = Files.readString(dumpFile);
+        assertTrue(json.startsWith("{\"commands\":{\"AddTodo\":{\"count\":1,\"errors\":0,\"parse\":{\"count\":1,"));
+        assertTrue(json.contains("\"Stats\":{\"count\":1,\"errors\":0,"));
+
+        assertEquals("No commands have run yet bro.", new CommandMetrics().formatSummary());
+        assertThrows(FloraException.class, () -> new StatsCommand().execute(null, null));
+    }
+
+    @Test
+    public void flora_flightRecording_recordsCommandAndSaveEvents() throws Exception {
+        Path recordingFile = tempDir.resolve("flora.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("flora.CommandExecute").withoutThreshold();
+            recording.enable("flora.StorageSave").withoutThreshold();
+            recording.start();
+            Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+            flora.getResponse("todo read book");
+            flora.getResponse("list");
+            assertEquals(null, flora.flushStorage());
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(recordingFile);
+        List<String> commandTypes = events.stream()
+                .filter(event -> event.getEventType().getName().equals("flora.CommandExecute"))
+                .map(event -> event.getString("commandType"))
+                .toList();
+        assertEquals(List.of("AddTodo", "List"), commandTypes);
+        assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals("flora.StorageSave")));
+    }
+
+    // ==================== Server ====================
+
+    private static HttpResponse<String> post(HttpClient client, FloraServer server, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + server.getPort() + FloraServer.COMMAND_PATH))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    @Test
+    public void floraServer_post_executesCommands() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        FloraServer server = FloraServer.start(new Flora(filePath), 0);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            HttpResponse<String> added = post(client, server, "todo read book");
+            assertEquals(200, added.statusCode());
+            assertTrue(added.body().startsWith("Got it. I've added this task:"));
+
+            HttpResponse<String> listed = post(client, server, "list");
+            assertEquals("Here are the tasks in your list: \n1.[T][ ] read book", listed.body());
+
+            HttpResponse<String> failed = post(client, server, "mark 5");
+            assertEquals(400, failed.statusCode());
+            assertTrue(failed.body().startsWith("Error: "));
+        } finally {
+            assertEquals(null, server.stop());
+        }
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void floraServer_otherPathsAndMethods_areRejected() throws Exception {
+        FloraServer server = FloraServer.start(new Flora(tempDir.resolve("tasks.txt").toString()), 0);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            URI commandUri = URI.create("http://localhost:" + server.getPort() + FloraServer.COMMAND_PATH);
+            HttpResponse<String> get = client.send(HttpRequest.newBuilder(commandUri).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            assertEquals(405, get.statusCode());
+
+            URI otherUri = URI.create("http://localhost:" + server.getPort() + "/commands");
+            HttpResponse<String> other = client.send(HttpRequest.newBuilder(otherUri)
+                    .POST(HttpRequest.BodyPublishers.ofString("list")).build(), HttpResponse.BodyHandlers.ofString());
+            assertEquals(404, other.statusCode());
+        } finally {
+            server.stop();
+        }
+    }
+
+    @Test
+    public void floraServer_concurrentClients_seeEveryWrite() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        FloraServer server = FloraServer.start(new Flora(filePath), 0);
+        ExecutorService clients = Executors.newFixedThreadPool(16);
+        try {
+            HttpClient client = HttpClient.newHttpClient();
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String input = i % 4 == 0 ? "todo task " + i : (i % 4 == 1 ? "find task" : "list /size 10");
+                results.add(clients.submit(() -> post(client, server, input).statusCode()));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(200, result.get().intValue());
+            }
+            HttpResponse<String> listed = post(client, server, "list /page 5 /size 10");
+            assertTrue(listed.body().endsWith("Showing tasks 41-50 of 50."));
+        } finally {
+            clients.shutdown();
+            server.stop();
+        }
+        assertEquals(50, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void flora_concurrentReads_seeEveryCompletedChange() {
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        flora.prepareForConcurrentReads();
+        flora.getResponse("todo read book");
+        assertEquals("Here are the tasks in your list: \n1.[T][ ] read book", flora.getResponse("list"));
+        flora.getResponse("mark 1");
+        assertEquals("Here are the tasks in your list: \n1.[T][X] read book", flora.getResponse("list"));
+        assertTrue(flora.getResponse("mark 2").startsWith("Error: "));
+        assertTrue(flora.getResponse("find read").contains("[T][X] read book"));
+        assertEquals(null, flora.flushStorage());
+    }
+
+    @Test
+    public void flora_concurrentReads_queriesUseIndexesWithoutRebuilding() throws Exception {
+        Path recordingFile = tempDir.resolve("index.jfr");
+        Flora flora = new Flora(tempDir.resolve("tasks.txt").toString());
+        try (Recording recording = new Recording()) {
+            recording.enable("flora.IndexMaintenance").withoutThreshold();
+            recording.start();
+            flora.prepareForConcurrentReads();
+            flora.getResponse("event book club /from 1/3/2025 10:00 /to 1/3/2025 12:00");
+            assertTrue(flora.getResponse("find book").contains("book club"));
+            flora.getResponse("deadline return book /by 1/3/2025 9:00");
+            assertTrue(flora.getResponse("schedule /from 1/3/2025 /to 2/3/2025 12:00").contains("book club"));
+            flora.getResponse("todo read book");
+            assertTrue(flora.getResponse("due /before 2/3/2025").contains("return book"));
+            assertTrue(flora.getResponse("find book").contains("read book"));
+            flora.getResponse("conflicts");
+            recording.stop();
+            recording.dump(recordingFile);
+        }
+
+        // the indexes are built once when concurrent reads start, and only updated afterwards
+        List<String> builds = RecordingFile.readAllEvents(recordingFile).stream()
+                .filter(event -> event.getString("operation").equals("build"))
+                .map(event -> event.getString("index"))
+                .toList();
+        assertEquals(List.of("search", "event", "deadline"), builds);
+        assertEquals(null, flora.flushStorage());
+    }
+
+    // ==================== UI: CommandRunner ====================
+
+    @Test
+    public void commandRunner_submit_repliesInOrder() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        CommandRunner runner = new CommandRunner(new Flora(filePath), Runnable::run);
+        List<CommandRunner.Reply> replies = new CopyOnWriteArrayList<>();
+        runner.submit("todo read book", replies::add);
+        runner.submit("todo buy milk", replies::add);
+        runner.submit("list", replies::add);
+        runner.submit("bye", replies::add);
+        assertTrue(runner.close());
+
+        assertEquals(4, replies.size());
+        assertTrue(replies.get(2).text().contains("1.[T][ ] read book"));
+        assertTrue(replies.get(2).text().contains("2.[T][ ] buy milk"));
+        assertFalse(replies.get(2).isExit());
+        assertTrue(replies.get(3).isExit());
+        assertFalse(runner.isBusy());
+    }
+
+    @Test
+    public void commandRunner_cancelAll_skipsUnfinishedCommands() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Flora flora = new Flora(filePath);
+        CountDownLatch replied = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CommandRunner runner = new CommandRunner(flora, Runnable::run);
+        List<CommandRunner.Reply> replies = new CopyOnWriteArrayList<>();
+        // the first reply holds the command thread until released, so the next two stay queued
+        runner.submit("todo first", reply -> {
+            replies.add(reply);
+            replied.countDown();
+            assertDoesNotThrow(() -> release.await());
+        });
+        runner.submit("todo second", replies::add);
+        runner.submit("todo third", replies::add);
+        replied.await();
+
+        assertTrue(runner.isBusy());
+        assertEquals(2, runner.cancelAll());
+        release.countDown();
+        assertTrue(runner.close());
+
+        assertEquals(3, replies.size());
+        assertFalse(replies.get(0).isCancelled());
+        assertTrue(replies.get(1).isCancelled());
+        assertTrue(replies.get(2).isCancelled());
+        flora.flushStorage();
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void commandRunner_cancelAll_deliversReplyOfRunningChange() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        BlockingFlora flora = new BlockingFlora(filePath);
+        CommandRunner runner = new CommandRunner(flora, Runnable::run);
+        List<CommandRunner.Reply> replies = new CopyOnWriteArrayList<>();
+        runner.submit("todo first", replies::add);
+        runner.submit("todo second", replies::add);
+        flora.started.await();
+
+        assertEquals(1, runner.cancelAll());
+        flora.release.countDown();
+        assertTrue(runner.close());
+
+        // the queued command's cancellation arrives first, then the running command's real reply
+        assertEquals(2, replies.size());
+        assertTrue(replies.get(0).isCancelled());
+        assertFalse(replies.get(1).isCancelled());
+        assertTrue(replies.get(1).text().contains("[T][ ] first"));
+        flora.flushStorage();
+        assertEquals(1, new Storage(filePath).load().size());
+    }
+
+    @Test
+    public void commandRunner_cancelAll_stopsRunningQuery() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        BlockingFlora flora = new BlockingFlora(filePath);
+        CommandRunner runner = new CommandRunner(flora, Runnable::run);
+        List<CommandRunner.Reply> replies = new CopyOnWriteArrayList<>();
+        runner.submit("list", replies::add);
+        flora.started.await();
+
+        assertEquals(1, runner.cancelAll());
+        assertTrue(flora.running.isCancelled());
+        assertFalse(runner.isBusy());
+        flora.release.countDown();
+        assertTrue(runner.close());
+
+        assertEquals(1, replies.size());
+        assertTrue(replies.get(0).isCancelled());
+    }
+
+    @Test
+    public void commandRunner_cancelAllDuringQueuedDelete_replyMatchesSavedList() throws Exception {
+        String filePath = tempDir.resolve("tasks.txt").toString();
+        Flora flora = new Flora(filePath);
+        int taskCount = 2000;
+        for (int i = 1; i <= taskCount; i++) {
+            flora.getResponse("todo task " + i);
+        }
+        CommandRunner runner = new CommandRunner(flora, Runnable::run);
+        List<CommandRunner.Reply> replies = new CopyOnWriteArrayList<>();
+        Thread canceller = new Thread(() -> {
+            while (replies.size() < taskCount) {
+                runner.cancelAll();
+            }
+        });
+        canceller.start();
+        // each delete races the canceller, which may catch it queued, starting, or running
+        for (int i = 0; i < taskCount; i++) {
+            runner.submit("delete 1", replies::add);
+        }
+        canceller.join();
+        assertTrue(runner.close());
+        flora.flushStorage();
+
+        long deleted = replies.stream().filter(reply -> !reply.isCancelled()).count();
+        assertEquals(taskCount - deleted, new Storage(filePath).load().size());
+    }
+
+    /**
+     * A Flora that holds each command on the command thread until released, so tests can act while it runs.
+     */
+    private static class BlockingFlora extends Flora {
+        private final CountDownLatch started = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile Command running;
+
+        BlockingFlora(String filePath) {
+            super(filePath);
+        }
+
+        @Override
+        public String getResponse(Command command) {
+            running = command;
+            started.countDown();
+            assertDoesNotThrow(() -> release.await());
+            return super.getResponse(command);
+        }
+    }
+
+    // ==================== UI: Transcript ====================
+
+    @Test
+    public void chatMessage_ofResponse_detectsErrors() {
+        assertEquals(ChatMessage.Kind.ERROR, ChatMessage.ofResponse("Error: Bro's out of bounds").kind());
+        assertEquals(ChatMessage.Kind.REPLY, ChatMessage.ofResponse("Bye. Hope to see you again soon!").kind());
+        assertFalse(ChatMessage.ofUser("list").isFromFlora());
+        assertTrue(ChatMessage.ofPending().isFromFlora());
+    }
+
+    @Test
+    public void transcript_add_spillsOldestPagesBeyondCapacity() throws Exception {
+        try (Transcript transcript = new Transcript(tempDir.resolve("transcript.bin"), 200)) {
+            int dropped = 0;
+            for (int i = 0; i < 1000; i++) {
+                dropped += transcript.add(ChatMessage.ofUser("message " + i));
+            }
+            assertEquals(1000, transcript.getTotalCount());
+            assertEquals(800, dropped);
+            assertEquals(200, transcript.getLoaded().size());
+            assertEquals(800, transcript.getFirstLoadedIndex());
+            assertEquals("message 800", transcript.getLoaded().get(0).text());
+            assertTrue(transcript.hasOlder());
+        }
+    }
+
+    @Test
+    public void transcript_loadOlder_pagesBackSpilledMessages() throws Exception {
+        try (Transcript transcript = new Transcript(tempDir.resolve("transcript.bin"), 100)) {
+            for (int i = 0; i < 350; i++) {
+                transcript.add(i % 2 == 0 ? ChatMessage.ofUser("ask " + i) : ChatMessage.ofResponse("Error: " + i));
+            }
+            assertEquals(300, transcript.getFirstLoadedIndex());
+
+            List<ChatMessage> older = transcript.loadOlder();
+            assertEquals(Transcript.PAGE_SIZE, older.size());
+            assertEquals(new ChatMessage(ChatMessage.Kind.USER, "ask 200"), older.get(0));
+            assertEquals(new ChatMessage(ChatMessage.Kind.ERROR, "Error: 299"), older.get(99));
+            transcript.loadOlder();
+            transcript.loadOlder();
+            assertFalse(transcript.hasOlder());
+            assertEquals("ask 0", transcript.getLoaded().get(0).text());
+            assertTrue(transcript.loadOlder().isEmpty());
+
+            // reloaded pages are already on disk, so the next message drops them without rewriting
+            assertEquals(300, transcript.add(ChatMessage.ofUser("ask 350")));
+            assertEquals("ask 300", transcript.getLoaded().get(0).text());
+            assertEquals("ask 200", transcript.loadOlder().get(0).text());
+        }
+    }
+
+    @Test
+    public void transcript_replace_onlyUpdatesUnspilledMessages() throws Exception {
+        try (Transcript transcript = new Transcript(tempDir.resolve("transcript.bin"), 100)) {
+            transcript.add(ChatMessage.ofPending());
+            assertEquals(0, transcript.replace(0, ChatMessage.ofResponse("Got it.")));
+            assertEquals("Got it.", transcript.getLoaded().get(0).text());
+
+            transcript.add(ChatMessage.ofPending());
+            for (int i = 0; i < 100; i++) {
+                transcript.add(ChatMessage.ofUser("todo " + i));
+            }
+            assertEquals(-1, transcript.replace(1, ChatMessage.ofResponse("Too late.")));
+            transcript.loadOlder();
+            assertEquals(-1, transcript.replace(1, ChatMessage.ofResponse("Too late.")));
+            assertEquals(ChatMessage.Kind.PENDING, transcript.getLoaded().get(1).kind());
+            assertEquals(-1, transcript.replace(500, ChatMessage.ofResponse("Never added.")));
+        }
+    }
+
+    @Test
+    public void transcript_close_deletesSpillFile() throws Exception {
+        Path spillFile = tempDir.resolve("transcript.bin");
+        Transcript transcript = new Transcript(spillFile, 100);
+        assertTrue(Files.exists(spillFile));
+        transcript.close();
+        assertFalse(Files.exists(spillFile));
+    }
+
     // ==================== FloraException ====================
 
     @Test